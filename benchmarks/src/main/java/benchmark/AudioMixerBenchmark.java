@@ -0,0 +1,64 @@
+/*
+Responsibilities:
+
+- Measure the cost of mixing one block of audio with a given number of effects sounding at once, the work the
+  mixer thread does for every 512 frames (about 11.6 ms) of audio.
+
+Data:
+
+- A mixer with no sink and no threads, mixed directly on the benchmark thread, and the block it mixes into.
+ */
+
+package main.java.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import main.java.audio.AudioMixer;
+import main.java.audio.SoundBank;
+import main.java.audio.SoundEffect;
+import main.java.utility.GameLogger;
+import main.java.utility.LogLevel;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AudioMixerBenchmark {
+    private static final int BLOCK_FRAMES = 512;
+
+    @Param({ "1", "8", "32" })
+    public int voices;
+
+    private AudioMixer mixer;
+    private final short[] block = new short[BLOCK_FRAMES];
+
+    @Setup
+    public void setUp() {
+        GameLogger.getInstance().setLevel(LogLevel.OFF);
+        mixer = new AudioMixer(SoundBank.load(null), null);
+    }
+
+    @Benchmark
+    public short[] mixBlock() {
+        // Restart effects as they finish, so the same number is always sounding
+        for (int i = mixer.getActiveVoices(); i < voices; i++) {
+            mixer.play(SoundEffect.CRASH);
+        }
+        mixer.mix(block, BLOCK_FRAMES);
+        return block;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+Responsibilities:
+
+- Measure the bullet collision path (GameController.processBullets) at different invader and bullet counts.
+- Measure dispatching a single collision through the CollisionDispatcher type-pair table.
+
+Data:
+
+- A game with a block formation of invaders and a block of bullets below it, rebuilt before every measurement
+  iteration so each batch of bullet steps starts from the same layout.
+- A bullet, an invader and the dispatcher for the dispatch benchmark.
+ */
+
+package main.java.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import main.java.controller.GameController;
+import main.java.controller.GameSettings;
+import main.java.factory.GameObjectFactory;
+import main.java.factory.WavePattern;
+import main.java.model.Bullet;
+import main.java.model.EntityType;
+import main.java.model.Invader;
+import main.java.utility.BulletInvaderCollisionHandler;
+import main.java.utility.CollisionDispatcher;
+import main.java.utility.GameLogger;
+import main.java.utility.LogLevel;
+import main.java.utility.PlayerInvaderCollisionHandler;
+
+@Fork(1)
+public class CollisionBenchmark {
+    static final int STEPS = 50;
+    static final int ARENA_WIDTH = 512;
+
+    @State(Scope.Thread)
+    public static class Formation {
+        @Param({ "100", "1000", "10000" })
+        public int invaders;
+
+        @Param({ "100", "1000", "10000" })
+        public int bullets;
+
+        GameController game;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            GameLogger.getInstance().setLevel(LogLevel.OFF);
+            GameSettings settings = new GameSettings();
+            settings.setHeadless(true);
+            settings.setSeed(42);
+            settings.setInvadersPerLevel(0);
+            int invaderRows = (invaders + ARENA_WIDTH - 1) / ARENA_WIDTH;
+            int bulletRows = (bullets + ARENA_WIDTH - 1) / ARENA_WIDTH;
+            settings.setArenaSize(ARENA_WIDTH, invaderRows + bulletRows + STEPS + 2);
+            game = new GameController(settings);
+            game.newGame();
+
+            // Invaders fill the top rows; bullets start just below them and fly up through the formation
+            GameObjectFactory factory = game.getFactory();
+            factory.spawnWave(invaders, WavePattern.BLOCK);
+            for (int i = 0; i < bullets; i++) {
+                factory.spawnBullet(i % ARENA_WIDTH, invaderRows + 1 + i / ARENA_WIDTH);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Dispatch {
+        CollisionDispatcher dispatcher;
+        Bullet bullet;
+        Invader invader;
+
+        @Setup
+        public void setUp() {
+            GameLogger.getInstance().setLevel(LogLevel.OFF);
+            dispatcher = new CollisionDispatcher();
+            dispatcher.register(EntityType.PLAYER, EntityType.INVADER, new PlayerInvaderCollisionHandler());
+            dispatcher.register(EntityType.BULLET, EntityType.INVADER, new BulletInvaderCollisionHandler());
+            // Plenty of health, so repeated hits never change the outcome being measured
+            bullet = new Bullet(3, 4);
+            bullet.setHealth(Integer.MAX_VALUE);
+            invader = new Invader(3, 4, 1, 1, Integer.MAX_VALUE);
+        }
+    }
+
+    // Bullets move and are released as they hit, so each iteration times a fixed number of steps from a fresh layout
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 10, batchSize = STEPS)
+    @Measurement(iterations = 20, batchSize = STEPS)
+    public void processBullets(Formation formation) {
+        formation.game.processBullets();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public boolean dispatchCollision(Dispatch dispatch) {
+        // Invader first, so the symmetric (swapped) table entry is exercised
+        return dispatch.dispatcher.dispatch(dispatch.invader, dispatch.bullet);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+Responsibilities:
+
+- Measure the cost of one lockstep step of a VectorEnvironment, random actions included, at different
+  environment and thread counts.
+
+Data:
+
+- The environments being stepped, and the action, observation, reward and done arrays reused by every step.
+ */
+
+package main.java.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import main.java.controller.GameSettings;
+import main.java.env.GameEnvironment;
+import main.java.env.VectorEnvironment;
+import main.java.utility.GameLogger;
+import main.java.utility.GameRandom;
+import main.java.utility.LogLevel;
+
+// Episodes reset themselves as they end, so every step can be timed against the same long-lived environments
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EnvironmentBenchmark {
+    @Param({ "1", "16", "64" })
+    public int environments;
+
+    @Param({ "1", "4" })
+    public int threads;
+
+    private VectorEnvironment vector;
+    private GameRandom random;
+    private int[] actions;
+    private float[] observations;
+    private float[] rewards;
+    private boolean[] dones;
+
+    @Setup
+    public void setUp() {
+        GameLogger.getInstance().setLevel(LogLevel.OFF);
+        GameSettings settings = new GameSettings();
+        settings.setSeed(42);
+        vector = new VectorEnvironment(settings, environments, threads);
+        random = new GameRandom(7);
+        actions = new int[environments];
+        observations = new float[environments * vector.getObservationSize()];
+        rewards = new float[environments];
+        dones = new boolean[environments];
+        vector.reset(42, observations);
+    }
+
+    @TearDown
+    public void tearDown() {
+        vector.close();
+    }
+
+    @Benchmark
+    public float[] step() {
+        for (int i = 0; i < environments; i++) {
+            actions[i] = random.nextInt(GameEnvironment.ACTIONS);
+        }
+        vector.step(actions, observations, rewards, dones);
+        return rewards;
+    }
+}
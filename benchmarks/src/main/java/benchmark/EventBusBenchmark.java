@@ -0,0 +1,83 @@
+/*
+Responsibilities:
+
+- Measure what publishing a tick's worth of events on the event bus costs the game thread, with the handlers
+  inline or following on a thread of their own.
+
+Data:
+
+- A bus with a counting handler subscribed inline or on a thread, and the number of events published per tick.
+ */
+
+package main.java.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import main.java.event.EventBus;
+import main.java.event.EventHandler;
+import main.java.event.GameEvent;
+import main.java.event.GameEventType;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EventBusBenchmark {
+    @Param({ "16", "256" })
+    public int eventsPerTick;
+
+    @Param({ "false", "true" })
+    public boolean threaded;
+
+    private EventBus bus;
+    private final Counter counter = new Counter();
+
+    @Setup
+    public void setUp() {
+        bus = new EventBus();
+        if (threaded) {
+            bus.subscribeOnThread(counter, "event-benchmark");
+        } else {
+            bus.subscribe(counter);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        bus.close();
+    }
+
+    @Benchmark
+    public long publishTick() {
+        for (int i = 0; i < eventsPerTick; i++) {
+            bus.publish(GameEventType.INVADER_KILLED, i, i, 0);
+        }
+        bus.flush();
+        return bus.getPublished();
+    }
+
+    /** Sums event values, standing in for a cheap handler such as the score keeper. */
+    private static final class Counter implements EventHandler {
+        private long sum;
+
+        @Override
+        public void onEvent(GameEvent event, boolean endOfBatch) {
+            sum += event.getX();
+        }
+    }
+}
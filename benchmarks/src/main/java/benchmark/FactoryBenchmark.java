@@ -0,0 +1,59 @@
+/*
+Responsibilities:
+
+- Measure spawning and releasing a bullet through GameObjectFactory, comparing the string-keyed createObject
+  with the typed, pooled spawn method.
+
+Data:
+
+- The factory being measured.
+ */
+
+package main.java.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import main.java.factory.GameObjectFactory;
+import main.java.model.Arena;
+import main.java.model.Bullet;
+import main.java.utility.GameRandom;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FactoryBenchmark {
+    private GameObjectFactory factory;
+
+    @Setup
+    public void setUp() {
+        factory = new GameObjectFactory(Arena.DEFAULT, new GameRandom(42));
+    }
+
+    @Benchmark
+    public Bullet createObject() {
+        Bullet bullet = (Bullet) factory.createObject("bullet");
+        factory.release(bullet);
+        return bullet;
+    }
+
+    @Benchmark
+    public Bullet spawnBullet() {
+        Bullet bullet = factory.spawnBullet(1, 2);
+        factory.release(bullet);
+        return bullet;
+    }
+}
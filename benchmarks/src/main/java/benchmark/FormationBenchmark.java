@@ -0,0 +1,68 @@
+/*
+Responsibilities:
+
+- Measure the cost of a whole GameController.runGameCycle() tick in formation mode, where the invaders are a
+  bitboard, at invader counts far beyond what the object mode can tick quickly.
+
+Data:
+
+- The game being ticked, rebuilt before every measurement iteration so each batch of ticks starts from the
+  same seeded level.
+ */
+
+package main.java.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import main.java.controller.GameController;
+import main.java.controller.GameSettings;
+import main.java.utility.GameLogger;
+import main.java.utility.LogLevel;
+
+// Ticks change the game state, so each iteration times a fixed batch of ticks from a fresh game
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, batchSize = FormationBenchmark.TICKS)
+@Measurement(iterations = 20, batchSize = FormationBenchmark.TICKS)
+@Fork(1)
+@State(Scope.Thread)
+public class FormationBenchmark {
+    static final int TICKS = 500;
+
+    @Param({ "10000", "100000", "1000000" })
+    public int invaders;
+
+    private GameController game;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        GameLogger.getInstance().setLevel(LogLevel.OFF);
+        GameSettings settings = new GameSettings();
+        settings.setHeadless(true);
+        settings.setSeed(42);
+        settings.setFormation(true);
+        // Wide enough for a million invaders in 256 rows, and tall enough that they are still falling when the batch ends
+        settings.setArenaSize(4096, TICKS * 2);
+        settings.setInvadersPerLevel(invaders);
+        game = new GameController(settings);
+        game.newGame();
+    }
+
+    @Benchmark
+    public boolean runGameCycle() {
+        return game.runGameCycle();
+    }
+}
@@ -0,0 +1,63 @@
+/*
+Responsibilities:
+
+- Measure moving every entity of a store one step, comparing the bulk column loop in EntityStore with calling
+  moveDown() on each GameObject handle.
+
+Data:
+
+- A store of invaders in an arena tall enough that they never reach the bottom during a run.
+ */
+
+package main.java.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import main.java.model.Arena;
+import main.java.model.EntityStore;
+import main.java.model.Invader;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MovementBenchmark {
+    @Param({ "100", "10000", "100000" })
+    public int entities;
+
+    private EntityStore<Invader> invaders;
+
+    @Setup
+    public void setUp() {
+        invaders = new EntityStore<>(new Arena(1024, Integer.MAX_VALUE), entities);
+        for (int i = 0; i < entities; i++) {
+            new Invader(invaders, i % 1024, 0, 1, 1, 1);
+        }
+    }
+
+    @Benchmark
+    public void storeMoveAllDown() {
+        invaders.moveAllDown();
+    }
+
+    @Benchmark
+    public void handleMoveDown() {
+        for (int slot = 0; slot < invaders.size(); slot++) {
+            invaders.get(slot).moveDown();
+        }
+    }
+}
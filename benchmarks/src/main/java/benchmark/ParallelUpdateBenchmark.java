@@ -0,0 +1,72 @@
+/*
+Responsibilities:
+
+- Measure how a tick of one very large game scales when its entity updates are split across threads.
+
+Data:
+
+- The game being ticked, created once per thread count and restarted before every measurement iteration so
+  each batch of ticks starts from the same seeded level.
+ */
+
+package main.java.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import main.java.controller.GameController;
+import main.java.controller.GameSettings;
+import main.java.utility.GameLogger;
+import main.java.utility.LogLevel;
+
+// Ticks change the game state, so each iteration times a fixed batch of ticks from a restarted game
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, batchSize = ParallelUpdateBenchmark.TICKS)
+@Measurement(iterations = 20, batchSize = ParallelUpdateBenchmark.TICKS)
+@Fork(1)
+@State(Scope.Thread)
+public class ParallelUpdateBenchmark {
+    static final int TICKS = 200;
+
+    @Param({ "1", "2", "4", "8" })
+    public int threads;
+
+    private GameController game;
+
+    @Setup(Level.Trial)
+    public void createGame() {
+        GameLogger.getInstance().setLevel(LogLevel.OFF);
+        GameSettings settings = new GameSettings();
+        settings.setHeadless(true);
+        settings.setSeed(42);
+        // Tall enough that the invaders are still falling when the batch ends
+        settings.setArenaSize(2048, TICKS * 2);
+        settings.setInvadersPerLevel(100_000);
+        settings.setUpdateThreads(threads);
+        game = new GameController(settings);
+    }
+
+    @Setup(Level.Iteration)
+    public void restartGame() {
+        // Restarting keeps the game's update threads
+        game.newGame();
+    }
+
+    @Benchmark
+    public boolean runGameCycle() {
+        return game.runGameCycle();
+    }
+}
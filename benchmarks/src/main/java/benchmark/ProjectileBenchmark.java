@@ -0,0 +1,75 @@
+/*
+Responsibilities:
+
+- Measure the cost of ProjectileSystem.update() for large numbers of invader projectiles: moving them, sweeping
+  them against the player and compacting the survivors.
+
+Data:
+
+- The projectile system being updated, refilled before every measurement iteration so each batch of updates
+  starts from the same projectiles, and the store holding the player they are checked against.
+ */
+
+package main.java.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import main.java.model.Arena;
+import main.java.model.EntityStore;
+import main.java.model.Player;
+import main.java.model.ProjectileKind;
+import main.java.model.ProjectileSystem;
+import main.java.utility.GameRandom;
+
+// Updates move the projectiles on, so each iteration times a fixed batch of updates from a fresh fill
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, batchSize = ProjectileBenchmark.TICKS)
+@Measurement(iterations = 20, batchSize = ProjectileBenchmark.TICKS)
+@Fork(1)
+@State(Scope.Thread)
+public class ProjectileBenchmark {
+    static final int TICKS = 50;
+
+    @Param({ "10000", "100000", "1000000" })
+    public int projectiles;
+
+    // Tall enough that the fastest projectiles fired from the top half are still in the arena when the batch ends
+    private final Arena arena = new Arena(2048, 8 * TICKS);
+    private final EntityStore<Player> players = new EntityStore<>(arena, 1);
+    private ProjectileSystem system;
+
+    @Setup(Level.Trial)
+    public void createPlayer() {
+        new Player(players, arena.getWidth() / 2, arena.getHeight() - 1, 1, 1, 100);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        GameRandom random = new GameRandom(42);
+        ProjectileKind[] kinds = ProjectileKind.values();
+        system = new ProjectileSystem(arena, projectiles);
+        for (int i = 0; i < projectiles; i++) {
+            system.spawn(random.nextInt(arena.getWidth()), random.nextInt(arena.getHeight() / 2),
+                    kinds[random.nextInt(kinds.length)]);
+        }
+    }
+
+    @Benchmark
+    public int update() {
+        return system.update(players);
+    }
+}
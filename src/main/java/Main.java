@@ -11,14 +11,456 @@ Data:
 
 package main.java;
 
+import java.io.IOException;
+
+import javax.management.JMException;
+import javax.sound.sampled.LineUnavailableException;
+
+import main.java.audio.AudioMixer;
+import main.java.audio.AudioSink;
+import main.java.audio.LineSink;
+import main.java.audio.SoundBank;
+import main.java.audio.WavFileSink;
+import main.java.controller.BatchRunner;
 import main.java.controller.GameController;
+import main.java.controller.GameSettings;
+import main.java.controller.GameSnapshot;
+import main.java.controller.InputProducer;
+import main.java.controller.InputQueue;
+import main.java.controller.QueuedInput;
+import main.java.controller.SoakReport;
+import main.java.controller.SoakRunner;
+import main.java.env.GameEnvironment;
+import main.java.factory.WaveScript;
+import main.java.factory.WaveScriptWriter;
+import main.java.env.VectorEnvironment;
+import main.java.metrics.GameMetrics;
+import main.java.metrics.MetricsReporter;
+import main.java.render.TerminalRenderer;
+import main.java.replay.Recording;
+import main.java.server.BotClient;
+import main.java.server.GameServer;
+import main.java.server.ServerStats;
+import main.java.replay.ReplayEngine;
+import main.java.results.ResultStore;
+import main.java.utility.GameLogger;
+import main.java.utility.GameRandom;
+import main.java.utility.LogLevel;
+import main.java.utility.SoundManager;
 
 public class Main {
     public static void main(String[] args) {
+        // Apply command line options, e.g. --headless to run without the pacing delay
+        GameSettings settings;
+        try {
+            settings = GameSettings.fromArgs(args);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid option " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        configureLogging(settings);
+
+        // Write a stress wave script to play later with --wave-script
+        if (settings.getGenerateWavesFile() != null) {
+            generateWaves(settings);
+            return;
+        }
+        if (settings.getWaveScript() != null) {
+            checkWaveScript(settings);
+        }
+
+        // Print the best runs recorded in a run-result log
+        if (settings.getLeaderboardSize() > 0) {
+            printLeaderboard(settings);
+            return;
+        }
+
+        // Re-run a recorded game and check it plays out the same
+        if (settings.getReplayFile() != null) {
+            replay(settings);
+            return;
+        }
+
+        // Continue a checkpointed game from its snapshot
+        if (settings.getResumeFile() != null) {
+            resume(settings);
+            return;
+        }
+
+        // Play a server's game as a bot client
+        if (settings.getBotClientAddress() != null) {
+            runBotClient(settings);
+            return;
+        }
+
+        // Host a game for several players over the network
+        if (settings.isServer()) {
+            runServer(settings);
+            return;
+        }
+        if (settings.getPlayers() > 1) {
+            System.out.println("Several players need --server; playing single-player");
+            settings.setPlayers(1);
+        }
+
+        // Tick one game for a long time and check allocation and retained heap against budgets
+        if (settings.getSoakTicks() > 0) {
+            SoakReport soakReport = new SoakRunner(settings).run();
+            soakReport.print();
+            if (!soakReport.isWithinBudget()) {
+                System.exit(1);
+            }
+            return;
+        }
+
+        // Step many environments in lockstep with random actions, as a training loop would
+        if (settings.getEnvBenchSteps() > 0) {
+            runEnvironmentBenchmark(settings);
+            return;
+        }
+
+        // Run many independent games side by side if a batch was requested
+        if (settings.getBatchGames() > 0) {
+            BatchRunner batchRunner = new BatchRunner(settings);
+            ResultStore results = openResults(settings);
+            batchRunner.setResultStore(results);
+            batchRunner.run().print();
+            closeResults(results);
+            return;
+        }
+
         // Get the instance of the GameController (Singleton)
         GameController gameController = GameController.getInstance();
+        gameController.configure(settings);
+        GameMetrics metrics = startMetrics(settings);
+        gameController.setMetrics(metrics);
+        TerminalRenderer renderer = startRenderer(settings);
+        gameController.setRenderer(renderer);
+        AudioMixer mixer = startAudio(settings);
+        QueuedInput input = startInput(settings, gameController);
 
-        // Start the game
+        // Start the game, with sound and logging handled off the game thread
+        gameController.startEffectThreads();
         gameController.startGame();
+        gameController.stopEffectThreads();
+        stopRenderer(gameController, renderer);
+        stopInput(input);
+        stopAudio(mixer);
+        report(gameController, settings, metrics);
+        recordResult(gameController, settings);
+    }
+
+    private static void resume(GameSettings settings) {
+        if (settings.getPlayers() > 1) {
+            System.out.println("A snapshot holds one player; resuming single-player");
+            settings.setPlayers(1);
+        }
+        try {
+            GameController gameController = GameSnapshot.load(settings.getResumeFile()).restore(settings);
+            GameMetrics metrics = startMetrics(settings);
+            gameController.setMetrics(metrics);
+            TerminalRenderer renderer = startRenderer(settings);
+            gameController.setRenderer(renderer);
+            AudioMixer mixer = startAudio(settings);
+            QueuedInput input = startInput(settings, gameController);
+            gameController.startEffectThreads();
+            gameController.simulateGame();
+            gameController.stopEffectThreads();
+            stopRenderer(gameController, renderer);
+            stopInput(input);
+            stopAudio(mixer);
+            report(gameController, settings, metrics);
+            recordResult(gameController, settings);
+        } catch (IOException e) {
+            System.out.println("Could not read the snapshot: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static void runServer(GameSettings settings) {
+        boolean severalPlayers = settings.getPlayers() > 1 || settings.getLoadTestPlayers() > 1;
+        if (severalPlayers && (settings.getRecordFile() != null || settings.getCheckpointInterval() > 0)) {
+            System.out.println("Recordings and snapshots hold one player; not recording or checkpointing the games of "
+                    + "several players");
+        }
+        try {
+            if (settings.getLoadTestPlayers() > 0) {
+                // Double the player count up to the largest, each a fresh game with bundled bots
+                ServerStats.printHeader();
+                for (int players = 1; players <= settings.getLoadTestPlayers(); players *= 2) {
+                    GameSettings round = settings.copy();
+                    round.setPlayers(players);
+                    round.setServerBots(players);
+                    GameServer.runWithBots(round).printRow();
+                }
+            } else if (settings.getServerBots() > 0) {
+                GameServer.runWithBots(settings).print();
+            } else {
+                GameServer server = new GameServer(settings);
+                System.out.println("Waiting for " + settings.getPlayers() + " player(s) on port " + server.getPort());
+                server.run().print();
+            }
+        } catch (IOException e) {
+            System.out.println("Game server failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static void runBotClient(GameSettings settings) {
+        BotClient bot = new BotClient(BotClient.parseAddress(settings.getBotClientAddress()), settings.getSeed());
+        bot.run();
+        bot.printReport();
+        if (!bot.isInSync()) {
+            System.exit(1);
+        }
+    }
+
+    private static void runEnvironmentBenchmark(GameSettings settings) {
+        int count = Math.max(1, settings.getEnvironments());
+        VectorEnvironment environments = new VectorEnvironment(settings, count, settings.getThreads());
+        float[] observations = new float[count * environments.getObservationSize()];
+        float[] rewards = new float[count];
+        boolean[] dones = new boolean[count];
+        int[] actions = new int[count];
+        GameRandom random = new GameRandom(~settings.getSeed());
+        double totalReward = 0;
+
+        long start = System.nanoTime();
+        environments.reset(settings.getSeed(), observations);
+        for (long step = 0; step < settings.getEnvBenchSteps(); step++) {
+            for (int i = 0; i < count; i++) {
+                actions[i] = random.nextInt(GameEnvironment.ACTIONS);
+            }
+            environments.step(actions, observations, rewards, dones);
+            for (int i = 0; i < count; i++) {
+                totalReward += rewards[i];
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        environments.close();
+
+        System.out.println("\nEnvironment Benchmark");
+        System.out.println("---------------------");
+        System.out.println("Environments: " + count + " on " + Math.min(count, settings.getThreads()) + " threads");
+        System.out.println("Observation size: " + environments.getObservationSize() + " floats");
+        System.out.printf("Steps: %d in %.2f s (%.0f steps/s)%n", environments.getSteps(), elapsed / 1e9,
+                environments.getSteps() / (elapsed / 1e9));
+        System.out.printf("Episodes finished: %d, mean reward per step: %.4f%n", environments.getEpisodes(),
+                totalReward / Math.max(1, environments.getSteps()));
+    }
+
+    private static void generateWaves(GameSettings settings) {
+        long start = System.nanoTime();
+        try {
+            WaveScriptWriter.generate(settings.getGenerateWavesFile(), settings.getArena(), settings.getWaveSpawns(),
+                    Math.max(1, settings.getWaveRate()), settings.getSeed());
+        } catch (IOException e) {
+            System.out.println("Could not write the wave script: " + e.getMessage());
+            System.exit(1);
+        }
+        System.out.printf("Wrote %d spawns to %s in %.2f s%n", settings.getWaveSpawns(),
+                settings.getGenerateWavesFile(), (System.nanoTime() - start) / 1e9);
+    }
+
+    private static void checkWaveScript(GameSettings settings) {
+        try {
+            WaveScript.open(settings.getWaveScript());
+        } catch (IOException e) {
+            System.out.println("Could not read the wave script: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static void replay(GameSettings settings) {
+        try {
+            Recording recording = Recording.read(settings.getReplayFile());
+            if (!new ReplayEngine().replay(recording, settings.getWaveScript())) {
+                System.exit(1);
+            }
+        } catch (IOException e) {
+            System.out.println("Could not read the recording: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static void printLeaderboard(GameSettings settings) {
+        if (settings.getResultsFile() == null) {
+            System.out.println("--leaderboard needs the run-result log to read, e.g. --results=results.bin");
+            System.exit(1);
+        }
+        try (ResultStore results = openResults(settings)) {
+            results.printLeaderboard(settings.getLeaderboardSize());
+        } catch (IOException e) {
+            System.out.println("Could not read the run-result log: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static ResultStore openResults(GameSettings settings) {
+        if (settings.getResultsFile() == null) {
+            return null;
+        }
+        try {
+            ResultStore results = ResultStore.open(settings.getResultsFile(), ResultStore.DEFAULT_TOP_K);
+            if (results.getDroppedRuns() > 0) {
+                System.out.println("Dropped " + results.getDroppedRuns() + " damaged run(s) from the end of "
+                        + settings.getResultsFile());
+            }
+            return results;
+        } catch (IOException e) {
+            System.out.println("Could not open the run-result log: " + e.getMessage());
+            System.exit(1);
+            return null;
+        }
+    }
+
+    private static void closeResults(ResultStore results) {
+        if (results == null) {
+            return;
+        }
+        try {
+            results.close();
+            results.printReport();
+        } catch (IOException e) {
+            System.out.println("Could not write the run-result log: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static void recordResult(GameController gameController, GameSettings settings) {
+        ResultStore results = openResults(settings);
+        if (results != null) {
+            results.record(gameController.getResult());
+            closeResults(results);
+        }
+    }
+
+    private static void report(GameController gameController, GameSettings settings, GameMetrics metrics) {
+        if (settings.isHeadless()) {
+            gameController.reportThroughput();
+        }
+        if (gameController.getScheduler() != null) {
+            System.out.println();
+            System.out.print(gameController.getScheduler().getReport());
+        }
+        if (metrics != null) {
+            System.out.println();
+            System.out.print(metrics.getReport());
+        }
+    }
+
+    private static TerminalRenderer startRenderer(GameSettings settings) {
+        if (!settings.isRender()) {
+            return null;
+        }
+        return new TerminalRenderer(System.out, settings.getRenderWidth(), settings.getRenderHeight(),
+                settings.getRenderFps());
+    }
+
+    private static void stopRenderer(GameController gameController, TerminalRenderer renderer) {
+        if (renderer != null) {
+            renderer.close(gameController);
+        }
+    }
+
+    private static QueuedInput startInput(GameSettings settings, GameController gameController) {
+        String mode = settings.getInputMode();
+        if (mode == null) {
+            return null;
+        }
+        InputQueue queue = new InputQueue(1024);
+        InputProducer producer;
+        switch (mode) {
+            case GameSettings.INPUT_KEYBOARD:
+                producer = InputProducer.keyboard(queue, System.in);
+                break;
+            case GameSettings.INPUT_SCRIPT:
+                try {
+                    producer = InputProducer.script(queue, settings.getInputScript());
+                } catch (IOException e) {
+                    System.out.println("Could not open the input script, using the built-in player: " + e.getMessage());
+                    return null;
+                }
+                break;
+            default:
+                producer = InputProducer.bot(queue, ~settings.getSeed(), settings.getBotRate());
+                break;
+        }
+        QueuedInput input = new QueuedInput(queue, producer);
+        gameController.setInputSource(input);
+        input.start();
+        return input;
+    }
+
+    private static void stopInput(QueuedInput input) {
+        if (input != null) {
+            input.close();
+            input.printReport();
+        }
+    }
+
+    private static AudioMixer startAudio(GameSettings settings) {
+        if (!settings.isAudioEnabled()) {
+            return null;
+        }
+        AudioSink sink;
+        try {
+            sink = settings.getAudioFile() != null ? new WavFileSink(settings.getAudioFile()) : new LineSink();
+        } catch (IOException e) {
+            System.out.println("Could not open the audio file, playing without sound: " + e.getMessage());
+            return null;
+        } catch (LineUnavailableException | IllegalArgumentException e) {
+            // IllegalArgumentException: no line supports the mixer's format, e.g. no sound card at all
+            System.out.println("Could not open the audio line, playing without sound: " + e.getMessage());
+            return null;
+        }
+        // A file is not played as it is written, so effects are placed by the game's ticks instead of the clock
+        int ticksPerSecond = settings.getAudioFile() != null ? settings.getTickRate() : 0;
+        AudioMixer mixer = new AudioMixer(SoundBank.load(settings.getSoundDirectory()), sink, ticksPerSecond);
+        mixer.start();
+        SoundManager.getInstance().setMixer(mixer);
+        return mixer;
+    }
+
+    private static void stopAudio(AudioMixer mixer) {
+        if (mixer != null) {
+            SoundManager.getInstance().setMixer(null);
+            mixer.close();
+            mixer.printReport();
+        }
+    }
+
+    private static GameMetrics startMetrics(GameSettings settings) {
+        if (!settings.isMetricsEnabled()) {
+            return null;
+        }
+        GameMetrics metrics = new GameMetrics();
+        try {
+            metrics.register();
+        } catch (JMException e) {
+            System.out.println("Could not publish metrics over JMX: " + e.getMessage());
+        }
+        if (settings.getMetricsInterval() > 0) {
+            // Reports go to stderr, so they never interleave with a game log written to stdout
+            new MetricsReporter(metrics, settings.getMetricsInterval(), System.err).start();
+        }
+        return metrics;
+    }
+
+    private static void configureLogging(GameSettings settings) {
+        GameLogger logger = GameLogger.getInstance();
+        logger.setLevel(settings.getLogLevel());
+        if (settings.isRender() && settings.getLogFile() == null) {
+            // Log lines on the terminal would scroll the rendered arena away
+            logger.setLevel(LogLevel.OFF);
+        }
+        if (settings.getLogFile() != null) {
+            try {
+                logger.logToFile(settings.getLogFile());
+            } catch (IOException e) {
+                System.out.println("Could not open log file, logging to stdout: " + e.getMessage());
+            }
+        }
     }
 }
@@ -0,0 +1,421 @@
+/*
+Responsibilities:
+
+- Mix the sound effects the game plays into one stream of audio, on a dedicated mixer thread, so the game thread
+  only ever queues an effect id.
+- Take play requests from any thread through a lock-free queue that never blocks: if the queue is full, the
+  request is dropped and counted.
+- Pace mixing to real time, a little ahead of the clock, into a ring buffer that a separate output thread drains
+  into an AudioSink, so neither the game thread nor the mixer ever waits on audio I/O.
+- Or, when writing to a file, ignore the clock and start each effect at the time of its game tick at the game's
+  tick rate, so the recording lines up with the game however fast or slow the game ran.
+- When closed, play out every queued and sounding effect before releasing the sink.
+- Measure what mixing costs, so it can be checked on machines without a sound card.
+
+Data:
+
+- The decoded effects, and the sink the mixed audio goes to.
+- The play request queue: per-slot effect ids, ticks and published sequences, and the claim and drain sequences.
+- When effects are timed by tick: the tick rate, and the tick of the first effect, which starts the recording.
+- The active voices (effect samples and play position), owned by the mixer thread.
+- The ring buffer of mixed samples, and the sequences written by the mixer and read by the output thread.
+- Counts of effects played, requests dropped, blocks lost to a full ring buffer, frames mixed and time spent mixing.
+ */
+
+package main.java.audio;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.sound.sampled.AudioFormat;
+
+public class AudioMixer {
+    /** The format of mixed audio: 44.1 kHz, 16-bit signed little-endian, mono. */
+    public static final AudioFormat FORMAT = new AudioFormat(44_100f, 16, 1, true, false);
+
+    private static final int SAMPLE_RATE = 44_100;
+    private static final int BLOCK_FRAMES = 512;
+    private static final int MAX_VOICES = 32;
+    private static final int QUEUE_CAPACITY = 1 << 10;
+    private static final int QUEUE_MASK = QUEUE_CAPACITY - 1;
+    private static final int RING_FRAMES = 1 << 15;
+    private static final int RING_MASK = RING_FRAMES - 1;
+    private static final long LEAD_FRAMES = 4 * BLOCK_FRAMES;
+    private static final long IDLE_PARK_NANOS = 1_000_000;
+    private static final long NO_TICK = -1;
+
+    private final SoundBank bank;
+    private final AudioSink sink;
+    private final int ticksPerSecond;
+    private long firstTick = NO_TICK;
+
+    private final int[] requests = new int[QUEUE_CAPACITY];
+    private final long[] requestTicks = new long[QUEUE_CAPACITY];
+    private final AtomicLongArray published = new AtomicLongArray(QUEUE_CAPACITY);
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong drained = new AtomicLong();
+    private final AtomicLong droppedRequests = new AtomicLong();
+
+    private final short[][] voices = new short[MAX_VOICES][];
+    private final int[] voicePositions = new int[MAX_VOICES];
+    private int voiceCount;
+    private final int[] accumulator = new int[BLOCK_FRAMES];
+    private final short[] block = new short[BLOCK_FRAMES];
+
+    private final short[] ring = new short[RING_FRAMES];
+    private final AtomicLong ringWritten = new AtomicLong();
+    private final AtomicLong ringRead = new AtomicLong();
+
+    private Thread mixerThread;
+    private Thread outputThread;
+    private volatile boolean running;
+    private volatile boolean mixerDone;
+    private volatile long effectsPlayed;
+    private volatile long overruns;
+    private volatile long framesMixed;
+    private volatile long mixNanos;
+
+    /**
+     * @param bank The decoded effects.
+     * @param sink Where the mixed audio goes, or null to only mix (e.g. to measure the cost).
+     */
+    public AudioMixer(SoundBank bank, AudioSink sink) {
+        this(bank, sink, 0);
+    }
+
+    /**
+     * @param bank           The decoded effects.
+     * @param sink           Where the mixed audio goes, or null to only mix.
+     * @param ticksPerSecond The tick rate to place effects at by their tick, e.g. when
+     *                       writing to a file, or 0 to play them as they come in real time.
+     */
+    public AudioMixer(SoundBank bank, AudioSink sink, int ticksPerSecond) {
+        this.bank = bank;
+        this.sink = sink;
+        this.ticksPerSecond = Math.max(0, ticksPerSecond);
+        for (int i = 0; i < QUEUE_CAPACITY; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    /**
+     * Starts the mixer and output threads.
+     */
+    public void start() {
+        running = true;
+        mixerThread = new Thread(this::runMixer, "audio-mixer");
+        mixerThread.setDaemon(true);
+        outputThread = new Thread(this::runOutput, "audio-output");
+        outputThread.setDaemon(true);
+        mixerThread.start();
+        outputThread.start();
+    }
+
+    /**
+     * Queues an effect to be played. Never blocks; safe to call from any thread.
+     */
+    public void play(SoundEffect effect) {
+        play(effect.getId());
+    }
+
+    /**
+     * Queues an effect to be played by id. Never blocks; safe to call from any thread.
+     *
+     * @param id The effect id, see {@link SoundEffect#getId()}.
+     */
+    public void play(int id) {
+        play(id, NO_TICK);
+    }
+
+    /**
+     * Queues an effect to be played at the time of a game tick. Never blocks;
+     * safe to call from any thread, but ticks must not go backwards.
+     *
+     * @param id   The effect id, see {@link SoundEffect#getId()}.
+     * @param tick The tick; ignored unless effects are timed by tick.
+     */
+    public void play(int id, long tick) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - drained.get() >= QUEUE_CAPACITY) {
+                droppedRequests.incrementAndGet();
+                return;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+        int index = (int) sequence & QUEUE_MASK;
+        requests[index] = id;
+        requestTicks[index] = tick;
+        published.lazySet(index, sequence);
+    }
+
+    /**
+     * Starts the queued effects and mixes the next frames of audio. Called by
+     * the mixer thread; call directly only on a mixer that was not started.
+     *
+     * @param out    The buffer to mix into.
+     * @param frames The number of frames to mix, at most the length of out.
+     */
+    public void mix(short[] out, int frames) {
+        drainRequests();
+        for (int offset = 0; offset < frames; offset += BLOCK_FRAMES) {
+            int length = Math.min(BLOCK_FRAMES, frames - offset);
+            mixBlock(length);
+            System.arraycopy(block, 0, out, offset, length);
+        }
+    }
+
+    /**
+     * Stops taking the clock into account, plays out every queued and sounding
+     * effect, and closes the sink.
+     */
+    public void close() {
+        running = false;
+        try {
+            if (mixerThread != null) {
+                LockSupport.unpark(mixerThread);
+                mixerThread.join();
+                outputThread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (sink != null) {
+            try {
+                sink.close();
+            } catch (IOException e) {
+                System.err.println("Failed to close audio output: " + e.getMessage());
+            }
+        }
+    }
+
+    public int getActiveVoices() {
+        return voiceCount;
+    }
+
+    public long getEffectsPlayed() {
+        return effectsPlayed;
+    }
+
+    public long getDroppedRequests() {
+        return droppedRequests.get();
+    }
+
+    public long getOverruns() {
+        return overruns;
+    }
+
+    public long getFramesMixed() {
+        return framesMixed;
+    }
+
+    public long getMixNanos() {
+        return mixNanos;
+    }
+
+    /**
+     * Prints how much audio was mixed and what mixing cost.
+     */
+    public void printReport() {
+        double seconds = (double) framesMixed / SAMPLE_RATE;
+        double cost = seconds > 0 ? mixNanos / (seconds * 1e9) : 0;
+        System.out.println("\nAudio");
+        System.out.println("-----");
+        System.out.println("Effects played: " + effectsPlayed + " (" + getDroppedRequests() + " dropped)");
+        System.out.printf("Audio mixed: %.2f s, %d blocks lost to a full buffer%n", seconds, overruns);
+        System.out.printf("Mixing cost: %.3f%% of one core%n", cost * 100);
+    }
+
+    private void runMixer() {
+        if (ticksPerSecond > 0) {
+            runTickTimedMixer();
+            return;
+        }
+        long start = System.nanoTime();
+        long mixed = 0;
+        while (running) {
+            long due = (System.nanoTime() - start) * SAMPLE_RATE / 1_000_000_000L + LEAD_FRAMES;
+            if (mixed >= due) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            drainRequests();
+            mixIntoRing(BLOCK_FRAMES, false);
+            mixed += BLOCK_FRAMES;
+        }
+        // Play out what is still queued or sounding, however long that takes in real time
+        while (claimed.get() != drained.get() || voiceCount > 0) {
+            drainRequests();
+            mixIntoRing(BLOCK_FRAMES, true);
+        }
+        mixerDone = true;
+        LockSupport.unpark(outputThread);
+    }
+
+    private void runTickTimedMixer() {
+        // Nothing is mixed ahead of the next effect, as an earlier one may still be queued
+        while (running) {
+            if (!drainTimedRequests()) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        while (claimed.get() != drained.get()) {
+            drainTimedRequests();
+        }
+        while (voiceCount > 0) {
+            mixIntoRing(BLOCK_FRAMES, true);
+        }
+        mixerDone = true;
+        LockSupport.unpark(outputThread);
+    }
+
+    /**
+     * Starts each published request once the mix has reached its tick's time.
+     *
+     * @return True if any request was started.
+     */
+    private boolean drainTimedRequests() {
+        long next = drained.get();
+        long first = next;
+        while (true) {
+            int index = (int) next & QUEUE_MASK;
+            if (published.get(index) != next) {
+                break;
+            }
+            long start = startFrame(requestTicks[index]);
+            while (framesMixed < start) {
+                mixIntoRing((int) Math.min(BLOCK_FRAMES, start - framesMixed), true);
+            }
+            startVoice(bank.samples(requests[index]));
+            next++;
+            drained.lazySet(next);
+        }
+        return next != first;
+    }
+
+    /**
+     * Gets the frame an effect of a tick starts at, counting from the first
+     * effect's tick, or the current frame for an effect without a tick.
+     */
+    private long startFrame(long tick) {
+        if (tick == NO_TICK) {
+            return framesMixed;
+        }
+        if (firstTick == NO_TICK) {
+            firstTick = tick;
+        }
+        return (tick - firstTick) * SAMPLE_RATE / ticksPerSecond;
+    }
+
+    private void mixIntoRing(int frames, boolean waitForRoom) {
+        long begin = System.nanoTime();
+        mixBlock(frames);
+        mixNanos += System.nanoTime() - begin;
+        framesMixed += frames;
+
+        long written = ringWritten.get();
+        while (written + frames - ringRead.get() > RING_FRAMES) {
+            if (!waitForRoom) {
+                // The output has fallen behind; drop the block rather than fall behind the clock
+                overruns++;
+                return;
+            }
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+        for (int i = 0; i < frames; i++) {
+            ring[(int) (written + i) & RING_MASK] = block[i];
+        }
+        ringWritten.lazySet(written + frames);
+        LockSupport.unpark(outputThread);
+    }
+
+    private void runOutput() {
+        byte[] bytes = new byte[BLOCK_FRAMES * 2 * 4];
+        boolean failed = sink == null;
+        while (true) {
+            boolean done = mixerDone;
+            long read = ringRead.get();
+            int available = (int) Math.min(ringWritten.get() - read, bytes.length / 2);
+            if (available == 0) {
+                if (done) {
+                    return;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            for (int i = 0; i < available; i++) {
+                short sample = ring[(int) (read + i) & RING_MASK];
+                bytes[2 * i] = (byte) sample;
+                bytes[2 * i + 1] = (byte) (sample >> 8);
+            }
+            if (!failed) {
+                try {
+                    sink.write(bytes, available * 2);
+                } catch (IOException e) {
+                    // Keep draining so the mixer never stalls, but stop writing
+                    System.err.println("Failed to write audio, continuing without it: " + e.getMessage());
+                    failed = true;
+                }
+            }
+            ringRead.lazySet(read + available);
+        }
+    }
+
+    private void drainRequests() {
+        long next = drained.get();
+        while (true) {
+            int index = (int) next & QUEUE_MASK;
+            if (published.get(index) != next) {
+                break;
+            }
+            startVoice(bank.samples(requests[index]));
+            next++;
+        }
+        drained.lazySet(next);
+    }
+
+    private void startVoice(short[] samples) {
+        int voice = voiceCount;
+        if (voiceCount == MAX_VOICES) {
+            // Every voice is busy: cut off the one that has played longest
+            voice = 0;
+            for (int i = 1; i < MAX_VOICES; i++) {
+                if (voicePositions[i] > voicePositions[voice]) {
+                    voice = i;
+                }
+            }
+        } else {
+            voiceCount++;
+        }
+        voices[voice] = samples;
+        voicePositions[voice] = 0;
+        effectsPlayed++;
+    }
+
+    private void mixBlock(int frames) {
+        Arrays.fill(accumulator, 0, frames, 0);
+        for (int v = voiceCount - 1; v >= 0; v--) {
+            short[] samples = voices[v];
+            int position = voicePositions[v];
+            int length = Math.min(frames, samples.length - position);
+            for (int i = 0; i < length; i++) {
+                accumulator[i] += samples[position + i];
+            }
+            if (position + length == samples.length) {
+                // Finished: move the last voice into this one's place
+                voiceCount--;
+                voices[v] = voices[voiceCount];
+                voicePositions[v] = voicePositions[voiceCount];
+                voices[voiceCount] = null;
+            } else {
+                voicePositions[v] = position + length;
+            }
+        }
+        for (int i = 0; i < frames; i++) {
+            block[i] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, accumulator[i]));
+        }
+    }
+}
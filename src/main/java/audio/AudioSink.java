@@ -0,0 +1,29 @@
+/*
+Responsibilities:
+
+- Define where mixed audio goes (a sound card, a file, ...), so the mixer does not depend on any output device.
+
+Data:
+
+- None (implementations own their device or file).
+ */
+
+package main.java.audio;
+
+import java.io.IOException;
+
+public interface AudioSink {
+    /**
+     * Writes mixed audio in the mixer's format ({@link AudioMixer#FORMAT}). May
+     * block; it is only called from the mixer's output thread.
+     *
+     * @param data   The audio bytes.
+     * @param length The number of bytes to write from the start of data.
+     */
+    void write(byte[] data, int length) throws IOException;
+
+    /**
+     * Finishes writing and releases the output.
+     */
+    void close() throws IOException;
+}
@@ -0,0 +1,42 @@
+/*
+Responsibilities:
+
+- Play mixed audio on the default sound card through a Java Sound line.
+
+Data:
+
+- The open line.
+ */
+
+package main.java.audio;
+
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+
+public class LineSink implements AudioSink {
+    private final SourceDataLine line;
+
+    /**
+     * Opens and starts the default line for the mixer's format.
+     *
+     * @throws LineUnavailableException If there is no sound card, or it is in use.
+     */
+    public LineSink() throws LineUnavailableException {
+        line = AudioSystem.getSourceDataLine(AudioMixer.FORMAT);
+        line.open(AudioMixer.FORMAT);
+        line.start();
+    }
+
+    @Override
+    public void write(byte[] data, int length) {
+        // Blocks until the line has room, which paces the output thread to the sound card
+        line.write(data, 0, length);
+    }
+
+    @Override
+    public void close() {
+        line.drain();
+        line.close();
+    }
+}
@@ -0,0 +1,121 @@
+/*
+Responsibilities:
+
+- Decode every sound effect into PCM samples in the mixer's format once, at startup, so playing an effect never
+  reads or decodes a file.
+- Load effects from WAV files in a sound directory when one is given, and synthesize any effect that has no
+  usable file, so the game has sound without shipping audio assets.
+
+Data:
+
+- The decoded samples of each effect, indexed by effect id.
+ */
+
+package main.java.audio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+import main.java.utility.GameLogger;
+import main.java.utility.GameRandom;
+import main.java.utility.LogLevel;
+
+public class SoundBank {
+    private final short[][] samples = new short[SoundEffect.values().length][];
+
+    private SoundBank() {
+    }
+
+    /**
+     * Decodes every sound effect.
+     *
+     * @param directory The directory holding the effects' WAV files, or null to synthesize every effect.
+     * @return The decoded effects.
+     */
+    public static SoundBank load(Path directory) {
+        SoundBank bank = new SoundBank();
+        for (SoundEffect effect : SoundEffect.values()) {
+            short[] decoded = null;
+            if (directory != null && Files.isReadable(directory.resolve(effect.getFileName()))) {
+                decoded = decode(directory.resolve(effect.getFileName()));
+            }
+            bank.samples[effect.getId()] = decoded != null ? decoded : synthesize(effect);
+        }
+        return bank;
+    }
+
+    /**
+     * Gets the samples of an effect.
+     *
+     * @param id The effect id, see {@link SoundEffect#getId()}.
+     */
+    public short[] samples(int id) {
+        return samples[id];
+    }
+
+    private static short[] decode(Path file) {
+        try (AudioInputStream source = AudioSystem.getAudioInputStream(file.toFile());
+                AudioInputStream pcm = AudioSystem.getAudioInputStream(AudioMixer.FORMAT, source)) {
+            ByteBuffer bytes = ByteBuffer.wrap(pcm.readAllBytes()).order(ByteOrder.LITTLE_ENDIAN);
+            short[] decoded = new short[bytes.remaining() / 2];
+            bytes.asShortBuffer().get(decoded);
+            return decoded;
+        } catch (IOException | UnsupportedAudioFileException | IllegalArgumentException e) {
+            // IllegalArgumentException: no converter to the mixer's format, e.g. a different sample rate
+            GameLogger.getInstance().log(LogLevel.WARN,
+                    "Could not decode " + file + ", using a synthesized sound: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static short[] synthesize(SoundEffect effect) {
+        int rate = (int) AudioMixer.FORMAT.getSampleRate();
+        // Fixed seed, so the synthesized sounds are the same on every run
+        GameRandom noise = new GameRandom(effect.getId());
+        switch (effect) {
+            case SHOOT: {
+                // A short square wave sweeping down in pitch
+                short[] out = new short[rate * 120 / 1000];
+                double phase = 0;
+                for (int i = 0; i < out.length; i++) {
+                    double progress = (double) i / out.length;
+                    phase += (1200 - 900 * progress) / rate;
+                    double square = (phase % 1.0) < 0.5 ? 1 : -1;
+                    out[i] = (short) (square * (1 - progress) * 6000);
+                }
+                return out;
+            }
+            case EXPLOSION: {
+                // Low-passed noise with a fast decay
+                short[] out = new short[rate * 400 / 1000];
+                double filtered = 0;
+                for (int i = 0; i < out.length; i++) {
+                    double progress = (double) i / out.length;
+                    filtered += 0.2 * ((noise.nextInt(2001) - 1000) / 1000.0 - filtered);
+                    out[i] = (short) (filtered * Math.pow(1 - progress, 2) * 20000);
+                }
+                return out;
+            }
+            default: {
+                // A low rumble: deep square wave under heavily filtered noise, slowly fading
+                short[] out = new short[rate * 800 / 1000];
+                double filtered = 0;
+                for (int i = 0; i < out.length; i++) {
+                    double progress = (double) i / out.length;
+                    filtered += 0.05 * ((noise.nextInt(2001) - 1000) / 1000.0 - filtered);
+                    // Flips sign 120 times a second: a 60 Hz square wave
+                    double rumble = ((i * 120 / rate) % 2 == 0 ? 0.3 : -0.3) + filtered * 2;
+                    out[i] = (short) (Math.max(-1, Math.min(1, rumble)) * (1 - progress) * 12000);
+                }
+                return out;
+            }
+        }
+    }
+}
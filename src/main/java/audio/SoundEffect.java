@@ -0,0 +1,35 @@
+/*
+Responsibilities:
+
+- Name the sound effects the game can play, and give each a small integer id, so play requests can be queued
+  as plain ints without building strings or objects.
+
+Data:
+
+- The file name each effect is loaded from, if a sound directory is given.
+ */
+
+package main.java.audio;
+
+public enum SoundEffect {
+    SHOOT("shoot.wav"),
+    EXPLOSION("explosion.wav"),
+    CRASH("crash.wav");
+
+    private final String fileName;
+
+    SoundEffect(String fileName) {
+        this.fileName = fileName;
+    }
+
+    /**
+     * Gets the id used for this effect in play requests.
+     */
+    public int getId() {
+        return ordinal();
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+Responsibilities:
+
+- Write mixed audio to a WAV file, so the game's sound can be heard and checked on machines without a sound card.
+- Write the header first with placeholder sizes, stream the audio after it, and fill in the sizes on close, so the
+  length of the recording does not need to be known up front.
+
+Data:
+
+- The open file, and the number of audio bytes written.
+ */
+
+package main.java.audio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import javax.sound.sampled.AudioFormat;
+
+public class WavFileSink implements AudioSink {
+    private static final int HEADER_BYTES = 44;
+
+    private final FileChannel channel;
+    private long dataBytes;
+
+    /**
+     * Creates the file, replacing any existing one, and writes the WAV header.
+     */
+    public WavFileSink(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        writeFully(header(0), 0);
+    }
+
+    @Override
+    public void write(byte[] data, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(data, 0, length);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        dataBytes += length;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            writeFully(header(dataBytes), 0);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static ByteBuffer header(long dataBytes) {
+        AudioFormat format = AudioMixer.FORMAT;
+        int channels = format.getChannels();
+        int sampleRate = (int) format.getSampleRate();
+        int frameSize = format.getFrameSize();
+        // Sizes are 32-bit in a WAV file; a longer recording is cut off at the limit
+        int dataSize = (int) Math.min(dataBytes, 0xFFFF_FFFFL - HEADER_BYTES);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.put(new byte[] { 'R', 'I', 'F', 'F' }).putInt(HEADER_BYTES - 8 + dataSize)
+                .put(new byte[] { 'W', 'A', 'V', 'E' })
+                .put(new byte[] { 'f', 'm', 't', ' ' }).putInt(16)
+                .putShort((short) 1) // PCM
+                .putShort((short) channels)
+                .putInt(sampleRate)
+                .putInt(sampleRate * frameSize)
+                .putShort((short) frameSize)
+                .putShort((short) format.getSampleSizeInBits())
+                .put(new byte[] { 'd', 'a', 't', 'a' }).putInt(dataSize);
+        return header.flip();
+    }
+}
@@ -0,0 +1,148 @@
+/*
+Responsibilities:
+
+- Aggregate the results of many games into summary statistics for balancing sweeps.
+- Merge partial results gathered by different worker threads.
+- Print a report of the aggregated results.
+
+Data:
+
+- Number of games and how many of them completed every level.
+- Histogram of final scores and counts of the level each game reached.
+- Total, minimum and maximum ticks per game.
+- Wall time of the whole batch.
+ */
+
+package main.java.controller;
+
+import java.util.Arrays;
+
+public class BatchResult {
+    private long games;
+    private long completedGames;
+    private long[] scoreCounts = new long[64];
+    private long[] levelCounts = new long[8];
+    private long totalScore;
+    private long totalTicks;
+    private long minTicks = Long.MAX_VALUE;
+    private long maxTicks;
+    private long elapsedNanos;
+
+    /**
+     * Adds the result of one game.
+     */
+    public void add(GameResult result) {
+        games++;
+        if (result.isCompleted()) {
+            completedGames++;
+        }
+        int score = result.getScore();
+        if (score >= scoreCounts.length) {
+            scoreCounts = Arrays.copyOf(scoreCounts, Math.max(score + 1, scoreCounts.length * 2));
+        }
+        scoreCounts[score]++;
+        totalScore += score;
+        int level = result.getLevelReached();
+        if (level >= levelCounts.length) {
+            levelCounts = Arrays.copyOf(levelCounts, Math.max(level + 1, levelCounts.length * 2));
+        }
+        levelCounts[level]++;
+        totalTicks += result.getTicks();
+        minTicks = Math.min(minTicks, result.getTicks());
+        maxTicks = Math.max(maxTicks, result.getTicks());
+    }
+
+    /**
+     * Adds the results gathered by another worker into this one.
+     */
+    public BatchResult merge(BatchResult other) {
+        games += other.games;
+        completedGames += other.completedGames;
+        if (other.scoreCounts.length > scoreCounts.length) {
+            scoreCounts = Arrays.copyOf(scoreCounts, other.scoreCounts.length);
+        }
+        for (int score = 0; score < other.scoreCounts.length; score++) {
+            scoreCounts[score] += other.scoreCounts[score];
+        }
+        if (other.levelCounts.length > levelCounts.length) {
+            levelCounts = Arrays.copyOf(levelCounts, other.levelCounts.length);
+        }
+        for (int level = 0; level < other.levelCounts.length; level++) {
+            levelCounts[level] += other.levelCounts[level];
+        }
+        totalScore += other.totalScore;
+        totalTicks += other.totalTicks;
+        minTicks = Math.min(minTicks, other.minTicks);
+        maxTicks = Math.max(maxTicks, other.maxTicks);
+        return this;
+    }
+
+    /**
+     * Gets the lowest score reached by at least the given fraction of games.
+     *
+     * @param fraction The fraction of games, from 0 to 1, e.g. 0.99 for the 99th percentile.
+     */
+    public int scorePercentile(double fraction) {
+        long target = (long) Math.ceil(fraction * games);
+        long seen = 0;
+        for (int score = 0; score < scoreCounts.length; score++) {
+            seen += scoreCounts[score];
+            if (seen >= Math.max(target, 1)) {
+                return score;
+            }
+        }
+        return scoreCounts.length - 1;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getCompletedGames() {
+        return completedGames;
+    }
+
+    public long getLevelCount(int level) {
+        return level < levelCounts.length ? levelCounts[level] : 0;
+    }
+
+    public long getTotalTicks() {
+        return totalTicks;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Prints a summary of the batch.
+     */
+    public void print() {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        System.out.println("\nBatch finished");
+        System.out.println("--------------");
+        System.out.println("Games: " + games + " (" + completedGames + " completed every level)");
+        System.out.printf("Wall time: %.3f s%n", seconds);
+        System.out.printf("Throughput: %.0f games/second, %.0f ticks/second%n",
+                games / seconds, totalTicks / seconds);
+        if (games == 0) {
+            return;
+        }
+        System.out.printf("Score: mean %.2f, p50 %d, p90 %d, p99 %d, max %d%n",
+                (double) totalScore / games, scorePercentile(0.5), scorePercentile(0.9),
+                scorePercentile(0.99), scorePercentile(1.0));
+        System.out.printf("Ticks per game: min %d, mean %.1f, max %d%n",
+                minTicks, (double) totalTicks / games, maxTicks);
+        System.out.println("Levels reached:");
+        for (int level = 1; level < levelCounts.length; level++) {
+            if (levelCounts[level] > 0) {
+                System.out.printf("  Level %d: %d games (%.1f%%)%n",
+                        level, levelCounts[level], 100.0 * levelCounts[level] / games);
+            }
+        }
+    }
+}
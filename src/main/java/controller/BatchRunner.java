@@ -0,0 +1,116 @@
+/*
+Responsibilities:
+
+- Run many independent games concurrently across all cores, e.g. for balancing sweeps.
+- Give every game its own controller, entity stores and seeded random number generator, so games share no
+  mutable state.
+- Split the batch into ranges of games on a ForkJoinPool; each worker aggregates its own results, which are
+  merged as the tasks join.
+- Optionally record every game's result in a run-result store as it finishes.
+
+Data:
+
+- The settings every game is based on; game i is seeded from the base seed and its index.
+- The number of games and worker threads.
+- The run-result store, if results are recorded.
+ */
+
+package main.java.controller;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import main.java.results.ResultStore;
+
+public class BatchRunner {
+    private static final long SEED_STEP = 0x9E3779B97F4A7C15L;
+
+    private final GameSettings settings;
+    private final int games;
+    private final int threads;
+    private ResultStore resultStore;
+
+    public BatchRunner(GameSettings settings) {
+        this.settings = settings;
+        this.games = settings.getBatchGames();
+        this.threads = Math.max(1, settings.getThreads());
+    }
+
+    /**
+     * Records the result of every game in a store as it finishes, or stops recording if null.
+     */
+    public void setResultStore(ResultStore resultStore) {
+        this.resultStore = resultStore;
+    }
+
+    /**
+     * Runs every game of the batch and waits for them to finish.
+     *
+     * @return The aggregated results.
+     */
+    public BatchResult run() {
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            int leafSize = Math.max(1, games / (threads * 16));
+            BatchResult result = pool.invoke(new GameRange(0, games, leafSize));
+            result.setElapsedNanos(System.nanoTime() - start);
+            return result;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Gets the seed used for a game of the batch.
+     *
+     * @param index The index of the game within the batch.
+     */
+    public long seedFor(int index) {
+        return settings.getSeed() + index * SEED_STEP;
+    }
+
+    private GameResult playGame(int index) {
+        GameSettings gameSettings = settings.copy();
+        gameSettings.setHeadless(true);
+        gameSettings.setSeed(seedFor(index));
+        gameSettings.setRecordFile(null);
+        gameSettings.setCheckpointInterval(0);
+        GameController game = new GameController(gameSettings);
+        game.startGame();
+        GameResult result = game.getResult();
+        if (resultStore != null) {
+            resultStore.record(result);
+        }
+        return result;
+    }
+
+    @SuppressWarnings("serial")
+    private class GameRange extends RecursiveTask<BatchResult> {
+        private final int from;
+        private final int to;
+        private final int leafSize;
+
+        GameRange(int from, int to, int leafSize) {
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected BatchResult compute() {
+            if (to - from <= leafSize) {
+                BatchResult result = new BatchResult();
+                for (int index = from; index < to; index++) {
+                    result.add(playGame(index));
+                }
+                return result;
+            }
+            int middle = (from + to) >>> 1;
+            GameRange left = new GameRange(from, middle, leafSize);
+            left.fork();
+            BatchResult right = new GameRange(middle, to, leafSize).compute();
+            return left.join().merge(right);
+        }
+    }
+}
@@ -3,58 +3,146 @@ Responsibilities:
 
 - Manage the overall flow of the game.
 - Initialize game components, including players, invaders, and bullets.
-- Simulate player and invader actions during the game.
+- Simulate player and invader actions during the game, including the invaders' return fire.
 - Handle game over conditions.
 - Control game level progression.
 - Handle collisions between game objects.
-- Keep track of the player's score.
-- Play game-related sounds.
+- Publish what happens in each tick (shots, hits, kills, crashes, completed levels, game over) on an event bus,
+  whose handlers keep the score, count metrics, play sounds and log; the tick never waits on those side effects.
 
 Data:
 
 - Game state (running, paused, game over).
-- List of invaders.
-- List of bullets.
-- Player information, including position and score.
+- Game settings, such as whether the game is paced or runs headless.
+- In a paced game, a TickScheduler starting each tick at the fixed tick rate, catching up a bounded number of
+  late ticks, and measuring tick timing jitter and overruns.
+- Tick count, wall time and level reached of the current run, and the tick it started from (0, or the tick a
+  resumed snapshot was saved at).
+- The game's own random number generator, seeded from the settings so games are independent and reproducible.
+- The source of the player's actions (a random bot by default, or commands drained from a live input queue), and
+  an optional recorder of those actions.
+- Optional checkpointing: every N ticks the game is saved to a snapshot file it can be resumed from.
+- The arena the game is played in.
+- Entity stores of invaders and bullets (owned by the factory), and a spatial grid indexing the invaders for
+  bullet collision queries, with the query buffer of the game thread.
+- Optionally a ParallelUpdate splitting movement and the collision broad phase of very large games across
+  threads; what it finds is resolved here in the serial order, so results match the serial path exactly.
+- In formation mode, an InvaderFormation bitboard holding the invaders instead of the invader store.
+- The ProjectileSystem holding every projectile the invaders have fired, updated in one pass per tick.
+- Optionally a wave script streaming scheduled spawns in as the ticks advance, in place of the random levels, and
+  the tick the script was last started from.
+- Player information, including position and score. A server game hosts several players in the player store; the
+  first player also holds the score, which the players share.
 - GameObjectFactory instance for creating game objects.
-- CollisionHandler instance for handling collisions.
-- SoundManager instance for managing game sounds.
+- CollisionDispatcher routing every collision to the handler registered for the pair of types involved.
+- The event bus of the game, flushed at the end of every tick, with its score, metrics, sound and logging
+  handlers. The score and metrics handlers always run inline; sound and logging may run on threads of their own,
+  and whether they currently do.
+- GameLogger instance for logging game events off the game thread.
+- Optional GameMetrics timing each phase of every tick and counting collisions, kills and spawns.
+- Optional TerminalRenderer drawing the game live, offered a snapshot after every tick.
+- Optional TickListener called after every tick, e.g. a game server broadcasting the new state.
  */
 
 package main.java.controller;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
-import java.util.Iterator;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
+import main.java.event.EventBus;
+import main.java.event.EventLogger;
+import main.java.event.GameEventType;
+import main.java.event.MetricsRecorder;
+import main.java.event.ScoreKeeper;
+import main.java.event.SoundPlayer;
 import main.java.factory.GameObjectFactory;
+import main.java.factory.SpawnType;
+import main.java.factory.WavePattern;
+import main.java.factory.WaveScript;
+import main.java.metrics.GameMetrics;
+import main.java.metrics.TickPhase;
+import main.java.model.Arena;
+import main.java.model.EntityStore;
+import main.java.model.EntityType;
 import main.java.model.Invader;
+import main.java.model.InvaderFormation;
 import main.java.model.Player;
+import main.java.model.ProjectileKind;
+import main.java.model.ProjectileSystem;
 import main.java.model.Bullet;
-import main.java.utility.CollisionHandler;
+import main.java.render.TerminalRenderer;
+import main.java.replay.InputRecorder;
+import main.java.utility.BulletInvaderCollisionHandler;
+import main.java.utility.CollisionDispatcher;
+import main.java.utility.GameLogger;
+import main.java.utility.GameRandom;
+import main.java.utility.LogEvent;
+import main.java.utility.LogLevel;
 import main.java.utility.PlayerInvaderCollisionHandler;
 import main.java.utility.SoundManager;
+import main.java.utility.SpatialGrid;
+import main.java.utility.SweptAabb;
 
 public class GameController {
+    private static final int MAX_LEVEL = 5;
+    private static final int FIRE_CHANCE_STEPS = 1 << 16;
+
     private static GameController instance;
     private boolean isRunning;
-    private List<Invader> invaders;
-    private List<Bullet> bullets;
+    private Arena arena;
+    private EntityStore<Invader> invaders;
+    private InvaderFormation formation;
+    private ProjectileSystem projectiles;
+    private WaveScript waves;
+    private long wavesStartTick;
+    private SpatialGrid<Invader> invaderGrid;
+    private final SpatialGrid.Query collisionQuery = new SpatialGrid.Query();
+    private ParallelUpdate parallelUpdate;
+    private EntityStore<Bullet> bullets;
     private Player player;
     private GameObjectFactory factory;
-    private CollisionHandler collisionChain;
-    private SoundManager soundManager = SoundManager.getInstance();
+    private CollisionDispatcher collisionDispatcher;
+    private GameLogger logger = GameLogger.getInstance();
+    private final EventBus events = new EventBus();
+    private final MetricsRecorder metricsRecorder = new MetricsRecorder();
+    private final SoundPlayer soundPlayer = new SoundPlayer(SoundManager.getInstance());
+    private final EventLogger eventLogger = new EventLogger(logger);
+    private boolean effectThreads;
+    private GameSettings settings;
+    private GameRandom random;
+    private InputSource inputSource;
+    private InputRecorder recorder;
+    private GameMetrics metrics;
+    private TerminalRenderer renderer;
+    private TickListener tickListener;
+    private TickScheduler scheduler;
+    private int currentLevel;
+    private long tickCount;
+    private long startTick;
+    private long startNanos;
+    private long elapsedNanos;
 
     public boolean isRunning() {
         return isRunning;
     }
 
     private GameController() {
-        factory = new GameObjectFactory();
-        invaders = new ArrayList<>();
-        bullets = new ArrayList<>();
-        collisionChain = initializeCollisionChain();
+        this(new GameSettings());
+    }
+
+    /**
+     * Creates an independent game, e.g. one of many games run side by side in a
+     * batch. Use {@link #getInstance()} for the single interactive game.
+     *
+     * @param settings The settings for the game.
+     */
+    public GameController(GameSettings settings) {
+        this.settings = settings;
+        collisionDispatcher = initializeCollisionDispatcher();
+        events.subscribe(new ScoreKeeper(this));
+        events.subscribe(metricsRecorder);
+        events.subscribe(soundPlayer);
+        events.subscribe(eventLogger);
     }
 
     public static synchronized GameController getInstance() {
@@ -64,179 +152,905 @@ public class GameController {
         return instance;
     }
 
+    /**
+     * Applies the settings to use for the next game. Must be called before
+     * {@link #startGame()}.
+     *
+     * @param settings The settings for the game.
+     */
+    public void configure(GameSettings settings) {
+        this.settings = settings;
+    }
+
+    public GameSettings getSettings() {
+        return settings;
+    }
+
+    public int getCurrentLevel() {
+        return currentLevel;
+    }
+
+    GameRandom getRandom() {
+        return random;
+    }
+
+    InputSource getInputSource() {
+        return inputSource;
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Gets the outcome of the last game played.
+     */
+    public GameResult getResult() {
+        return new GameResult(settings.getSeed(), player.getScore(), currentLevel, isRunning, tickCount, elapsedNanos);
+    }
+
+    /**
+     * Replaces the source of the player's actions, e.g. to replay a recording.
+     * Must be called before the game starts.
+     */
+    public void setInputSource(InputSource inputSource) {
+        this.inputSource = inputSource;
+    }
+
+    /**
+     * Attaches metrics to be updated every tick, or detaches them if null.
+     */
+    public void setMetrics(GameMetrics metrics) {
+        this.metrics = metrics;
+        metricsRecorder.setMetrics(metrics);
+    }
+
+    /**
+     * Moves sound and logging onto threads of their own, so the tick only
+     * publishes their events. Call {@link #stopEffectThreads()} when done.
+     */
+    public void startEffectThreads() {
+        if (effectThreads) {
+            return;
+        }
+        effectThreads = true;
+        events.unsubscribe(soundPlayer);
+        events.unsubscribe(eventLogger);
+        events.subscribeOnThread(soundPlayer, "event-sound");
+        events.subscribeOnThread(eventLogger, "event-log");
+    }
+
+    /**
+     * Delivers the events still pending and stops the effect threads. Sound and
+     * logging go back to running inline on the game thread, and the threads can
+     * be started again.
+     */
+    public void stopEffectThreads() {
+        if (!effectThreads) {
+            return;
+        }
+        effectThreads = false;
+        events.close();
+        events.subscribe(soundPlayer);
+        events.subscribe(eventLogger);
+    }
+
+    public EventBus getEvents() {
+        return events;
+    }
+
+    /**
+     * Attaches a renderer to draw the game after every tick, or detaches it if null.
+     */
+    public void setRenderer(TerminalRenderer renderer) {
+        this.renderer = renderer;
+    }
+
+    /**
+     * Attaches a listener to call after every tick, or detaches it if null.
+     */
+    public void setTickListener(TickListener tickListener) {
+        this.tickListener = tickListener;
+    }
+
+    /**
+     * Gets the scheduler pacing the game, or null if it runs headless (as fast as it can).
+     */
+    public TickScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Gets the invader formation in formation mode, or null if invaders are game objects.
+     */
+    public InvaderFormation getFormation() {
+        return formation;
+    }
+
+    /**
+     * Gets the projectiles the invaders have fired.
+     */
+    public ProjectileSystem getProjectiles() {
+        return projectiles;
+    }
+
+    public GameObjectFactory getFactory() {
+        return factory;
+    }
+
+    /**
+     * Gets the first player, who also holds the score shared by all players.
+     */
+    public Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * Gets every player; the slot of each player is its player number.
+     */
+    public EntityStore<Player> getPlayers() {
+        return factory.getPlayers();
+    }
+
     public void startGame() {
+        newGame();
+        simulateGame();
+    }
+
+    /**
+     * Sets up a fresh game at level 1 without running it, so it can be driven
+     * one tick at a time with {@link #runGameCycle()}.
+     */
+    public void newGame() {
         isRunning = true;
-        System.out.println("Game Started");
-        System.out.println("------------");
+        logger.log(LogLevel.INFO, LogEvent.GAME_STARTED);
         initializeGame();
-        simulateGame();
     }
 
     private void initializeGame() {
-        player = (Player) factory.createObject("player");
-        player.setPosition(10, 19);
+        tickCount = 0;
+        startTick = 0;
+        initializeWorld();
         initializeLevel(1);
     }
 
-    private void initializeLevel(int level) {
-        System.out.println("\nStarting Level " + level);
-        System.out.println("--------------\n");
-        initializeInvaders(1 * level);
+    /**
+     * Sets up the arena, random number generator, input and entity stores, with
+     * the player in place but no invaders spawned yet.
+     */
+    void initializeWorld() {
+        arena = settings.getArena();
+        random = new GameRandom(settings.getSeed());
+        if (inputSource == null) {
+            // The bot gets its own generator, so replaying its actions does not depend on it
+            inputSource = new RandomInput(~settings.getSeed());
+        }
+        recorder = settings.getRecordFile() != null ? new InputRecorder() : null;
+        factory = new GameObjectFactory(arena, random);
+        factory.setInvaderSpeed(settings.getInvaderSpeed());
+        factory.setBulletSpeed(settings.getBulletSpeed());
+        invaders = factory.getInvaders();
+        bullets = factory.getBullets();
+        invaderGrid = new SpatialGrid<>(arena, settings.getGridCellSize());
+        if (parallelUpdate != null && parallelUpdate.getThreads() != settings.getUpdateThreads()) {
+            parallelUpdate.close();
+            parallelUpdate = null;
+        }
+        if (parallelUpdate == null && settings.getUpdateThreads() > 1) {
+            parallelUpdate = new ParallelUpdate(settings.getUpdateThreads());
+        }
+        formation = settings.isFormation() ? new InvaderFormation(arena) : null;
+        projectiles = new ProjectileSystem(arena, 64);
+        waves = settings.getWaveScript() != null ? openWaveScript() : null;
+        wavesStartTick = 0;
+        for (int i = Math.max(1, settings.getPlayers()); i > 0; i--) {
+            factory.spawnPlayer();
+        }
+        placePlayers();
+        player = factory.getPlayers().get(0);
     }
 
-    private void initializeInvaders(int count) {
-        invaders.clear();
-        for (int i = 0; i < count; i++) {
-            Invader invader = (Invader) factory.createObject("invader");
-            int x = (int) (Math.random() * 20);
-            invader.setPosition(x, 0);
-            invaders.add(invader);
-            System.out.println("Invader spawned at (" + x + ", 0)");
+    private WaveScript openWaveScript() {
+        try {
+            return WaveScript.open(settings.getWaveScript());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open wave script " + settings.getWaveScript(), e);
         }
     }
 
-    private CollisionHandler initializeCollisionChain() {
-        return new PlayerInvaderCollisionHandler();
+    private void placePlayers() {
+        EntityStore<Player> players = factory.getPlayers();
+        for (int slot = 0; slot < players.size(); slot++) {
+            // Spread the players evenly along the bottom row; a single player starts in the middle
+            int x = (slot + 1) * arena.getWidth() / (players.size() + 1);
+            players.get(slot).setPosition(x, arena.getHeight() - 1);
+        }
     }
 
-    private void sleep(long milliseconds) {
-        try {
-            Thread.sleep(milliseconds);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            System.out.println("Interrupted during sleep: " + e.getMessage());
+    /**
+     * Starts the next level once {@link #runGameCycle()} reports the current one
+     * is over, for callers that drive the game one tick at a time.
+     *
+     * @return False if the game has ended instead: the players were destroyed or the last level is done.
+     */
+    public boolean nextLevel() {
+        // A wave script is the whole game, played as one level
+        if (!isRunning || currentLevel >= MAX_LEVEL || waves != null) {
+            return false;
         }
+        initializeLevel(currentLevel + 1);
+        return true;
     }
 
-    private void simulatePlayerActions() {
-        Random rand = new Random();
-        if (rand.nextBoolean()) {
-            movePlayerAndFireBullet(rand);
-            sleep(500);
+    /**
+     * Starts the next level once the current one is over, so a soak run can tick
+     * one game indefinitely. After the last level, or once every player has been
+     * destroyed, play starts again at level 1 with the players restored. A wave
+     * script is played to its end, and then from the start again.
+     */
+    void continuePlaying() {
+        if (!isRunning) {
+            EntityStore<Player> players = factory.getPlayers();
+            for (int slot = 0; slot < players.size(); slot++) {
+                players.setHealth(slot, GameObjectFactory.PLAYER_HEALTH);
+            }
+            placePlayers();
+            isRunning = true;
+            if (waves != null && !waves.isExhausted()) {
+                // The script plays on from where the players were destroyed, with the arena cleared
+                initializeInvaders(0);
+                return;
+            }
+            initializeLevel(1);
+        } else if (waves != null) {
+            initializeLevel(1);
+        } else {
+            initializeLevel(currentLevel >= MAX_LEVEL ? 1 : currentLevel + 1);
         }
     }
 
-    private void movePlayerAndFireBullet(Random rand) {
-        if (rand.nextBoolean()) {
-            player.moveLeft();
-        } else {
-            player.moveRight();
+    /**
+     * Restores the level, tick count and running state of a saved game.
+     */
+    void restoreProgress(int level, long ticks, boolean running) {
+        currentLevel = level;
+        tickCount = ticks;
+        startTick = ticks;
+        isRunning = running;
+        if (waves != null) {
+            waves.seek(ticks);
+        }
+    }
+
+    private void initializeLevel(int level) {
+        currentLevel = level;
+        logger.log(LogLevel.INFO, LogEvent.LEVEL_STARTED, level);
+        if (waves != null) {
+            // The script spawns the invaders as the ticks advance, counting its ticks from here
+            waves.rewind();
+            wavesStartTick = tickCount;
+            initializeInvaders(0);
+            return;
+        }
+        initializeInvaders(settings.getInvadersPerLevel() * level);
+    }
+
+    private void initializeInvaders(int count) {
+        // Shots still in flight belong to the invaders being replaced
+        projectiles.clear();
+        if (formation != null) {
+            formation.clear();
+            int placed = formation.fill(count);
+            if (metrics != null) {
+                metrics.countSpawns(placed);
+            }
+            return;
+        }
+        factory.releaseAllInvaders();
+        int firstSlot = factory.spawnWave(count, WavePattern.RANDOM);
+        if (metrics != null) {
+            metrics.countSpawns(count);
+        }
+        if (logger.isEnabled(LogLevel.INFO)) {
+            for (int slot = firstSlot; slot < invaders.size(); slot++) {
+                logger.log(LogLevel.INFO, LogEvent.INVADER_SPAWNED, invaders.x(slot), invaders.y(slot));
+            }
+        }
+    }
+
+    private CollisionDispatcher initializeCollisionDispatcher() {
+        CollisionDispatcher dispatcher = new CollisionDispatcher();
+        dispatcher.register(EntityType.PLAYER, EntityType.INVADER, new PlayerInvaderCollisionHandler());
+        dispatcher.register(EntityType.BULLET, EntityType.INVADER, new BulletInvaderCollisionHandler());
+        return dispatcher;
+    }
+
+    private void simulatePlayerActions() {
+        EntityStore<Player> players = factory.getPlayers();
+        for (int slot = 0; slot < players.size(); slot++) {
+            Player current = players.get(slot);
+            if (current.isDestroyed()) {
+                continue;
+            }
+            int actions = inputSource.nextActions(current);
+            // Recordings hold the first player's actions only
+            if (recorder != null && slot == 0) {
+                recorder.record(actions);
+            }
+            if (actions != Player.NO_ACTION) {
+                applyPlayerActions(current, actions);
+            }
         }
-        fireBullet();
     }
 
-    private void fireBullet() {
-        Bullet bullet = (Bullet) factory.createObject("bullet");
-        if (bullet != null) {
-            bullet.setPosition(player.getX(), player.getY() - 1);
-            bullets.add(bullet);
-            soundManager.playSound("Pew! Player shoots and moves from (" + player.getX() + "," + player.getY() + ")");
+    private void applyPlayerActions(Player current, int actions) {
+        if ((actions & Player.ACTION_LEFT) != 0) {
+            current.moveLeft();
+        }
+        if ((actions & Player.ACTION_RIGHT) != 0) {
+            current.moveRight();
         }
+        if ((actions & Player.ACTION_FIRE) != 0) {
+            fireBullet(current);
+        }
+    }
+
+    private void fireBullet(Player shooter) {
+        factory.spawnBullet(shooter.getX(), shooter.getY() - 1);
+        events.publish(GameEventType.SHOT_FIRED, shooter.getX(), shooter.getY(), 0);
     }
 
-    private boolean runGameCycle() {
+    /**
+     * Runs one tick of the game: player actions, invader movement and return
+     * fire, then bullet movement and collisions.
+     *
+     * @return True if the level is over, because the invaders are gone or the game has ended.
+     */
+    public boolean runGameCycle() {
+        tickCount++;
+        events.setTick(tickCount);
+        long phaseStart = metrics != null ? metrics.beginTick() : 0;
         simulatePlayerActions();
+        phaseStart = endPhase(TickPhase.PLAYER_ACTIONS, phaseStart);
 
-        if (simulateInvaderActions()) {
+        boolean gameOver = simulateInvaderActions();
+        if (!gameOver && waves != null) {
+            spawnScriptedInvaders();
+        }
+        if (!gameOver && (settings.getInvaderFireRate() > 0 || !projectiles.isEmpty())) {
+            gameOver = simulateInvaderFire();
+        }
+        phaseStart = endPhase(TickPhase.INVADER_MOVEMENT, phaseStart);
+        if (gameOver) {
+            endTick();
             return true;
         }
 
-        Iterator<Bullet> bulletIterator = bullets.iterator();
-        while (bulletIterator.hasNext()) {
-            Bullet bullet = bulletIterator.next();
-            if (checkBulletCollisions(bullet, bulletIterator)) {
-                return true;
-            }
+        moveBullets();
+        phaseStart = endPhase(TickPhase.BULLET_PROCESSING, phaseStart);
+        resolveBulletCollisions();
+        endPhase(TickPhase.COLLISIONS, phaseStart);
+        boolean cleared = invadersDefeated();
+        if (cleared) {
+            events.publish(GameEventType.LEVEL_COMPLETE, 0, 0, currentLevel);
         }
+        endTick();
+        return cleared;
+    }
 
+    /**
+     * Moves the invaders' projectiles and applies their hits, then fires this
+     * tick's shots from random invaders.
+     *
+     * @return True if a projectile destroyed the last player, ending the game.
+     */
+    private boolean simulateInvaderFire() {
+        EntityStore<Player> players = factory.getPlayers();
+        int hits = projectiles.update(players);
+        for (int i = 0; i < hits; i++) {
+            Player hit = players.get(projectiles.hitPlayer(i));
+            // An earlier projectile may already have destroyed the player this tick
+            if (hit.isDestroyed()) {
+                continue;
+            }
+            int x = projectiles.hitX(i);
+            int y = projectiles.hitY(i);
+            hit.takeDamage(projectiles.hitDamage(i));
+            events.publish(GameEventType.PLAYER_SHOT, x, y, projectiles.hitDamage(i));
+            if (hit.isDestroyed()) {
+                events.publish(GameEventType.PLAYER_DESTROYED, x, y, 1);
+                if (allPlayersDestroyed()) {
+                    endGame();
+                    return true;
+                }
+            }
+        }
+        fireInvaderShots();
         return false;
     }
 
+    private void fireInvaderShots() {
+        double rate = settings.getInvaderFireRate();
+        int shots = (int) rate;
+        // The fraction of a shot fires with that chance
+        if (random.nextInt(FIRE_CHANCE_STEPS) < (int) ((rate - shots) * FIRE_CHANCE_STEPS)) {
+            shots++;
+        }
+        int kinds = ProjectileKind.unlockedAt(currentLevel);
+        for (int i = 0; i < shots; i++) {
+            int x;
+            int y;
+            if (formation != null) {
+                // The lowest invader of a random column fires, so shots never pass through the formation
+                if (formation.isEmpty()) {
+                    return;
+                }
+                x = random.nextInt(arena.getWidth());
+                y = formation.lowestInColumn(x) + 1;
+                if (y == 0) {
+                    continue;
+                }
+            } else {
+                if (invaders.isEmpty()) {
+                    return;
+                }
+                int slot = random.nextInt(invaders.size());
+                x = invaders.x(slot) + invaders.width(slot) / 2;
+                y = invaders.y(slot) + invaders.height(slot);
+            }
+            ProjectileKind kind = ProjectileKind.fromOrdinal(random.nextInt(kinds));
+            if (projectiles.spawn(x, y, kind)) {
+                events.publish(GameEventType.INVADER_FIRED, x, y, kind.ordinal());
+            }
+        }
+    }
+
+    private boolean invadersDefeated() {
+        if (waves != null && !waves.isExhausted()) {
+            return false;
+        }
+        return formation != null ? formation.isEmpty() : invaders.isEmpty();
+    }
+
+    private void spawnScriptedInvaders() {
+        int spawned = 0;
+        while (waves.nextDue(tickCount - wavesStartTick)) {
+            int x = waves.x();
+            int y = waves.y();
+            // Spawns outside the arena are skipped, as are formation spawns on an occupied cell
+            if (formation != null) {
+                if (formation.add(x, y)) {
+                    spawned++;
+                }
+                continue;
+            }
+            if (!arena.contains(x, y)) {
+                continue;
+            }
+            factory.spawnInvader(x, y, waves.type(), waves.health());
+            logger.log(LogLevel.INFO, LogEvent.INVADER_SPAWNED, x, y);
+            spawned++;
+        }
+        if (metrics != null && spawned > 0) {
+            metrics.countSpawns(spawned);
+        }
+    }
+
+    private long endPhase(TickPhase phase, long phaseStart) {
+        return metrics != null ? metrics.endPhase(phase, phaseStart) : 0;
+    }
+
+    private void endTick() {
+        // Score and metrics handlers run here, so both are complete before the tick is measured or observed
+        events.flush();
+        if (metrics != null) {
+            metrics.endTick(formation != null ? formation.size() : invaders.size(), bullets.size());
+        }
+    }
+
+    /**
+     * Moves every bullet up and resolves its collisions with invaders.
+     */
+    public void processBullets() {
+        moveBullets();
+        resolveBulletCollisions();
+        events.flush();
+    }
+
+    private void moveBullets() {
+        // Bullets that leave the arena are released after their collisions, since they may hit on the way out
+        if (parallelUpdate != null && ParallelUpdate.isWorthSplitting(bullets)) {
+            parallelUpdate.translateBullets(bullets);
+        } else {
+            bullets.translateAll();
+        }
+    }
+
+    private void resolveBulletCollisions() {
+        if (formation != null) {
+            resolveFormationHits();
+            return;
+        }
+        // Index the invaders once per tick so each bullet only checks its neighbours
+        invaderGrid.rebuild(invaders);
+        if (parallelUpdate != null && ParallelUpdate.isWorthSplitting(bullets)) {
+            resolveBulletHitsInParallel();
+        } else {
+            // Walk the slots backwards: removing a bullet moves the last (already checked) bullet into its slot
+            for (int slot = bullets.size() - 1; slot >= 0; slot--) {
+                resolveBullet(slot, firstHit(bullets, slot, invaders, invaderGrid, collisionQuery, invaderReach()));
+            }
+        }
+        factory.releaseDestroyedInvaders();
+    }
+
+    private void resolveBulletHitsInParallel() {
+        // The slots come highest first, as in the serial loop, and only slots above each one have changed
+        int count = parallelUpdate.findBulletHits(bullets, invaders, invaderGrid, invaderReach());
+        for (int i = 0; i < count; i++) {
+            int slot = parallelUpdate.slot(i);
+            int target = parallelUpdate.target(i);
+            if (target >= 0 && invaders.health(target) <= 0) {
+                // An earlier bullet destroyed the target this tick, so look again as the serial loop would
+                target = firstHit(bullets, slot, invaders, invaderGrid, collisionQuery, invaderReach());
+            }
+            resolveBullet(slot, target);
+        }
+    }
+
     private boolean simulateInvaderActions() {
-        Iterator<Invader> invaderIterator = invaders.iterator();
-        while (invaderIterator.hasNext()) {
-            Invader invader = invaderIterator.next();
-            invader.moveDown();
-
-            if (invader.isCollidingWith(player)) {
-                soundManager.playSound(
-                        "[CRASH!] Player collided with an invader at (" + invader.getX() + "," + invader.getY() + ")");
-                endGame();
+        if (formation != null) {
+            return simulateFormationActions();
+        }
+        if (parallelUpdate != null && ParallelUpdate.isWorthSplitting(invaders)) {
+            // Only the invaders that may reach a player or the bottom come back, highest slot first
+            int count = parallelUpdate.moveInvaders(invaders, factory.getPlayers());
+            for (int i = 0; i < count; i++) {
+                if (resolveInvader(parallelUpdate.slot(i))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        invaders.moveAll();
+        for (int slot = invaders.size() - 1; slot >= 0; slot--) {
+            if (resolveInvader(slot)) {
                 return true;
-            } else if (invader.getY() >= 19) {
-                invaderIterator.remove();
             }
         }
         return false;
     }
 
-    private void processBullets() {
-        Iterator<Bullet> bulletIterator = bullets.iterator();
-        while (bulletIterator.hasNext()) {
-            Bullet bullet = bulletIterator.next();
-            bullet.moveUp();
-            if (bullet.getY() < 0) {
-                bulletIterator.remove();
-            } else {
-                checkBulletCollisions(bullet, bulletIterator);
+    /**
+     * Resolves a moved invader's crashes into the players, and releases it if it
+     * reached the bottom row.
+     *
+     * @return True if the crash destroyed the last player, ending the game.
+     */
+    private boolean resolveInvader(int slot) {
+        EntityStore<Player> players = factory.getPlayers();
+        int x = invaders.x(slot);
+        int y = invaders.y(slot);
+        for (int playerSlot = 0; playerSlot < players.size(); playerSlot++) {
+            if (players.health(playerSlot) <= 0 || !crashes(invaders, slot, players, playerSlot)) {
+                continue;
+            }
+            Player hit = players.get(playerSlot);
+            collisionDispatcher.dispatch(hit, invaders.get(slot));
+            events.publish(GameEventType.PLAYER_HIT, x, y, 0);
+            if (hit.isDestroyed()) {
+                events.publish(GameEventType.PLAYER_DESTROYED, x, y, 0);
+                if (allPlayersDestroyed()) {
+                    endGame();
+                    return true;
+                }
             }
         }
+        if (y + invaders.height(slot) >= arena.getHeight()) {
+            factory.releaseInvader(slot);
+        }
+        return false;
     }
 
-    private boolean checkBulletCollisions(Bullet bullet, Iterator<Bullet> bulletIterator) {
-        try {
-            bullet.moveUp();
-            if (bullet.getY() < 0) {
-                bulletIterator.remove();
-            } else {
-                List<Invader> invadersToRemove = new ArrayList<>();
-                for (Invader invader : invaders) {
-                    if (bullet.isCollidingWith(invader)) {
-                        bulletIterator.remove();
-                        invadersToRemove.add(invader);
-                        player.increaseScore(1);
-                        System.out.println("**********************************");
-                        soundManager.playSound("[BOOM!] " + player.getScore() + " Invader(s) destroyed thus far!");
-                        System.out.println("**********************************");
-                    }
+    /**
+     * Checks if a moved invader crashed into a player this tick. The invader's
+     * move is swept, so a fast invader cannot pass through the player.
+     */
+    static boolean crashes(EntityStore<Invader> invaders, int slot, EntityStore<Player> players, int playerSlot) {
+        int vx = invaders.vx(slot);
+        int vy = invaders.vy(slot);
+        return SweptAabb.timeOfImpact(invaders.x(slot) - vx, invaders.y(slot) - vy, invaders.width(slot),
+                invaders.height(slot), vx, vy, players.x(playerSlot), players.y(playerSlot),
+                players.width(playerSlot), players.height(playerSlot)) != SweptAabb.NO_HIT;
+    }
+
+    private boolean simulateFormationActions() {
+        EntityStore<Player> players = factory.getPlayers();
+        // Step one row at a time, so a fast formation cannot pass through the player
+        for (int step = 0; step < settings.getInvaderSpeed(); step++) {
+            formation.moveDown();
+            for (int slot = 0; slot < players.size(); slot++) {
+                if (players.health(slot) <= 0
+                        || !formation.anyInBox(players.x(slot), players.y(slot), players.width(slot),
+                                players.height(slot))) {
+                    continue;
                 }
-                invaders.removeAll(invadersToRemove);
-                if (invaders.isEmpty()) {
+                // Formation invaders are bits rather than objects, so the crash is resolved here
+                Player hit = players.get(slot);
+                hit.takeDamage(hit.getHealth());
+                events.publish(GameEventType.PLAYER_HIT, hit.getX(), hit.getY(), 0);
+                events.publish(GameEventType.PLAYER_DESTROYED, hit.getX(), hit.getY(), 0);
+                if (allPlayersDestroyed()) {
+                    endGame();
                     return true;
                 }
             }
-        } catch (Exception e) {
-            System.out.println("Whoops. There has been an error in the simulation. Try running it again.");
+            // Invaders on the bottom row have passed the player
+            formation.removeRow(arena.getHeight() - 1);
         }
         return false;
     }
 
-    public void simulateGame() {
-        for (int level = 1; level <= 5 && isRunning; level++) {
-            initializeLevel(level);
+    private boolean allPlayersDestroyed() {
+        EntityStore<Player> players = factory.getPlayers();
+        for (int slot = 0; slot < players.size(); slot++) {
+            if (players.health(slot) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void resolveFormationHits() {
+        int fall = settings.getInvaderSpeed();
+        for (int slot = bullets.size() - 1; slot >= 0; slot--) {
+            // The formation has already fallen this tick, so sweep the bullet relative to it: in the formation's
+            // rows as they are now, the bullet started `fall` rows lower and closed in by its speed plus the fall.
+            // Bullets only move vertically, so the sweep is the column of rows the bullet crossed, in order.
+            int x = bullets.x(slot);
+            int width = bullets.width(slot);
+            int height = bullets.height(slot);
+            int vy = bullets.vy(slot) - fall;
+            int startY = bullets.y(slot) - bullets.vy(slot) + fall;
+            int hitColumn = -1;
+            int hitRow = startY - 1;
+            while (hitColumn < 0 && hitRow + 1 < startY + height) {
+                hitRow++;
+                hitColumn = formation.removeFirstInRow(hitRow, x, width);
+            }
+            int leadingRow = vy < 0 ? startY : startY + height - 1;
+            int direction = vy < 0 ? -1 : 1;
+            for (int i = 1; i <= Math.abs(vy) && hitColumn < 0; i++) {
+                hitRow = leadingRow + i * direction;
+                hitColumn = formation.removeFirstInRow(hitRow, x, width);
+            }
+
+            if (hitColumn >= 0) {
+                events.publish(GameEventType.INVADER_KILLED, hitColumn, hitRow, 0);
+                factory.releaseBullet(slot);
+            } else if (bullets.isOutsideArena(slot)) {
+                factory.releaseBullet(slot);
+            }
+        }
+    }
+
+    /**
+     * Gets the farthest an invader can fall in one tick, the fastest spawn type
+     * at the configured invader speed.
+     */
+    private int invaderReach() {
+        return settings.getInvaderSpeed() * SpawnType.fastestSpeed();
+    }
 
+    /**
+     * Finds the invader a moved bullet reached first this tick, skipping
+     * invaders already destroyed. Both have moved this tick, so the bullet is
+     * swept relative to each invader, from where both started. Safe to call
+     * from several threads at once, each with its own query.
+     *
+     * @param reach The farthest an invader can fall in one tick.
+     * @return The invader's slot, or -1 if the bullet hit none.
+     */
+    static int firstHit(EntityStore<Bullet> bullets, int bulletSlot, EntityStore<Invader> invaders,
+            SpatialGrid<Invader> grid, SpatialGrid.Query query, int reach) {
+        // The bullet has already moved; sweep it from where it started this tick
+        int vx = bullets.vx(bulletSlot);
+        int vy = bullets.vy(bulletSlot);
+        int startX = bullets.x(bulletSlot) - vx;
+        int startY = bullets.y(bulletSlot) - vy;
+        int width = bullets.width(bulletSlot);
+        int height = bullets.height(bulletSlot);
+
+        // The grid holds where invaders ended the tick, so the box covering the bullet's path is stretched down by
+        // the farthest an invader can have fallen into it; then hit the invader the bullet reaches first
+        int candidates = grid.query(Math.min(startX, startX + vx), Math.min(startY, startY + vy),
+                width + Math.abs(vx), height + Math.abs(vy) + reach, query);
+        int target = -1;
+        double firstImpact = Double.MAX_VALUE;
+        for (int i = 0; i < candidates; i++) {
+            int invaderSlot = query.resultSlot(i);
+            // Invaders hit earlier this tick stay in the grid until the end of the tick
+            if (invaders.health(invaderSlot) <= 0) {
+                continue;
+            }
+            int invaderVx = invaders.vx(invaderSlot);
+            int invaderVy = invaders.vy(invaderSlot);
+            double impact = SweptAabb.timeOfImpact(startX, startY, width, height, vx - invaderVx, vy - invaderVy,
+                    invaders.x(invaderSlot) - invaderVx, invaders.y(invaderSlot) - invaderVy,
+                    invaders.width(invaderSlot), invaders.height(invaderSlot));
+            if (impact != SweptAabb.NO_HIT && impact < firstImpact) {
+                firstImpact = impact;
+                target = invaderSlot;
+            }
+        }
+        return target;
+    }
+
+    private void resolveBullet(int bulletSlot, int target) {
+        Bullet bullet = bullets.get(bulletSlot);
+        if (target >= 0) {
+            Invader invader = invaders.get(target);
+            collisionDispatcher.dispatch(bullet, invader);
+            GameEventType type = invader.isDestroyed() ? GameEventType.INVADER_KILLED : GameEventType.INVADER_HIT;
+            events.publish(type, invaders.x(target), invaders.y(target), 0);
+        }
+        if (bullet.isDestroyed() || bullets.isOutsideArena(bulletSlot)) {
+            factory.releaseBullet(bulletSlot);
+        }
+    }
+
+    /**
+     * Runs the game from its current state until it is over: either the player
+     * is hit, or the last level is completed. Unless headless, ticks are paced
+     * at the settings' tick rate.
+     */
+    public void simulateGame() {
+        startNanos = System.nanoTime();
+        long checkpointInterval = settings.getCheckpointInterval();
+        // Pacing never changes what a tick does, only when it starts, so paced games replay like headless ones
+        scheduler = settings.isHeadless() || settings.getTickRate() <= 0 ? null
+                : new TickScheduler(settings.getTickRate(), settings.getMaxCatchUpTicks());
+        while (isRunning) {
             boolean levelCompleted = false;
             while (!levelCompleted && isRunning) {
+                if (scheduler != null) {
+                    scheduler.awaitTick();
+                }
                 levelCompleted = runGameCycle();
-                if (invaders.isEmpty()) {
+                if (renderer != null) {
+                    renderer.submit(this);
+                }
+                if (tickListener != null) {
+                    tickListener.afterTick(this);
+                }
+                if (invadersDefeated()) {
                     levelCompleted = true;
                 }
+                // Only checkpoint mid-level, so a resumed game continues with the next tick of this level
+                if (checkpointInterval > 0 && tickCount % checkpointInterval == 0 && !levelCompleted && isRunning) {
+                    saveCheckpoint();
+                }
             }
 
-            if (!isRunning) {
+            if (!nextLevel()) {
                 break;
             }
         }
 
         if (isRunning) {
-            System.out.println("Player completed all levels! Invaders killed: " + player.getScore());
+            logger.log(LogLevel.INFO, LogEvent.GAME_WON, player.getScore());
+        }
+
+        elapsedNanos = System.nanoTime() - startNanos;
+        if (parallelUpdate != null) {
+            parallelUpdate.close();
+            parallelUpdate = null;
+        }
+        if (recorder != null) {
+            saveRecording();
+        }
+        events.awaitConsumers();
+        logger.flush();
+    }
+
+    private void saveCheckpoint() {
+        try {
+            GameSnapshot.save(this, settings.getCheckpointFile());
+        } catch (IOException e) {
+            logger.log(LogLevel.WARN, "Could not save a checkpoint: " + e.getMessage());
+        }
+    }
+
+    private void saveRecording() {
+        try {
+            recorder.toRecording(settings, getResult(), stateChecksum()).write(settings.getRecordFile());
+        } catch (IOException e) {
+            logger.log(LogLevel.WARN, "Could not save the recording: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Computes a checksum of the whole game state (level, tick, player, invaders,
+     * bullets and random number generator). Two runs that are in the same state
+     * have the same checksum, so it is used to check that a replay has not diverged.
+     */
+    public long stateChecksum() {
+        long hash = 0xCBF29CE484222325L;
+        hash = mix(hash, currentLevel);
+        hash = mix(hash, tickCount);
+        hash = mix(hash, random.getState());
+        hash = mix(hash, player.getScore());
+        hash = mix(hash, player.getX());
+        hash = mix(hash, player.getY());
+        hash = mix(hash, player.getHealth());
+        // Further players of a server game; a single-player game hashes the same as before there were several
+        EntityStore<Player> players = factory.getPlayers();
+        for (int slot = 1; slot < players.size(); slot++) {
+            hash = mix(hash, players.x(slot));
+            hash = mix(hash, players.y(slot));
+            hash = mix(hash, players.health(slot));
+        }
+        hash = mix(hash, invaders.size());
+        for (int slot = 0; slot < invaders.size(); slot++) {
+            hash = mix(hash, invaders.x(slot));
+            hash = mix(hash, invaders.y(slot));
+            hash = mix(hash, invaders.health(slot));
+        }
+        if (formation != null) {
+            hash = mix(hash, formation.size());
+            for (int y = 0; y < formation.getHeight(); y++) {
+                for (int word = 0; word < formation.getWordsPerRow(); word++) {
+                    hash = mix(hash, formation.word(y, word));
+                }
+            }
+        }
+        hash = mix(hash, bullets.size());
+        for (int slot = 0; slot < bullets.size(); slot++) {
+            hash = mix(hash, bullets.x(slot));
+            hash = mix(hash, bullets.y(slot));
+        }
+        // Projectiles in flight; a game without any hashes the same as before invaders could fire
+        if (!projectiles.isEmpty()) {
+            hash = mix(hash, projectiles.size());
+            for (int slot = 0; slot < projectiles.size(); slot++) {
+                hash = mix(hash, projectiles.x(slot));
+                hash = mix(hash, projectiles.y(slot));
+                hash = mix(hash, projectiles.kind(slot).ordinal());
+            }
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, long value) {
+        return (hash ^ value) * 0x100000001B3L;
+    }
+
+    /**
+     * Prints the tick throughput of the last game played. A resumed game is measured
+     * over the ticks run since it was resumed.
+     */
+    public void reportThroughput() {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        long ticksRun = tickCount - startTick;
+        double ticksPerSecond = seconds > 0 ? ticksRun / seconds : 0;
+        System.out.println("\nSimulation finished");
+        System.out.println("-------------------");
+        System.out.println("Total ticks: " + tickCount);
+        if (startTick > 0) {
+            System.out.println("Resumed at tick: " + startTick + " (" + ticksRun + " ticks run)");
         }
+        System.out.printf("Wall time: %.3f ms%n", elapsedNanos / 1_000_000.0);
+        System.out.printf("Throughput: %.0f ticks/second%n", ticksPerSecond);
     }
 
     public void endGame() {
         isRunning = false;
-        if (!invaders.isEmpty()) {
-            System.out.println("Game Over. Player lost but destroyed " + player.getScore() + " Invaders.");
+        if (!invadersDefeated()) {
+            events.publish(GameEventType.GAME_OVER, player.getX(), player.getY(), 0);
         }
     }
 }
@@ -0,0 +1,55 @@
+/*
+Responsibilities:
+
+- Record the outcome of one finished game, so it can be reported or aggregated with other games.
+
+Data:
+
+- The seed the game was run with.
+- Final score, the level reached and whether every level was completed.
+- Number of ticks simulated and the wall time taken.
+ */
+
+package main.java.controller;
+
+public class GameResult {
+    private final long seed;
+    private final int score;
+    private final int levelReached;
+    private final boolean completed;
+    private final long ticks;
+    private final long elapsedNanos;
+
+    public GameResult(long seed, int score, int levelReached, boolean completed, long ticks, long elapsedNanos) {
+        this.seed = seed;
+        this.score = score;
+        this.levelReached = levelReached;
+        this.completed = completed;
+        this.ticks = ticks;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getLevelReached() {
+        return levelReached;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+}
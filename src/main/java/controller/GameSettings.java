@@ -0,0 +1,935 @@
+/*
+Responsibilities:
+
+- Hold the options that control how a game is run, so they can be set up before the game starts.
+- Parse them from the command line, rejecting values that are not numbers or are out of range with a message
+  naming the option.
+
+Data:
+
+- Whether the game runs headless (as fast as the CPU allows) or paced for watching, at the tick rate, and how
+  many late ticks a paced game runs back to back to catch up.
+- Arena size, the number of invaders spawned per level and the cell size of the collision grid.
+- How many cells per tick invaders and bullets move; higher speeds play a game in fewer, coarser ticks.
+- Whether invaders are kept as a bitboard formation instead of as game objects.
+- Log level, and the file to log to (stdout if none).
+- The seed for the game's random number generator.
+- For batch runs, the number of games to run and the number of worker threads.
+- The number of threads a single game splits its entity updates across (1 updates on the game thread only).
+- The file to record the player's actions to, or the recording to replay instead of playing.
+- How often to checkpoint the game and the snapshot file to write, or a snapshot to resume from.
+- Whether to collect metrics (published over JMX), and how often to print a metrics report.
+- Whether to draw the game live in the terminal, at what frame rate, and how much of the arena to show.
+- Whether to play sound on the sound card, the WAV file to write sound to, and the directory to load effects from.
+- Where the player's commands come from when they are given live on an input thread (the keyboard, a bot playing
+  at a fixed rate, or an input script) instead of by the built-in random player.
+- The number of players, and for a game server: the port to listen on and how many bundled bot clients to run
+  over loopback (or the largest player count of a load test).
+- The server a bot client connects to.
+- For soak runs: the number of ticks to run, the warm-up and sampling interval, and the budgets for bytes
+  allocated per tick and for growth of the heap retained after GC.
+- For environment benchmarks: the number of steps to take and the number of environments stepped in lockstep.
+- The wave script to spawn invaders from instead of the random levels, and for generating a stress script: the
+  file to write, the number of spawns and the number of spawns per tick.
+- How many shots per tick the invaders fire at the players (0 for none).
+- The run-result log that finished games are recorded in, and how many of its best runs to print as a
+  leaderboard.
+ */
+
+package main.java.controller;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import main.java.model.Arena;
+import main.java.utility.LogLevel;
+
+public class GameSettings {
+    /** Input mode: commands are read from the keyboard. */
+    public static final String INPUT_KEYBOARD = "keyboard";
+    /** Input mode: a bot gives commands at a fixed rate. */
+    public static final String INPUT_BOT = "bot";
+    /** Input mode: commands are read from an input script. */
+    public static final String INPUT_SCRIPT = "script";
+
+    private boolean headless;
+    private int arenaWidth;
+    private int arenaHeight;
+    private int invadersPerLevel;
+    private int gridCellSize;
+    private int invaderSpeed;
+    private int bulletSpeed;
+    private boolean formation;
+    private LogLevel logLevel;
+    private Path logFile;
+    private long seed;
+    private int batchGames;
+    private int threads;
+    private int updateThreads;
+    private Path recordFile;
+    private Path replayFile;
+    private long checkpointInterval;
+    private Path checkpointFile;
+    private Path resumeFile;
+    private boolean metricsEnabled;
+    private long metricsInterval;
+    private boolean render;
+    private int renderFps;
+    private int renderViewWidth;
+    private int renderViewHeight;
+    private boolean audioLine;
+    private Path audioFile;
+    private Path soundDirectory;
+    private String inputMode;
+    private Path inputScript;
+    private int botRate;
+    private int players;
+    private boolean server;
+    private int port;
+    private int tickRate;
+    private int maxCatchUpTicks;
+    private int serverBots;
+    private int loadTestPlayers;
+    private String botClientAddress;
+    private long soakTicks;
+    private long soakWarmupTicks;
+    private long soakSampleTicks;
+    private double soakAllocationBudget;
+    private long soakHeapBudget;
+    private long envBenchSteps;
+    private int environments;
+    private Path waveScript;
+    private Path generateWavesFile;
+    private long waveSpawns;
+    private int waveRate;
+    private double invaderFireRate;
+    private Path resultsFile;
+    private int leaderboardSize;
+
+    public GameSettings() {
+        this.headless = false;
+        this.arenaWidth = Arena.DEFAULT.getWidth();
+        this.arenaHeight = Arena.DEFAULT.getHeight();
+        this.invadersPerLevel = 1;
+        this.gridCellSize = 4;
+        this.invaderSpeed = 1;
+        this.bulletSpeed = 1;
+        this.formation = false;
+        this.logLevel = LogLevel.INFO;
+        this.logFile = null;
+        this.seed = ThreadLocalRandom.current().nextLong();
+        this.batchGames = 0;
+        this.threads = Runtime.getRuntime().availableProcessors();
+        this.updateThreads = 1;
+        this.checkpointInterval = 0;
+        this.checkpointFile = Paths.get("checkpoint.snap");
+        this.metricsEnabled = false;
+        this.metricsInterval = 0;
+        this.render = false;
+        this.renderFps = 30;
+        this.renderViewWidth = 120;
+        this.renderViewHeight = 40;
+        this.audioLine = false;
+        this.botRate = 30;
+        this.players = 1;
+        this.server = false;
+        this.port = 7777;
+        this.tickRate = 30;
+        this.maxCatchUpTicks = 5;
+        this.serverBots = 0;
+        this.loadTestPlayers = 0;
+        this.soakTicks = 0;
+        this.soakWarmupTicks = 200_000;
+        this.soakSampleTicks = 100_000;
+        // The JVM itself charges the game thread a few hundred bytes now and then, e.g. when compiling code
+        this.soakAllocationBudget = 0.05;
+        this.soakHeapBudget = 1 << 20;
+        this.envBenchSteps = 0;
+        this.environments = 16;
+        this.waveSpawns = 1_000_000;
+        this.waveRate = 16;
+        this.invaderFireRate = 0;
+        this.resultsFile = null;
+        this.leaderboardSize = 0;
+    }
+
+    /**
+     * Creates a copy of these settings, e.g. to give each game of a batch its own seed.
+     */
+    public GameSettings copy() {
+        GameSettings copy = new GameSettings();
+        copy.headless = headless;
+        copy.arenaWidth = arenaWidth;
+        copy.arenaHeight = arenaHeight;
+        copy.invadersPerLevel = invadersPerLevel;
+        copy.gridCellSize = gridCellSize;
+        copy.invaderSpeed = invaderSpeed;
+        copy.bulletSpeed = bulletSpeed;
+        copy.formation = formation;
+        copy.logLevel = logLevel;
+        copy.logFile = logFile;
+        copy.seed = seed;
+        copy.batchGames = batchGames;
+        copy.threads = threads;
+        copy.updateThreads = updateThreads;
+        copy.recordFile = recordFile;
+        copy.replayFile = replayFile;
+        copy.checkpointInterval = checkpointInterval;
+        copy.checkpointFile = checkpointFile;
+        copy.resumeFile = resumeFile;
+        copy.metricsEnabled = metricsEnabled;
+        copy.metricsInterval = metricsInterval;
+        copy.render = render;
+        copy.renderFps = renderFps;
+        copy.renderViewWidth = renderViewWidth;
+        copy.renderViewHeight = renderViewHeight;
+        copy.audioLine = audioLine;
+        copy.audioFile = audioFile;
+        copy.soundDirectory = soundDirectory;
+        copy.inputMode = inputMode;
+        copy.inputScript = inputScript;
+        copy.botRate = botRate;
+        copy.players = players;
+        copy.server = server;
+        copy.port = port;
+        copy.tickRate = tickRate;
+        copy.maxCatchUpTicks = maxCatchUpTicks;
+        copy.serverBots = serverBots;
+        copy.loadTestPlayers = loadTestPlayers;
+        copy.botClientAddress = botClientAddress;
+        copy.soakTicks = soakTicks;
+        copy.soakWarmupTicks = soakWarmupTicks;
+        copy.soakSampleTicks = soakSampleTicks;
+        copy.soakAllocationBudget = soakAllocationBudget;
+        copy.soakHeapBudget = soakHeapBudget;
+        copy.envBenchSteps = envBenchSteps;
+        copy.environments = environments;
+        copy.waveScript = waveScript;
+        copy.generateWavesFile = generateWavesFile;
+        copy.waveSpawns = waveSpawns;
+        copy.waveRate = waveRate;
+        copy.invaderFireRate = invaderFireRate;
+        copy.resultsFile = resultsFile;
+        copy.leaderboardSize = leaderboardSize;
+        return copy;
+    }
+
+    /**
+     * Builds settings from command line arguments. Unknown options are reported
+     * and ignored.
+     *
+     * @param args The arguments passed to the program, e.g. "--headless".
+     * @return The settings described by the arguments.
+     * @throws IllegalArgumentException If an option's value is not a valid number,
+     *                                  size or log level, or is out of range; the
+     *                                  message names the option.
+     */
+    public static GameSettings fromArgs(String[] args) {
+        GameSettings settings = new GameSettings();
+        for (String arg : args) {
+            switch (arg) {
+                case "--headless":
+                    settings.setHeadless(true);
+                    break;
+                case "--paced":
+                    settings.setHeadless(false);
+                    break;
+                case "--metrics":
+                    settings.setMetricsEnabled(true);
+                    break;
+                case "--formation":
+                    settings.setFormation(true);
+                    break;
+                case "--render":
+                    settings.setRender(true);
+                    break;
+                case "--audio-line":
+                    settings.setAudioLine(true);
+                    break;
+                case "--server":
+                    settings.setServer(true);
+                    break;
+                default:
+                    if (arg.startsWith("--arena=")) {
+                        int[] size = sizeOption(arg);
+                        settings.setArenaSize(size[0], size[1]);
+                    } else if (arg.startsWith("--invaders-per-level=")) {
+                        settings.setInvadersPerLevel(intOption(arg, 0));
+                    } else if (arg.startsWith("--grid-cell=")) {
+                        settings.setGridCellSize(intOption(arg, 1));
+                    } else if (arg.startsWith("--invader-speed=")) {
+                        settings.setInvaderSpeed(intOption(arg, 1));
+                    } else if (arg.startsWith("--bullet-speed=")) {
+                        settings.setBulletSpeed(intOption(arg, 1));
+                    } else if (arg.startsWith("--log-level=")) {
+                        settings.setLogLevel(logLevelOption(arg));
+                    } else if (arg.startsWith("--log-file=")) {
+                        settings.setLogFile(Paths.get(optionValue(arg)));
+                    } else if (arg.startsWith("--seed=")) {
+                        settings.setSeed(longOption(arg, Long.MIN_VALUE));
+                    } else if (arg.startsWith("--batch=")) {
+                        settings.setBatchGames(intOption(arg, 0));
+                    } else if (arg.startsWith("--update-threads=")) {
+                        settings.setUpdateThreads(intOption(arg, 1));
+                    } else if (arg.startsWith("--threads=")) {
+                        settings.setThreads(intOption(arg, 1));
+                    } else if (arg.startsWith("--record=")) {
+                        settings.setRecordFile(Paths.get(optionValue(arg)));
+                    } else if (arg.startsWith("--replay=")) {
+                        settings.setReplayFile(Paths.get(optionValue(arg)));
+                    } else if (arg.startsWith("--checkpoint-every=")) {
+                        settings.setCheckpointInterval(longOption(arg, 0));
+                    } else if (arg.startsWith("--checkpoint-file=")) {
+                        settings.setCheckpointFile(Paths.get(optionValue(arg)));
+                    } else if (arg.startsWith("--resume=")) {
+                        settings.setResumeFile(Paths.get(optionValue(arg)));
+                    } else if (arg.startsWith("--metrics-every=")) {
+                        // Printing reports implies collecting metrics
+                        settings.setMetricsEnabled(true);
+                        settings.setMetricsInterval(longOption(arg, 0));
+                    } else if (arg.startsWith("--render-fps=")) {
+                        settings.setRender(true);
+                        settings.setRenderFps(intOption(arg, 1));
+                    } else if (arg.startsWith("--render-view=")) {
+                        int[] size = sizeOption(arg);
+                        settings.setRenderView(size[0], size[1]);
+                    } else if (arg.startsWith("--audio-file=")) {
+                        settings.setAudioFile(Paths.get(optionValue(arg)));
+                    } else if (arg.startsWith("--sound-dir=")) {
+                        settings.setSoundDirectory(Paths.get(optionValue(arg)));
+                    } else if (arg.equals("--input=" + INPUT_KEYBOARD) || arg.equals("--input=" + INPUT_BOT)) {
+                        settings.setInputMode(optionValue(arg));
+                    } else if (arg.startsWith("--input-script=")) {
+                        settings.setInputMode(INPUT_SCRIPT);
+                        settings.setInputScript(Paths.get(optionValue(arg)));
+                    } else if (arg.startsWith("--bot-rate=")) {
+                        settings.setBotRate(intOption(arg, 1));
+                    } else if (arg.startsWith("--players=")) {
+                        settings.setPlayers(intOption(arg, 1));
+                    } else if (arg.startsWith("--port=")) {
+                        settings.setPort(intOption(arg, 0, 65535));
+                    } else if (arg.startsWith("--tick-rate=")) {
+                        settings.setTickRate(intOption(arg, 0));
+                    } else if (arg.startsWith("--max-catch-up=")) {
+                        settings.setMaxCatchUpTicks(intOption(arg, 0));
+                    } else if (arg.startsWith("--server-bots=")) {
+                        // Bundled bots play every player, over loopback on any free port
+                        settings.setServer(true);
+                        settings.setServerBots(intOption(arg, 1));
+                        settings.setPlayers(settings.getServerBots());
+                        settings.setPort(0);
+                    } else if (arg.startsWith("--server-load-test=")) {
+                        settings.setServer(true);
+                        settings.setLoadTestPlayers(intOption(arg, 1));
+                        settings.setPort(0);
+                    } else if (arg.startsWith("--bot-client=")) {
+                        settings.setBotClientAddress(optionValue(arg));
+                    } else if (arg.startsWith("--soak=")) {
+                        settings.setSoakTicks(longOption(arg, 0));
+                    } else if (arg.startsWith("--soak-warmup=")) {
+                        settings.setSoakWarmupTicks(longOption(arg, 0));
+                    } else if (arg.startsWith("--soak-sample=")) {
+                        settings.setSoakSampleTicks(longOption(arg, 1));
+                    } else if (arg.startsWith("--soak-alloc-budget=")) {
+                        settings.setSoakAllocationBudget(doubleOption(arg, 0));
+                    } else if (arg.startsWith("--soak-heap-budget=")) {
+                        settings.setSoakHeapBudget(longOption(arg, 0));
+                    } else if (arg.startsWith("--env-bench=")) {
+                        settings.setEnvBenchSteps(longOption(arg, 0));
+                    } else if (arg.startsWith("--envs=")) {
+                        settings.setEnvironments(intOption(arg, 1));
+                    } else if (arg.startsWith("--wave-script=")) {
+                        settings.setWaveScript(Paths.get(optionValue(arg)));
+                    } else if (arg.startsWith("--generate-waves=")) {
+                        settings.setGenerateWavesFile(Paths.get(optionValue(arg)));
+                    } else if (arg.startsWith("--wave-spawns=")) {
+                        settings.setWaveSpawns(longOption(arg, 0));
+                    } else if (arg.startsWith("--wave-rate=")) {
+                        settings.setWaveRate(intOption(arg, 1));
+                    } else if (arg.startsWith("--invader-fire=")) {
+                        settings.setInvaderFireRate(doubleOption(arg, 0));
+                    } else if (arg.startsWith("--results=")) {
+                        settings.setResultsFile(Paths.get(optionValue(arg)));
+                    } else if (arg.startsWith("--leaderboard=")) {
+                        settings.setLeaderboardSize(intOption(arg, 1));
+                    } else {
+                        System.out.println("Ignoring unknown option: " + arg);
+                    }
+                    break;
+            }
+        }
+        return settings;
+    }
+
+    private static String optionValue(String arg) {
+        return arg.substring(arg.indexOf('=') + 1);
+    }
+
+    private static int intOption(String arg, int min) {
+        return intOption(arg, min, Integer.MAX_VALUE);
+    }
+
+    private static int intOption(String arg, int min, int max) {
+        return (int) checkRange(arg, parseLong(arg, optionValue(arg)), min, max);
+    }
+
+    private static long longOption(String arg, long min) {
+        return checkRange(arg, parseLong(arg, optionValue(arg)), min, Long.MAX_VALUE);
+    }
+
+    private static double doubleOption(String arg, double min) {
+        double value;
+        try {
+            value = Double.parseDouble(optionValue(arg));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(arg + ": expected a number");
+        }
+        // Also rejects NaN and infinity
+        if (!(value >= min && value < Double.POSITIVE_INFINITY)) {
+            throw new IllegalArgumentException(arg + ": expected a number of at least " + min);
+        }
+        return value;
+    }
+
+    /**
+     * Parses a size written as &lt;width&gt;x&lt;height&gt;, both at least 1.
+     */
+    private static int[] sizeOption(String arg) {
+        String[] size = optionValue(arg).split("x", -1);
+        if (size.length != 2) {
+            throw new IllegalArgumentException(arg + ": expected <width>x<height>");
+        }
+        return new int[] { (int) checkRange(arg, parseLong(arg, size[0]), 1, Integer.MAX_VALUE),
+                (int) checkRange(arg, parseLong(arg, size[1]), 1, Integer.MAX_VALUE) };
+    }
+
+    private static LogLevel logLevelOption(String arg) {
+        try {
+            return LogLevel.valueOf(optionValue(arg).toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(arg + ": expected one of " + Arrays.toString(LogLevel.values()));
+        }
+    }
+
+    private static long parseLong(String arg, String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(arg + ": expected a whole number");
+        }
+    }
+
+    private static long checkRange(String arg, long value, long min, long max) {
+        if (value < min || value > max) {
+            String range = max == Long.MAX_VALUE ? "of at least " + min : "from " + min + " to " + max;
+            throw new IllegalArgumentException(arg + ": expected a whole number " + range);
+        }
+        return value;
+    }
+
+    public boolean isHeadless() {
+        return headless;
+    }
+
+    public void setHeadless(boolean headless) {
+        this.headless = headless;
+    }
+
+    public Arena getArena() {
+        return new Arena(arenaWidth, arenaHeight);
+    }
+
+    public void setArenaSize(int width, int height) {
+        this.arenaWidth = width;
+        this.arenaHeight = height;
+    }
+
+    public int getInvadersPerLevel() {
+        return invadersPerLevel;
+    }
+
+    public void setInvadersPerLevel(int invadersPerLevel) {
+        this.invadersPerLevel = invadersPerLevel;
+    }
+
+    public int getGridCellSize() {
+        return gridCellSize;
+    }
+
+    public void setGridCellSize(int gridCellSize) {
+        this.gridCellSize = gridCellSize;
+    }
+
+    public int getInvaderSpeed() {
+        return invaderSpeed;
+    }
+
+    public void setInvaderSpeed(int invaderSpeed) {
+        this.invaderSpeed = invaderSpeed;
+    }
+
+    public int getBulletSpeed() {
+        return bulletSpeed;
+    }
+
+    public void setBulletSpeed(int bulletSpeed) {
+        this.bulletSpeed = bulletSpeed;
+    }
+
+    /**
+     * Checks if invaders are kept as a bitboard formation, laid out in rows from the
+     * top left, instead of as game objects scattered along the top row.
+     */
+    public boolean isFormation() {
+        return formation;
+    }
+
+    public void setFormation(boolean formation) {
+        this.formation = formation;
+    }
+
+    public LogLevel getLogLevel() {
+        return logLevel;
+    }
+
+    public void setLogLevel(LogLevel logLevel) {
+        this.logLevel = logLevel;
+    }
+
+    public Path getLogFile() {
+        return logFile;
+    }
+
+    public void setLogFile(Path logFile) {
+        this.logFile = logFile;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public int getBatchGames() {
+        return batchGames;
+    }
+
+    public void setBatchGames(int batchGames) {
+        this.batchGames = batchGames;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Gets the number of threads a game splits its entity updates across, or 1 to update serially.
+     */
+    public int getUpdateThreads() {
+        return updateThreads;
+    }
+
+    public void setUpdateThreads(int updateThreads) {
+        this.updateThreads = updateThreads;
+    }
+
+    public Path getRecordFile() {
+        return recordFile;
+    }
+
+    public void setRecordFile(Path recordFile) {
+        this.recordFile = recordFile;
+    }
+
+    public Path getReplayFile() {
+        return replayFile;
+    }
+
+    public void setReplayFile(Path replayFile) {
+        this.replayFile = replayFile;
+    }
+
+    public long getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    public void setCheckpointInterval(long checkpointInterval) {
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    public Path getCheckpointFile() {
+        return checkpointFile;
+    }
+
+    public void setCheckpointFile(Path checkpointFile) {
+        this.checkpointFile = checkpointFile;
+    }
+
+    public Path getResumeFile() {
+        return resumeFile;
+    }
+
+    public void setResumeFile(Path resumeFile) {
+        this.resumeFile = resumeFile;
+    }
+
+    public boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    public void setMetricsEnabled(boolean metricsEnabled) {
+        this.metricsEnabled = metricsEnabled;
+    }
+
+    /**
+     * Gets the number of seconds between metrics reports, or 0 for no periodic reports.
+     */
+    public long getMetricsInterval() {
+        return metricsInterval;
+    }
+
+    public void setMetricsInterval(long metricsInterval) {
+        this.metricsInterval = metricsInterval;
+    }
+
+    public boolean isRender() {
+        return render;
+    }
+
+    public void setRender(boolean render) {
+        this.render = render;
+    }
+
+    public int getRenderFps() {
+        return renderFps;
+    }
+
+    public void setRenderFps(int renderFps) {
+        this.renderFps = renderFps;
+    }
+
+    /**
+     * Gets the number of arena columns drawn: the arena width, up to the view width.
+     */
+    public int getRenderWidth() {
+        return Math.min(arenaWidth, renderViewWidth);
+    }
+
+    /**
+     * Gets the number of arena rows drawn: the arena height, up to the view height.
+     */
+    public int getRenderHeight() {
+        return Math.min(arenaHeight, renderViewHeight);
+    }
+
+    /**
+     * Sets the largest part of the arena to draw, from the top left corner.
+     */
+    public void setRenderView(int width, int height) {
+        this.renderViewWidth = width;
+        this.renderViewHeight = height;
+    }
+
+    public boolean isAudioLine() {
+        return audioLine;
+    }
+
+    public void setAudioLine(boolean audioLine) {
+        this.audioLine = audioLine;
+    }
+
+    public Path getAudioFile() {
+        return audioFile;
+    }
+
+    public void setAudioFile(Path audioFile) {
+        this.audioFile = audioFile;
+    }
+
+    /**
+     * Checks if sound is played anywhere: on the sound card or to a file.
+     */
+    public boolean isAudioEnabled() {
+        return audioLine || audioFile != null;
+    }
+
+    public Path getSoundDirectory() {
+        return soundDirectory;
+    }
+
+    public void setSoundDirectory(Path soundDirectory) {
+        this.soundDirectory = soundDirectory;
+    }
+
+    /**
+     * Gets where live commands come from: {@link #INPUT_KEYBOARD}, {@link #INPUT_BOT}
+     * or {@link #INPUT_SCRIPT}, or null for the built-in random player.
+     */
+    public String getInputMode() {
+        return inputMode;
+    }
+
+    public void setInputMode(String inputMode) {
+        this.inputMode = inputMode;
+    }
+
+    public Path getInputScript() {
+        return inputScript;
+    }
+
+    public void setInputScript(Path inputScript) {
+        this.inputScript = inputScript;
+    }
+
+    /**
+     * Gets the number of commands per second the input bot gives.
+     */
+    public int getBotRate() {
+        return botRate;
+    }
+
+    public void setBotRate(int botRate) {
+        this.botRate = botRate;
+    }
+
+    /**
+     * Gets the number of players; more than one needs a game server.
+     */
+    public int getPlayers() {
+        return players;
+    }
+
+    public void setPlayers(int players) {
+        this.players = players;
+    }
+
+    public boolean isServer() {
+        return server;
+    }
+
+    public void setServer(boolean server) {
+        this.server = server;
+    }
+
+    /**
+     * Gets the port a game server listens on, or 0 for any free port.
+     */
+    public int getPort() {
+        return port;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    /**
+     * Gets the number of ticks per second a game that is not headless is paced
+     * at, and a game server runs at.
+     */
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    public void setTickRate(int tickRate) {
+        this.tickRate = tickRate;
+    }
+
+    /**
+     * Gets the number of bot clients a game server runs over loopback, or 0 to wait for outside clients.
+     */
+    public int getServerBots() {
+        return serverBots;
+    }
+
+    public void setServerBots(int serverBots) {
+        this.serverBots = serverBots;
+    }
+
+    /**
+     * Gets the largest player count of a server load test, or 0 for no load test.
+     */
+    public int getLoadTestPlayers() {
+        return loadTestPlayers;
+    }
+
+    public void setLoadTestPlayers(int loadTestPlayers) {
+        this.loadTestPlayers = loadTestPlayers;
+    }
+
+    /**
+     * Gets the "host:port" of the server to play as a bot client, or null to play locally.
+     */
+    public String getBotClientAddress() {
+        return botClientAddress;
+    }
+
+    public void setBotClientAddress(String botClientAddress) {
+        this.botClientAddress = botClientAddress;
+    }
+
+    /**
+     * Gets the number of measured ticks of a soak run, or 0 for no soak run.
+     */
+    public long getSoakTicks() {
+        return soakTicks;
+    }
+
+    public void setSoakTicks(long soakTicks) {
+        this.soakTicks = soakTicks;
+    }
+
+    public long getSoakWarmupTicks() {
+        return soakWarmupTicks;
+    }
+
+    public void setSoakWarmupTicks(long soakWarmupTicks) {
+        this.soakWarmupTicks = soakWarmupTicks;
+    }
+
+    /**
+     * Gets the number of ticks between soak run samples.
+     */
+    public long getSoakSampleTicks() {
+        return soakSampleTicks;
+    }
+
+    public void setSoakSampleTicks(long soakSampleTicks) {
+        this.soakSampleTicks = soakSampleTicks;
+    }
+
+    /**
+     * Gets the most bytes per tick the game thread may allocate in any soak run sample.
+     * 0.05 by default: a few KB per sample of JVM noise passes, but one small object
+     * leaked every hundred ticks does not.
+     */
+    public double getSoakAllocationBudget() {
+        return soakAllocationBudget;
+    }
+
+    public void setSoakAllocationBudget(double soakAllocationBudget) {
+        this.soakAllocationBudget = soakAllocationBudget;
+    }
+
+    /**
+     * Gets the most bytes the heap retained after GC may grow by over a soak run.
+     */
+    public long getSoakHeapBudget() {
+        return soakHeapBudget;
+    }
+
+    public void setSoakHeapBudget(long soakHeapBudget) {
+        this.soakHeapBudget = soakHeapBudget;
+    }
+
+    /**
+     * Gets the number of lockstep steps of an environment benchmark, or 0 for no benchmark.
+     */
+    public long getEnvBenchSteps() {
+        return envBenchSteps;
+    }
+
+    public void setEnvBenchSteps(long envBenchSteps) {
+        this.envBenchSteps = envBenchSteps;
+    }
+
+    /**
+     * Gets the number of environments an environment benchmark steps in lockstep.
+     */
+    public int getEnvironments() {
+        return environments;
+    }
+
+    public void setEnvironments(int environments) {
+        this.environments = environments;
+    }
+
+    /**
+     * Gets the wave script to spawn invaders from, or null to play the random levels.
+     */
+    public Path getWaveScript() {
+        return waveScript;
+    }
+
+    public void setWaveScript(Path waveScript) {
+        this.waveScript = waveScript;
+    }
+
+    /**
+     * Gets the file to generate a stress wave script into, or null to play instead.
+     */
+    public Path getGenerateWavesFile() {
+        return generateWavesFile;
+    }
+
+    public void setGenerateWavesFile(Path generateWavesFile) {
+        this.generateWavesFile = generateWavesFile;
+    }
+
+    public long getWaveSpawns() {
+        return waveSpawns;
+    }
+
+    public void setWaveSpawns(long waveSpawns) {
+        this.waveSpawns = waveSpawns;
+    }
+
+    /**
+     * Gets the number of spawns per tick in a generated wave script.
+     */
+    public int getWaveRate() {
+        return waveRate;
+    }
+
+    public void setWaveRate(int waveRate) {
+        this.waveRate = waveRate;
+    }
+
+    /**
+     * Gets the run-result log finished games are recorded in, or null to not record them.
+     */
+    public Path getResultsFile() {
+        return resultsFile;
+    }
+
+    public void setResultsFile(Path resultsFile) {
+        this.resultsFile = resultsFile;
+    }
+
+    /**
+     * Gets the number of best runs to print from the run-result log, or 0 to play instead.
+     */
+    public int getLeaderboardSize() {
+        return leaderboardSize;
+    }
+
+    public void setLeaderboardSize(int leaderboardSize) {
+        this.leaderboardSize = leaderboardSize;
+    }
+
+    /**
+     * Gets the number of shots the invaders fire per tick, on average; a fraction is a chance of one more shot.
+     */
+    public double getInvaderFireRate() {
+        return invaderFireRate;
+    }
+
+    public void setInvaderFireRate(double invaderFireRate) {
+        this.invaderFireRate = invaderFireRate;
+    }
+
+    public int getMaxCatchUpTicks() {
+        return maxCatchUpTicks;
+    }
+
+    public void setMaxCatchUpTicks(int maxCatchUpTicks) {
+        this.maxCatchUpTicks = maxCatchUpTicks;
+    }
+}
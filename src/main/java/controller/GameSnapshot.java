@@ -0,0 +1,202 @@
+/*
+Responsibilities:
+
+- Save the complete state of a running game to a compact, versioned binary snapshot file, and restore a game
+  from one, so long simulations can checkpoint and resume, or fork many games from one mid-game state.
+- Write and read through memory-mapped files: entity state is copied column by column straight between the
+  entity stores and the mapping, with no per-object serialization.
+- Replace checkpoint files atomically, so a crash while saving never leaves a torn snapshot behind.
+
+Data:
+
+- A fixed little-endian header: magic, version, the settings that shape the game (seed, arena size, invaders per
+  level, grid cell size, invader and bullet speed, formation mode), level, tick, whether the game is running, random number generator state, the state of
+  a random bot player (if any), the player's position, size, health and score, the invader, bullet and
+  projectile counts, and the invaders' fire rate.
+- The invader columns, then the bullet columns, as written by EntityStore.writeColumns, then the projectile
+  columns, as written by ProjectileSystem.writeColumns.
+- In formation mode, the rows of the invader formation, as written by InvaderFormation.writeRows.
+- For a loaded snapshot, the read-only mapping of the file, shared by every game restored from it.
+ */
+
+package main.java.controller;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import main.java.model.EntityStore;
+import main.java.model.InvaderFormation;
+import main.java.model.Player;
+import main.java.model.ProjectileSystem;
+
+public class GameSnapshot {
+    private static final int MAGIC = 0x5349534E; // "SISN"
+    private static final short VERSION = 4;
+    private static final int HEADER_BYTES = 128;
+    private static final int PROJECTILES_OFFSET = 112;
+    private static final int FIRE_RATE_OFFSET = 120;
+    private static final int NO_INPUT_STATE = 0;
+    private static final int RANDOM_INPUT_STATE = 1;
+
+    private final ByteBuffer data;
+
+    private GameSnapshot(ByteBuffer data) {
+        this.data = data;
+    }
+
+    /**
+     * Saves a game to a snapshot file. The snapshot is written to a temporary
+     * file next to the target and then moved over it.
+     *
+     * @param game The game to save, between ticks.
+     * @param file The snapshot file to create or replace.
+     * @throws IOException If the snapshot cannot be written.
+     */
+    public static void save(GameController game, Path file) throws IOException {
+        EntityStore<?> invaders = game.getFactory().getInvaders();
+        EntityStore<?> bullets = game.getFactory().getBullets();
+        ProjectileSystem projectiles = game.getProjectiles();
+        long columnsEnd = HEADER_BYTES + (long) (invaders.size() + bullets.size()) * EntityStore.COLUMNS * Integer.BYTES
+                + (long) projectiles.size() * ProjectileSystem.COLUMNS * Integer.BYTES;
+        InvaderFormation formation = game.getFormation();
+        long size = columnsEnd;
+        if (formation != null) {
+            size += (long) formation.getHeight() * formation.getWordsPerRow() * Long.BYTES;
+        }
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            writeHeader(game, buffer);
+            IntBuffer columns = buffer.asIntBuffer();
+            invaders.writeColumns(columns);
+            bullets.writeColumns(columns);
+            projectiles.writeColumns(columns);
+            if (formation != null) {
+                formation.writeRows(buffer.position((int) columnsEnd).asLongBuffer());
+            }
+            buffer.force();
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Maps a snapshot file for restoring. The snapshot can be restored any number
+     * of times, from any number of threads.
+     *
+     * @throws IOException If the file cannot be read or is not a supported snapshot.
+     */
+    public static GameSnapshot load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a game snapshot: " + file);
+            }
+            short version = buffer.getShort(4);
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + ": " + file);
+            }
+            return new GameSnapshot(buffer);
+        }
+    }
+
+    /**
+     * Creates a new game in the saved state.
+     *
+     * @param settings The settings for the new game. The seed, arena size, invaders per
+     *                 level, grid cell size and speeds are taken from the snapshot instead.
+     * @return The restored game, ready to continue with {@link GameController#simulateGame()}.
+     */
+    public GameController restore(GameSettings settings) {
+        // Each restore reads through its own view, so forks can restore concurrently
+        ByteBuffer buffer = data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        buffer.position(8);
+        GameSettings restored = settings.copy();
+        restored.setSeed(buffer.getLong());
+        restored.setArenaSize(buffer.getInt(), buffer.getInt());
+        restored.setInvadersPerLevel(buffer.getInt());
+        restored.setGridCellSize(buffer.getInt());
+        restored.setInvaderSpeed(buffer.getInt());
+        restored.setBulletSpeed(buffer.getInt());
+        restored.setFormation(buffer.getInt() != 0);
+        restored.setInvaderFireRate(buffer.getDouble(FIRE_RATE_OFFSET));
+        int level = buffer.getInt();
+        long tick = buffer.getLong();
+        boolean running = buffer.getInt() != 0;
+        long randomState = buffer.getLong();
+        int inputKind = buffer.getInt();
+        long inputState = buffer.getLong();
+
+        GameController game = new GameController(restored);
+        game.initializeWorld();
+        game.restoreProgress(level, tick, running);
+        game.getRandom().setState(randomState);
+        if (inputKind == RANDOM_INPUT_STATE && game.getInputSource() instanceof RandomInput) {
+            ((RandomInput) game.getInputSource()).setState(inputState);
+        }
+
+        Player player = game.getPlayer();
+        player.setPosition(buffer.getInt(), buffer.getInt());
+        player.setWidth(buffer.getInt());
+        player.setHeight(buffer.getInt());
+        player.setHealth(buffer.getInt());
+        player.setScore(buffer.getInt());
+
+        int invaderCount = buffer.getInt();
+        int bulletCount = buffer.getInt();
+        int projectileCount = buffer.getInt(PROJECTILES_OFFSET);
+        for (int i = 0; i < invaderCount; i++) {
+            game.getFactory().spawnInvader(0, 0);
+        }
+        for (int i = 0; i < bulletCount; i++) {
+            game.getFactory().spawnBullet(0, 0);
+        }
+        IntBuffer columns = buffer.position(HEADER_BYTES).asIntBuffer();
+        game.getFactory().getInvaders().readColumns(columns);
+        game.getFactory().getBullets().readColumns(columns);
+        game.getProjectiles().readColumns(columns, projectileCount);
+        if (game.getFormation() != null) {
+            int columnsEnd = HEADER_BYTES + (invaderCount + bulletCount) * EntityStore.COLUMNS * Integer.BYTES
+                    + projectileCount * ProjectileSystem.COLUMNS * Integer.BYTES;
+            LongBuffer rows = buffer.position(columnsEnd).asLongBuffer();
+            game.getFormation().readRows(rows);
+        }
+        return game;
+    }
+
+    private static void writeHeader(GameController game, ByteBuffer buffer) {
+        GameSettings settings = game.getSettings();
+        Player player = game.getPlayer();
+        InputSource input = game.getInputSource();
+
+        buffer.putInt(MAGIC).putShort(VERSION).putShort((short) 0);
+        buffer.putLong(settings.getSeed());
+        buffer.putInt(settings.getArena().getWidth()).putInt(settings.getArena().getHeight());
+        buffer.putInt(settings.getInvadersPerLevel()).putInt(settings.getGridCellSize());
+        buffer.putInt(settings.getInvaderSpeed()).putInt(settings.getBulletSpeed());
+        buffer.putInt(settings.isFormation() ? 1 : 0);
+        buffer.putInt(game.getCurrentLevel()).putLong(game.getTickCount()).putInt(game.isRunning() ? 1 : 0);
+        buffer.putLong(game.getRandom().getState());
+        if (input instanceof RandomInput) {
+            buffer.putInt(RANDOM_INPUT_STATE).putLong(((RandomInput) input).getState());
+        } else {
+            buffer.putInt(NO_INPUT_STATE).putLong(0);
+        }
+        buffer.putInt(player.getX()).putInt(player.getY()).putInt(player.getWidth()).putInt(player.getHeight());
+        buffer.putInt(player.getHealth()).putInt(player.getScore());
+        buffer.putInt(game.getFactory().getInvaders().size()).putInt(game.getFactory().getBullets().size());
+        buffer.putInt(game.getProjectiles().size()).putInt(0).putDouble(settings.getInvaderFireRate());
+    }
+}
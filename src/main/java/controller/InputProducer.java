@@ -0,0 +1,232 @@
+/*
+Responsibilities:
+
+- Run a thread that gives the player's commands as they happen and publishes them, timestamped, to an
+  InputQueue, so reading input never happens on the game thread.
+- Read commands from the keyboard (one key per command), from an input script, or from a bot that plays at a
+  fixed rate.
+- Put the terminal in raw mode while reading the keyboard, so each key arrives as it is pressed instead of after
+  Enter, and restore it when the producer is closed or the program exits.
+- Wait for room when the queue is full instead of losing commands; only the input thread waits.
+
+Data:
+
+- The queue commands are published to, and the thread publishing them.
+- Whether to put the terminal in raw mode, and the terminal settings to restore afterwards.
+- The number of commands published.
+ */
+
+package main.java.controller;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.locks.LockSupport;
+
+import main.java.model.InputCommand;
+import main.java.utility.GameLogger;
+import main.java.utility.GameRandom;
+import main.java.utility.LogLevel;
+
+public class InputProducer {
+    private static final long FULL_PARK_NANOS = 100_000;
+
+    private final InputQueue queue;
+    private final String name;
+    private Runnable body;
+    private Thread thread;
+    private volatile boolean running = true;
+    private volatile long published;
+    private boolean rawTerminal;
+    private String savedTerminal;
+    private Thread terminalRestorer;
+
+    private InputProducer(InputQueue queue, String name) {
+        this.queue = queue;
+        this.name = name;
+    }
+
+    /**
+     * Creates a producer reading keys: 'a' moves left, 'd' moves right and space shoots.
+     * Other characters are ignored. If in is standard input and that is a terminal,
+     * the terminal is put in raw mode while the producer runs.
+     *
+     * @param in The keyboard, e.g. System.in.
+     */
+    public static InputProducer keyboard(InputQueue queue, InputStream in) {
+        Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+        InputProducer producer = new InputProducer(queue, "input-keyboard");
+        producer.body = () -> producer.readKeys(reader);
+        producer.rawTerminal = in == System.in;
+        return producer;
+    }
+
+    /**
+     * Creates a producer playing an input script: one command per line by name
+     * (e.g. "moveLeft", "moveRight", "shoot"), or "wait &lt;milliseconds&gt;" to
+     * pause. Blank lines and lines starting with '#' are skipped.
+     *
+     * @throws IOException If the script cannot be opened.
+     */
+    public static InputProducer script(InputQueue queue, Path file) throws IOException {
+        BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        InputProducer producer = new InputProducer(queue, "input-script");
+        producer.body = () -> producer.playScript(reader, file);
+        return producer;
+    }
+
+    /**
+     * Creates a producer for a bot that moves left or right and shoots at random,
+     * at a fixed rate.
+     *
+     * @param seed              The seed of the bot's own random number generator.
+     * @param commandsPerSecond How many commands the bot gives per second.
+     */
+    public static InputProducer bot(InputQueue queue, long seed, int commandsPerSecond) {
+        GameRandom random = new GameRandom(seed);
+        long intervalNanos = 1_000_000_000L / Math.max(1, commandsPerSecond);
+        InputProducer producer = new InputProducer(queue, "input-bot");
+        producer.body = () -> producer.playBot(random, intervalNanos);
+        return producer;
+    }
+
+    public void start() {
+        if (rawTerminal) {
+            enterRawMode();
+        }
+        thread = new Thread(body, name);
+        // Reading the keyboard blocks, so the thread must not keep the program alive
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops publishing commands. A thread blocked reading the keyboard is left
+     * to end with the program.
+     */
+    public void close() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        if (terminalRestorer != null) {
+            Runtime.getRuntime().removeShutdownHook(terminalRestorer);
+            terminalRestorer = null;
+            restoreTerminal();
+        }
+    }
+
+    public long getPublished() {
+        return published;
+    }
+
+    private void enterRawMode() {
+        savedTerminal = stty("-g");
+        // Without stty (e.g. on Windows) keys still work, but only arrive after Enter
+        if (savedTerminal == null || stty("-icanon -echo min 1") == null) {
+            GameLogger.getInstance().log(LogLevel.WARN,
+                    "Could not put the terminal in raw mode; keys only arrive after Enter");
+            return;
+        }
+        // Restore the terminal even if the program is stopped with Ctrl+C
+        terminalRestorer = new Thread(this::restoreTerminal, "terminal-restorer");
+        Runtime.getRuntime().addShutdownHook(terminalRestorer);
+    }
+
+    private void restoreTerminal() {
+        if (savedTerminal != null) {
+            stty(savedTerminal);
+        }
+    }
+
+    /**
+     * Runs stty on standard input.
+     *
+     * @param arguments The arguments, separated by spaces.
+     * @return What stty printed, or null if it could not be run or failed, e.g. as
+     *         standard input is not a terminal.
+     */
+    private static String stty(String arguments) {
+        try {
+            Process process = new ProcessBuilder(("stty " + arguments).split(" "))
+                    .redirectInput(ProcessBuilder.Redirect.INHERIT).redirectErrorStream(true).start();
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+            return process.waitFor() == 0 ? output : null;
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private void readKeys(Reader reader) {
+        try {
+            int key;
+            while (running && (key = reader.read()) >= 0) {
+                InputCommand command = InputCommand.fromKey((char) key);
+                if (command != null) {
+                    publish(command);
+                }
+            }
+        } catch (IOException e) {
+            GameLogger.getInstance().log(LogLevel.WARN, "Stopped reading the keyboard: " + e.getMessage());
+        }
+    }
+
+    private void playScript(BufferedReader reader, Path file) {
+        try (reader) {
+            String line;
+            while (running && (line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                if (line.startsWith("wait ")) {
+                    LockSupport.parkNanos(Long.parseLong(line.substring(5).trim()) * 1_000_000L);
+                    continue;
+                }
+                InputCommand command = InputCommand.fromName(line);
+                if (command == null) {
+                    GameLogger.getInstance().log(LogLevel.WARN, "Skipping unknown command in " + file + ": " + line);
+                } else {
+                    publish(command);
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            GameLogger.getInstance().log(LogLevel.WARN, "Stopped reading " + file + ": " + e.getMessage());
+        }
+    }
+
+    private void playBot(GameRandom random, long intervalNanos) {
+        long next = System.nanoTime();
+        while (running) {
+            publish(random.nextBoolean() ? InputCommand.MOVE_LEFT : InputCommand.MOVE_RIGHT);
+            if (random.nextBoolean()) {
+                publish(InputCommand.SHOOT);
+            }
+            next += intervalNanos;
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+        }
+    }
+
+    private void publish(InputCommand command) {
+        // The timestamp is taken once, so time spent waiting for room counts towards the latency
+        long now = System.nanoTime();
+        while (!queue.offer(command, now)) {
+            if (!running) {
+                return;
+            }
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+        }
+        published++;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+Responsibilities:
+
+- Pass timestamped player commands from one input thread to the game thread without locks: a single-producer,
+  single-consumer ring buffer, so publishing and draining are a few plain array writes and one ordered store.
+- Let the game thread look at everything published since the last tick in one batch, and take as much of it as
+  it uses, leaving the rest queued.
+
+Data:
+
+- The command ordinals and publish timestamps, in ring arrays whose capacity is a power of two.
+- The producer's write sequence and the consumer's read sequence, each only advanced by its own thread, plus a
+  cached copy of the other side's sequence so most calls do not read the shared one.
+ */
+
+package main.java.controller;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import main.java.model.InputCommand;
+
+public class InputQueue {
+    private final int capacity;
+    private final int mask;
+    private final byte[] commands;
+    private final long[] timestamps;
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong read = new AtomicLong();
+    private long cachedRead;
+    private long cachedWritten;
+
+    /**
+     * @param capacity The number of commands the queue holds, rounded up to a power of two.
+     */
+    public InputQueue(int capacity) {
+        this.capacity = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.mask = this.capacity - 1;
+        this.commands = new byte[this.capacity];
+        this.timestamps = new long[this.capacity];
+    }
+
+    /**
+     * Publishes a command. Must only be called from the one producer thread.
+     *
+     * @param command    The command.
+     * @param timeNanos  When the command was given, from System.nanoTime().
+     * @return False if the queue is full and the command was not published.
+     */
+    public boolean offer(InputCommand command, long timeNanos) {
+        long sequence = written.get();
+        if (sequence - cachedRead >= capacity) {
+            cachedRead = read.get();
+            if (sequence - cachedRead >= capacity) {
+                return false;
+            }
+        }
+        int index = (int) sequence & mask;
+        commands[index] = (byte) command.ordinal();
+        timestamps[index] = timeNanos;
+        // Ordered store: the slot is written before the consumer can see the new sequence
+        written.lazySet(sequence + 1);
+        return true;
+    }
+
+    /**
+     * Copies every published command, up to the length of the output arrays,
+     * without taking them. Must only be called from the one consumer thread.
+     *
+     * @param commandsOut   Receives the commands, oldest first.
+     * @param timestampsOut Receives when each command was given.
+     * @return The number of commands copied.
+     */
+    public int peek(InputCommand[] commandsOut, long[] timestampsOut) {
+        long sequence = read.get();
+        if (sequence == cachedWritten) {
+            cachedWritten = written.get();
+            if (sequence == cachedWritten) {
+                return 0;
+            }
+        }
+        int count = (int) Math.min(cachedWritten - sequence, Math.min(commandsOut.length, timestampsOut.length));
+        for (int i = 0; i < count; i++) {
+            int index = (int) (sequence + i) & mask;
+            commandsOut[i] = InputCommand.fromOrdinal(commands[index]);
+            timestampsOut[i] = timestamps[index];
+        }
+        return count;
+    }
+
+    /**
+     * Takes the oldest commands, e.g. the ones a {@link #peek} showed were used.
+     * Must only be called from the one consumer thread.
+     *
+     * @param count The number of commands to take, at most the number published.
+     */
+    public void take(int count) {
+        if (count > 0) {
+            read.lazySet(read.get() + count);
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
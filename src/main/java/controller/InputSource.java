@@ -0,0 +1,23 @@
+/*
+Responsibilities:
+
+- Supply the player's actions for each tick of a game, whether they come from a bot, a recording or a person.
+
+Data:
+
+- None (implementations decide where the actions come from).
+ */
+
+package main.java.controller;
+
+import main.java.model.Player;
+
+public interface InputSource {
+    /**
+     * Gets the player's actions for the next tick.
+     *
+     * @param player The player, for sources that react to the game state.
+     * @return A combination of the Player.ACTION_* flags, or Player.NO_ACTION.
+     */
+    int nextActions(Player player);
+}
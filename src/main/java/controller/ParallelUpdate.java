@@ -0,0 +1,256 @@
+/*
+Responsibilities:
+
+- Run the data-parallel part of a tick's entity update for very large games: invader movement with the checks
+  against the players, bullet movement, and the bullet broad phase, each split into chunks of store slots
+  processed on a ForkJoinPool.
+- Have every chunk collect the slots that need resolving (invaders that reached a player or the bottom row,
+  bullets that hit an invader or left the arena) into its own buffer, so workers never write shared state.
+- Merge the chunk buffers highest slot first, the order the serial loops visit slots in, so the game controller
+  applies removals, damage and score in exactly the serial order and the results are bit-identical.
+- Reuse its tasks and buffers from tick to tick, so a tick allocates nothing once the buffers have grown.
+
+Data:
+
+- The pool and the number of threads it runs.
+- The reusable chunk tasks, each with its slot range, its own grid query and its buffer of slots and hit targets.
+- The stores and grid of the phase in progress.
+- The merged slots to resolve, and for bullets the invader each one hits first.
+ */
+
+package main.java.controller;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import main.java.model.Bullet;
+import main.java.model.EntityStore;
+import main.java.model.Invader;
+import main.java.model.Player;
+import main.java.utility.SpatialGrid;
+
+public class ParallelUpdate {
+    /** The fewest entities worth splitting across threads; smaller stores are updated serially. */
+    public static final int MIN_PARALLEL_SLOTS = 4096;
+
+    private static final int MIN_CHUNK_SLOTS = 1024;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int MOVE_INVADERS = 0;
+    private static final int TRANSLATE_BULLETS = 1;
+    private static final int FIND_BULLET_HITS = 2;
+
+    private final int threads;
+    private final ForkJoinPool pool;
+    private final Chunk[] chunks;
+    private final Phase root = new Phase();
+    private int chunkCount;
+    private int operation;
+
+    private EntityStore<Invader> invaders;
+    private EntityStore<Player> players;
+    private EntityStore<Bullet> bullets;
+    private SpatialGrid<Invader> grid;
+    private int invaderReach;
+
+    private int[] mergedSlots = new int[64];
+    private int[] mergedTargets = new int[64];
+    private int mergedCount;
+
+    /**
+     * @param threads The number of threads to update on.
+     */
+    public ParallelUpdate(int threads) {
+        this.threads = threads;
+        this.pool = new ForkJoinPool(threads);
+        this.chunks = new Chunk[threads * CHUNKS_PER_THREAD];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = new Chunk();
+        }
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Checks if a store is large enough to be worth updating in parallel.
+     */
+    public static boolean isWorthSplitting(EntityStore<?> store) {
+        return store.size() >= MIN_PARALLEL_SLOTS;
+    }
+
+    /**
+     * Moves every invader by its velocity, as {@link EntityStore#moveAll()}, and
+     * finds the invaders that may have reached a live player or the bottom row.
+     *
+     * @return The number of invaders to resolve, read with {@link #slot(int)}, highest slot first.
+     */
+    public int moveInvaders(EntityStore<Invader> invaders, EntityStore<Player> players) {
+        this.invaders = invaders;
+        this.players = players;
+        run(MOVE_INVADERS, invaders.size());
+        return mergedCount;
+    }
+
+    /**
+     * Moves every bullet by its velocity, as {@link EntityStore#translateAll()}.
+     */
+    public void translateBullets(EntityStore<Bullet> bullets) {
+        this.bullets = bullets;
+        run(TRANSLATE_BULLETS, bullets.size());
+    }
+
+    /**
+     * Finds the invader each moved bullet reaches first, among the invaders
+     * alive before any bullet is resolved, and the bullets that left the arena.
+     *
+     * @param grid  The invader grid, rebuilt for this tick.
+     * @param reach The farthest an invader can fall in one tick.
+     * @return The number of bullets to resolve, read with {@link #slot(int)} and {@link #target(int)}, highest
+     *         slot first.
+     */
+    public int findBulletHits(EntityStore<Bullet> bullets, EntityStore<Invader> invaders, SpatialGrid<Invader> grid,
+            int reach) {
+        this.bullets = bullets;
+        this.invaders = invaders;
+        this.grid = grid;
+        this.invaderReach = reach;
+        run(FIND_BULLET_HITS, bullets.size());
+        return mergedCount;
+    }
+
+    /**
+     * Gets the store slot of an entity to resolve, from the last phase.
+     */
+    public int slot(int i) {
+        return mergedSlots[i];
+    }
+
+    /**
+     * Gets the invader slot a bullet to resolve hits first, or -1 if it hits none.
+     */
+    public int target(int i) {
+        return mergedTargets[i];
+    }
+
+    /**
+     * Stops the pool's threads.
+     */
+    public void close() {
+        pool.shutdown();
+    }
+
+    private void run(int operation, int size) {
+        this.operation = operation;
+        chunkCount = Math.max(1, Math.min(chunks.length, size / MIN_CHUNK_SLOTS));
+        for (int i = 0; i < chunkCount; i++) {
+            chunks[i].from = (int) ((long) size * i / chunkCount);
+            chunks[i].to = (int) ((long) size * (i + 1) / chunkCount);
+            chunks[i].count = 0;
+            chunks[i].reinitialize();
+        }
+        root.reinitialize();
+        pool.invoke(root);
+        if (operation != TRANSLATE_BULLETS) {
+            merge();
+        }
+    }
+
+    private void merge() {
+        int total = 0;
+        for (int i = 0; i < chunkCount; i++) {
+            total += chunks[i].count;
+        }
+        if (mergedSlots.length < total) {
+            mergedSlots = new int[Math.max(total, mergedSlots.length * 2)];
+            mergedTargets = new int[mergedSlots.length];
+        }
+        // Later chunks hold higher slots, and each chunk collected its slots highest first
+        mergedCount = 0;
+        for (int i = chunkCount - 1; i >= 0; i--) {
+            Chunk chunk = chunks[i];
+            System.arraycopy(chunk.slots, 0, mergedSlots, mergedCount, chunk.count);
+            System.arraycopy(chunk.targets, 0, mergedTargets, mergedCount, chunk.count);
+            mergedCount += chunk.count;
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private class Phase extends RecursiveAction {
+        @Override
+        protected void compute() {
+            // Fork every chunk but the first, which this worker runs itself
+            for (int i = 1; i < chunkCount; i++) {
+                chunks[i].fork();
+            }
+            chunks[0].compute();
+            for (int i = 1; i < chunkCount; i++) {
+                chunks[i].join();
+            }
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private class Chunk extends RecursiveAction {
+        private int from;
+        private int to;
+        private int[] slots = new int[64];
+        private int[] targets = new int[64];
+        private int count;
+        private final SpatialGrid.Query query = new SpatialGrid.Query();
+
+        @Override
+        protected void compute() {
+            switch (operation) {
+                case MOVE_INVADERS:
+                    moveInvaderRange();
+                    break;
+                case TRANSLATE_BULLETS:
+                    bullets.translateRange(from, to);
+                    break;
+                default:
+                    findBulletHitRange();
+                    break;
+            }
+        }
+
+        private void moveInvaderRange() {
+            invaders.moveRange(from, to);
+            int bottom = invaders.getArena().getHeight();
+            for (int slot = to - 1; slot >= from; slot--) {
+                if (invaders.y(slot) + invaders.height(slot) >= bottom || reachesLivePlayer(slot)) {
+                    add(slot, -1);
+                }
+            }
+        }
+
+        private boolean reachesLivePlayer(int slot) {
+            for (int playerSlot = 0; playerSlot < players.size(); playerSlot++) {
+                if (players.health(playerSlot) > 0 && GameController.crashes(invaders, slot, players, playerSlot)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void findBulletHitRange() {
+            for (int slot = to - 1; slot >= from; slot--) {
+                int target = GameController.firstHit(bullets, slot, invaders, grid, query, invaderReach);
+                if (target >= 0 || bullets.isOutsideArena(slot)) {
+                    add(slot, target);
+                }
+            }
+        }
+
+        private void add(int slot, int target) {
+            if (count == slots.length) {
+                slots = Arrays.copyOf(slots, count * 2);
+                targets = Arrays.copyOf(targets, count * 2);
+            }
+            slots[count] = slot;
+            targets[count] = target;
+            count++;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+Responsibilities:
+
+- Supply the player's actions from commands an input thread published to an InputQueue: at the start of every
+  tick, look at the commands given since the last tick in one batch and combine them, oldest first, into that
+  tick's actions. A command that repeats an action already taken this tick, or moves the other way, ends the
+  batch and is left queued for the next tick, so no command is lost or cancelled by another.
+- Measure input latency: the time from a command being given to the tick that applies it.
+- Start and stop the input thread along with the game.
+
+Data:
+
+- The queue drained each tick, the producer filling it, and reusable arrays receiving each batch.
+- A histogram of input-to-tick latencies in nanoseconds, and the largest batch applied in one tick.
+ */
+
+package main.java.controller;
+
+import main.java.metrics.Histogram;
+import main.java.model.InputCommand;
+import main.java.model.Player;
+
+public class QueuedInput implements InputSource {
+    private static final int MOVES = Player.ACTION_LEFT | Player.ACTION_RIGHT;
+
+    private final InputQueue queue;
+    private final InputProducer producer;
+    private final InputCommand[] batch;
+    private final long[] batchTimestamps;
+    private final Histogram latency = new Histogram();
+    private int largestBatch;
+
+    /**
+     * @param queue    The queue the producer publishes to.
+     * @param producer The producer, started by {@link #start()}.
+     */
+    public QueuedInput(InputQueue queue, InputProducer producer) {
+        this.queue = queue;
+        this.producer = producer;
+        this.batch = new InputCommand[queue.getCapacity()];
+        this.batchTimestamps = new long[queue.getCapacity()];
+    }
+
+    public void start() {
+        producer.start();
+    }
+
+    public void close() {
+        producer.close();
+    }
+
+    @Override
+    public int nextActions(Player player) {
+        int count = queue.peek(batch, batchTimestamps);
+        if (count == 0) {
+            return Player.NO_ACTION;
+        }
+        long now = System.nanoTime();
+        int actions = Player.NO_ACTION;
+        int applied = 0;
+        while (applied < count) {
+            int action = batch[applied].getAction();
+            if ((actions & conflicts(action)) != 0) {
+                break;
+            }
+            actions |= action;
+            latency.record(now - batchTimestamps[applied]);
+            applied++;
+        }
+        queue.take(applied);
+        largestBatch = Math.max(largestBatch, applied);
+        return actions;
+    }
+
+    /**
+     * Gets the actions that cannot share a tick with an action: itself, and for a
+     * move, the move the other way.
+     */
+    private static int conflicts(int action) {
+        return (action & MOVES) != 0 ? MOVES : action;
+    }
+
+    public Histogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * Prints how many commands were applied and how long they waited for a tick.
+     */
+    public void printReport() {
+        System.out.println("\nInput");
+        System.out.println("-----");
+        System.out.println("Commands given: " + producer.getPublished() + ", applied: " + latency.getCount()
+                + ", largest batch: " + largestBatch);
+        System.out.printf("Input-to-tick latency: %.1f us p50, %.1f us p99, %.1f us max%n",
+                latency.percentile(0.50) / 1e3, latency.percentile(0.99) / 1e3, latency.getMax() / 1e3);
+    }
+}
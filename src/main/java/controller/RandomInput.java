@@ -0,0 +1,40 @@
+/*
+Responsibilities:
+
+- Simulate a player with random inputs: on about half of the ticks the player moves left or right and fires.
+
+Data:
+
+- The bot's own random number generator, kept apart from the game's so the game world does not depend on how the
+  player's actions were chosen (a replay can supply the same actions without the bot).
+ */
+
+package main.java.controller;
+
+import main.java.model.Player;
+import main.java.utility.GameRandom;
+
+public class RandomInput implements InputSource {
+    private final GameRandom random;
+
+    public RandomInput(long seed) {
+        this.random = new GameRandom(seed);
+    }
+
+    @Override
+    public int nextActions(Player player) {
+        if (!random.nextBoolean()) {
+            return Player.NO_ACTION;
+        }
+        int move = random.nextBoolean() ? Player.ACTION_LEFT : Player.ACTION_RIGHT;
+        return move | Player.ACTION_FIRE;
+    }
+
+    public long getState() {
+        return random.getState();
+    }
+
+    public void setState(long state) {
+        random.setState(state);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+Responsibilities:
+
+- Collect the samples of a soak run: bytes allocated per tick, tick throughput and heap retained after GC.
+- Check them against the allocation and retained heap budgets, and print a report that says which budget was
+  broken and where.
+
+Data:
+
+- The budgets: bytes allocated per tick, and growth of the heap retained after GC since the end of the warm-up.
+- The heap retained after the warm-up.
+- Per sample: the ticks run, bytes allocated, wall time and heap retained after GC.
+ */
+
+package main.java.controller;
+
+public class SoakReport {
+    private final double allocationBudget;
+    private final long heapGrowthBudget;
+    private final long baselineHeap;
+    private final long[] sampleTicks;
+    private final long[] sampleBytes;
+    private final long[] sampleNanos;
+    private final long[] sampleHeap;
+    private int samples;
+
+    /**
+     * @param settings     The settings holding the budgets.
+     * @param maxSamples   The number of samples the run takes.
+     * @param baselineHeap The heap retained after GC at the end of the warm-up.
+     */
+    public SoakReport(GameSettings settings, int maxSamples, long baselineHeap) {
+        this.allocationBudget = settings.getSoakAllocationBudget();
+        this.heapGrowthBudget = settings.getSoakHeapBudget();
+        this.baselineHeap = baselineHeap;
+        this.sampleTicks = new long[maxSamples];
+        this.sampleBytes = new long[maxSamples];
+        this.sampleNanos = new long[maxSamples];
+        this.sampleHeap = new long[maxSamples];
+    }
+
+    /**
+     * Adds the measurements of one sampling interval.
+     */
+    public void addSample(long ticks, long allocatedBytes, long elapsedNanos, long heapAfterGc) {
+        sampleTicks[samples] = ticks;
+        sampleBytes[samples] = allocatedBytes;
+        sampleNanos[samples] = elapsedNanos;
+        sampleHeap[samples] = heapAfterGc;
+        samples++;
+    }
+
+    /**
+     * Checks if every sample stayed within the allocation budget and the
+     * retained heap stayed within its growth budget.
+     */
+    public boolean isWithinBudget() {
+        return worstAllocationSample() < 0 && heapGrowth() <= heapGrowthBudget;
+    }
+
+    /**
+     * Gets the growth of the heap retained after GC, from the end of the warm-up to the last sample.
+     */
+    public long heapGrowth() {
+        return samples > 0 ? sampleHeap[samples - 1] - baselineHeap : 0;
+    }
+
+    public void print() {
+        System.out.println("Soak run");
+        System.out.println("--------");
+        System.out.printf("%12s %14s %12s %12s %16s%n", "ticks", "allocated", "bytes/tick", "ticks/s", "heap after GC");
+        long totalTicks = 0;
+        long totalBytes = 0;
+        for (int i = 0; i < samples; i++) {
+            totalTicks += sampleTicks[i];
+            totalBytes += sampleBytes[i];
+            System.out.printf("%12d %14d %12.4f %12.0f %16d%n", totalTicks, sampleBytes[i], bytesPerTick(i),
+                    sampleTicks[i] / (sampleNanos[i] / 1e9), sampleHeap[i]);
+        }
+        System.out.printf("Allocated: %.4f bytes/tick over %d ticks (budget %.4f)%n",
+                totalTicks > 0 ? (double) totalBytes / totalTicks : 0, totalTicks, allocationBudget);
+        System.out.printf("Retained heap: %+d bytes since warm-up (budget %d)%n", heapGrowth(), heapGrowthBudget);
+
+        int worst = worstAllocationSample();
+        if (worst >= 0) {
+            long end = 0;
+            for (int i = 0; i <= worst; i++) {
+                end += sampleTicks[i];
+            }
+            System.out.printf("FAIL: ticks %d to %d allocated %.4f bytes/tick, over the budget of %.4f%n",
+                    end - sampleTicks[worst] + 1, end, bytesPerTick(worst), allocationBudget);
+        }
+        if (heapGrowth() > heapGrowthBudget) {
+            System.out.printf("FAIL: the heap retained after GC grew by %d bytes, over the budget of %d%n",
+                    heapGrowth(), heapGrowthBudget);
+        }
+        if (isWithinBudget()) {
+            System.out.println("PASS: within the allocation and retained heap budgets");
+        }
+    }
+
+    /**
+     * Finds the sample that allocated the most per tick over the budget.
+     *
+     * @return The index of the sample, or -1 if every sample is within budget.
+     */
+    private int worstAllocationSample() {
+        int worst = -1;
+        for (int i = 0; i < samples; i++) {
+            if (bytesPerTick(i) > allocationBudget && (worst < 0 || bytesPerTick(i) > bytesPerTick(worst))) {
+                worst = i;
+            }
+        }
+        return worst;
+    }
+
+    private double bytesPerTick(int sample) {
+        return (double) sampleBytes[sample] / sampleTicks[sample];
+    }
+}
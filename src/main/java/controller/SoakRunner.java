@@ -0,0 +1,84 @@
+/*
+Responsibilities:
+
+- Tick one headless game for millions of ticks, level after level and game after game, to find allocation and
+  memory leaks that only show over long runs.
+- Measure the tick loop's steady state: after a warm-up, count the bytes the game thread allocates and the heap
+  left after a full GC, once per sampling interval.
+- Check the measurements against allocation and retained heap budgets, so a regression fails the run.
+
+Data:
+
+- The settings the game is based on, the number of ticks to run, the warm-up and the sampling interval.
+- The JVM's per-thread allocation counter and memory bean.
+ */
+
+package main.java.controller;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+import main.java.metrics.GameMetrics;
+
+public class SoakRunner {
+    private final GameSettings settings;
+    private final long ticks;
+    private final long warmupTicks;
+    private final long sampleTicks;
+    private final com.sun.management.ThreadMXBean allocationCounter = GameMetrics.supportedAllocationCounter();
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+    public SoakRunner(GameSettings settings) {
+        this.settings = settings;
+        this.ticks = settings.getSoakTicks();
+        this.warmupTicks = settings.getSoakWarmupTicks();
+        this.sampleTicks = Math.max(1, settings.getSoakSampleTicks());
+    }
+
+    /**
+     * Runs the warm-up, then the measured ticks.
+     *
+     * @return The samples and whether they stayed within budget.
+     * @throws IllegalStateException If this JVM cannot count allocated bytes per thread.
+     */
+    public SoakReport run() {
+        if (allocationCounter == null) {
+            throw new IllegalStateException("This JVM cannot count allocated bytes per thread");
+        }
+        GameSettings gameSettings = settings.copy();
+        gameSettings.setHeadless(true);
+        gameSettings.setRecordFile(null);
+        gameSettings.setCheckpointInterval(0);
+        GameController game = new GameController(gameSettings);
+        game.newGame();
+
+        // Let the JIT compile the tick loop, and pools and stores grow to their working size
+        runTicks(game, warmupTicks);
+        SoakReport report = new SoakReport(settings, (int) ((ticks + sampleTicks - 1) / sampleTicks), heapAfterGc());
+
+        for (long done = 0; done < ticks; done += sampleTicks) {
+            long count = Math.min(sampleTicks, ticks - done);
+            long startBytes = allocationCounter.getCurrentThreadAllocatedBytes();
+            long startNanos = System.nanoTime();
+            runTicks(game, count);
+            long elapsedNanos = System.nanoTime() - startNanos;
+            long allocated = allocationCounter.getCurrentThreadAllocatedBytes() - startBytes;
+            // Measured outside the sampled ticks, so the collection is not counted against them
+            report.addSample(count, allocated, elapsedNanos, heapAfterGc());
+        }
+        return report;
+    }
+
+    private static void runTicks(GameController game, long count) {
+        for (long i = 0; i < count; i++) {
+            if (game.runGameCycle()) {
+                game.continuePlaying();
+            }
+        }
+    }
+
+    private long heapAfterGc() {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,22 @@
+/*
+Responsibilities:
+
+- Let other parts of the program act on a running game after every tick (e.g. a server broadcasting the new
+  state to its clients), without the game controller knowing about them.
+
+Data:
+
+- None (implementations decide what to do with each tick).
+ */
+
+package main.java.controller;
+
+public interface TickListener {
+    /**
+     * Called on the game thread after every tick, before the next one starts.
+     * The game may be read but must not be changed.
+     *
+     * @param game The game that has just ticked.
+     */
+    void afterTick(GameController game);
+}
@@ -0,0 +1,144 @@
+/*
+Responsibilities:
+
+- Pace a game loop at a fixed tick rate: each tick is scheduled one interval after the previous one, however long
+  the previous one took, so the rate does not drift with the work done per tick.
+- Catch up when ticks fall behind by running the overdue ticks back to back, but only up to a bound; a backlog
+  beyond it is dropped, so a slow stretch slows the game down instead of making it sprint to catch up.
+- Measure how precisely ticks start on time (jitter) and count ticks that took longer than their interval
+  (overruns), ticks run back to back to catch up, and deadlines dropped.
+
+Data:
+
+- The tick interval and the largest number of overdue ticks that are caught up.
+- The scheduled time of the next tick, and the scheduled and actual start of the current tick.
+- A histogram of how late each tick started after its scheduled time.
+- Counts of ticks, overruns, catch-up ticks and dropped deadlines.
+ */
+
+package main.java.controller;
+
+import java.util.concurrent.locks.LockSupport;
+
+import main.java.metrics.Histogram;
+
+public class TickScheduler {
+    // Parking overshoots by tens of microseconds, so the end of each wait is spun instead
+    private static final long SPIN_NANOS = 200_000;
+
+    private final long intervalNanos;
+    private final int maxCatchUpTicks;
+    private final Histogram lateness = new Histogram();
+    private long nextTickNanos;
+    private long scheduledNanos;
+    private long tickStartNanos;
+    private long ticks;
+    private long overruns;
+    private long catchUpTicks;
+    private long droppedTicks;
+
+    /**
+     * @param ticksPerSecond  The tick rate.
+     * @param maxCatchUpTicks The largest number of overdue ticks run back to back to catch up.
+     */
+    public TickScheduler(int ticksPerSecond, int maxCatchUpTicks) {
+        this.intervalNanos = 1_000_000_000L / Math.max(1, ticksPerSecond);
+        this.maxCatchUpTicks = Math.max(0, maxCatchUpTicks);
+    }
+
+    /**
+     * Waits until the next tick is due. Called on the game thread before every
+     * tick; the first call starts the schedule and returns at once.
+     */
+    public void awaitTick() {
+        long now = System.nanoTime();
+        if (ticks == 0) {
+            nextTickNanos = now;
+        } else if (now - tickStartNanos > intervalNanos) {
+            overruns++;
+        }
+        long late = now - nextTickNanos;
+        if (late < 0) {
+            now = waitUntil(nextTickNanos);
+            late = now - nextTickNanos;
+        } else if (late >= intervalNanos) {
+            // This tick is overdue by at least a whole interval, so it runs now without waiting
+            long behind = late / intervalNanos;
+            if (behind > maxCatchUpTicks) {
+                droppedTicks += behind - maxCatchUpTicks;
+                nextTickNanos += (behind - maxCatchUpTicks) * intervalNanos;
+                late = now - nextTickNanos;
+            }
+            if (late >= intervalNanos) {
+                catchUpTicks++;
+            }
+        }
+        lateness.record(late);
+        scheduledNanos = nextTickNanos;
+        tickStartNanos = now;
+        nextTickNanos += intervalNanos;
+        ticks++;
+    }
+
+    /**
+     * Gets the time the current tick was scheduled for, in System.nanoTime() terms.
+     * The state after the tick is due to be shown one interval later.
+     */
+    public long getScheduledNanos() {
+        return scheduledNanos;
+    }
+
+    public long getIntervalNanos() {
+        return intervalNanos;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public long getOverruns() {
+        return overruns;
+    }
+
+    public long getCatchUpTicks() {
+        return catchUpTicks;
+    }
+
+    public long getDroppedTicks() {
+        return droppedTicks;
+    }
+
+    public Histogram getLateness() {
+        return lateness;
+    }
+
+    /**
+     * Describes the tick timing as a text report.
+     */
+    public String getReport() {
+        StringBuilder report = new StringBuilder(256);
+        report.append(String.format("Tick timing at %.1f ticks/second over %d ticks%n", 1e9 / intervalNanos, ticks));
+        report.append(String.format("Start jitter: %.1f us p50, %.1f us p99, %.1f us max%n",
+                lateness.percentile(0.50) / 1e3, lateness.percentile(0.99) / 1e3, lateness.getMax() / 1e3));
+        report.append(String.format("Overruns: %d, caught up: %d ticks, dropped: %d deadlines%n", overruns,
+                catchUpTicks, droppedTicks));
+        return report.toString();
+    }
+
+    private static long waitUntil(long deadlineNanos) {
+        long now = System.nanoTime();
+        while (now < deadlineNanos) {
+            long remaining = deadlineNanos - now;
+            if (remaining > SPIN_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                return System.nanoTime();
+            }
+            now = System.nanoTime();
+        }
+        return now;
+    }
+}
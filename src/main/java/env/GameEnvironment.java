@@ -0,0 +1,191 @@
+/*
+Responsibilities:
+
+- Wrap a game as an environment for bots and reinforcement learning: reset(seed) starts an episode, and
+  step(action) plays one tick with the given player actions and returns the reward.
+- Write each observation (the arena as a grid of cell codes, then the player's state) into a float buffer the
+  caller provides, so stepping allocates nothing; only reset creates a new game.
+- Treat levels as part of one episode: the episode ends when the player is destroyed or the last level is done.
+
+Data:
+
+- The settings every episode is played with, and the game of the current episode.
+- The actions for the next tick, the score at the last step and whether the episode is over.
+- The arena size, which fixes the size of an observation: width * height cells, row by row (EMPTY, INVADER,
+  BULLET, PLAYER or PROJECTILE), then the player's x, y, health and score and the level.
+ */
+
+package main.java.env;
+
+import java.util.Arrays;
+
+import main.java.controller.GameController;
+import main.java.controller.GameSettings;
+import main.java.controller.InputSource;
+import main.java.model.EntityStore;
+import main.java.model.InvaderFormation;
+import main.java.model.Player;
+import main.java.model.ProjectileSystem;
+
+public class GameEnvironment implements InputSource {
+    public static final float EMPTY = 0;
+    public static final float INVADER = 1;
+    public static final float BULLET = 2;
+    public static final float PLAYER = 3;
+    public static final float PROJECTILE = 4;
+
+    /** The number of values after the grid: player x, y, health and score, and the level. */
+    public static final int PLAYER_FEATURES = 5;
+
+    /** The number of distinct actions: every combination of the Player.ACTION_* flags. */
+    public static final int ACTIONS = 8;
+
+    /** Subtracted from the reward of the step in which the player is destroyed. */
+    public static final float LOSS_PENALTY = 10;
+
+    private final GameSettings settings;
+    private final int width;
+    private final int height;
+    private GameController game;
+    private int pendingActions;
+    private int lastScore;
+    private boolean done = true;
+
+    /**
+     * @param settings The settings to play every episode with; the seed is replaced on each reset.
+     */
+    public GameEnvironment(GameSettings settings) {
+        this.settings = settings.copy();
+        this.settings.setHeadless(true);
+        this.settings.setPlayers(1);
+        this.settings.setRecordFile(null);
+        this.settings.setCheckpointInterval(0);
+        this.width = settings.getArena().getWidth();
+        this.height = settings.getArena().getHeight();
+    }
+
+    /**
+     * Gets the number of floats {@link #step(int, float[], int)} and {@link #reset(long, float[], int)} write.
+     */
+    public int getObservationSize() {
+        return width * height + PLAYER_FEATURES;
+    }
+
+    /**
+     * Starts a new episode.
+     *
+     * @param seed        The seed of the episode's game.
+     * @param observation Receives the first observation.
+     * @param offset      Where in the buffer to write it.
+     */
+    public void reset(long seed, float[] observation, int offset) {
+        settings.setSeed(seed);
+        game = new GameController(settings);
+        game.setInputSource(this);
+        game.newGame();
+        pendingActions = Player.NO_ACTION;
+        lastScore = 0;
+        done = false;
+        writeObservation(observation, offset);
+    }
+
+    /**
+     * Plays one tick.
+     *
+     * @param action      A combination of the Player.ACTION_* flags, from 0 to {@link #ACTIONS} - 1.
+     * @param observation Receives the observation after the tick.
+     * @param offset      Where in the buffer to write it.
+     * @return The reward: the points scored in the tick, less {@link #LOSS_PENALTY} if the player was destroyed.
+     * @throws IllegalStateException If the episode is over and has not been reset.
+     */
+    public float step(int action, float[] observation, int offset) {
+        if (done) {
+            throw new IllegalStateException("The episode is over; call reset first");
+        }
+        pendingActions = action & (ACTIONS - 1);
+        boolean levelOver = game.runGameCycle() || !game.isRunning();
+        if (levelOver && !game.nextLevel()) {
+            done = true;
+        }
+        int score = game.getPlayer().getScore();
+        float reward = score - lastScore;
+        lastScore = score;
+        if (!game.isRunning()) {
+            reward -= LOSS_PENALTY;
+        }
+        writeObservation(observation, offset);
+        return reward;
+    }
+
+    /**
+     * Checks if the episode is over: the player was destroyed or the last level is done.
+     */
+    public boolean isDone() {
+        return done;
+    }
+
+    /**
+     * Gets the game of the current episode.
+     */
+    public GameController getGame() {
+        return game;
+    }
+
+    /**
+     * Gives the game the actions passed to the current step.
+     */
+    @Override
+    public int nextActions(Player player) {
+        return pendingActions;
+    }
+
+    private void writeObservation(float[] out, int offset) {
+        Arrays.fill(out, offset, offset + width * height, EMPTY);
+        writeBoxes(out, offset, game.getFactory().getInvaders(), INVADER);
+        InvaderFormation formation = game.getFormation();
+        if (formation != null) {
+            writeFormation(out, offset, formation);
+        }
+        writeBoxes(out, offset, game.getFactory().getBullets(), BULLET);
+        ProjectileSystem projectiles = game.getProjectiles();
+        for (int slot = 0; slot < projectiles.size(); slot++) {
+            // Projectiles leave the system as soon as they leave the arena, so every one is in the grid
+            out[offset + projectiles.y(slot) * width + projectiles.x(slot)] = PROJECTILE;
+        }
+        writeBoxes(out, offset, game.getFactory().getPlayers(), PLAYER);
+
+        Player player = game.getPlayer();
+        int features = offset + width * height;
+        out[features] = player.getX();
+        out[features + 1] = player.getY();
+        out[features + 2] = player.getHealth();
+        out[features + 3] = player.getScore();
+        out[features + 4] = game.getCurrentLevel();
+    }
+
+    private void writeBoxes(float[] out, int offset, EntityStore<?> store, float code) {
+        for (int slot = 0; slot < store.size(); slot++) {
+            int minX = Math.max(store.x(slot), 0);
+            int maxX = Math.min(store.x(slot) + store.width(slot), width);
+            int minY = Math.max(store.y(slot), 0);
+            int maxY = Math.min(store.y(slot) + store.height(slot), height);
+            for (int y = minY; y < maxY; y++) {
+                for (int x = minX, cell = offset + y * width + minX; x < maxX; x++, cell++) {
+                    out[cell] = code;
+                }
+            }
+        }
+    }
+
+    private void writeFormation(float[] out, int offset, InvaderFormation formation) {
+        for (int y = 0; y < height; y++) {
+            for (int word = 0; word < formation.getWordsPerRow(); word++) {
+                long bits = formation.word(y, word);
+                while (bits != 0) {
+                    out[offset + y * width + (word << 6) + Long.numberOfTrailingZeros(bits)] = INVADER;
+                    bits &= bits - 1;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*
+Responsibilities:
+
+- Step many GameEnvironments in lockstep, e.g. to collect experience for training: one call takes an action per
+  environment and fills flat arrays of observations, rewards and done flags.
+- Split the environments into fixed ranges, one per worker thread; the calling thread steps the first range
+  itself, and the workers are woken and waited for through a generation counter and a countdown, spinning
+  briefly before parking, so a step allocates nothing and takes no locks.
+- Start a new episode in an environment as soon as one ends, so every step returns a usable observation for
+  every environment.
+
+Data:
+
+- The environments, and the random number generator each one draws its episode seeds from.
+- The worker threads, the step generation they wait on and the number of workers still busy with it.
+- The arguments of the step in progress, shared with the workers.
+- The number of environment steps taken and episodes finished.
+ */
+
+package main.java.env;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import main.java.controller.GameSettings;
+import main.java.utility.GameRandom;
+
+public class VectorEnvironment {
+    private static final long SEED_STEP = 0x9E3779B97F4A7C15L;
+    private static final int SPINS_BEFORE_PARK = 1 << 10;
+    private static final long IDLE_PARK_NANOS = 100_000;
+
+    private final GameEnvironment[] environments;
+    private final GameRandom[] seeds;
+    private final int observationSize;
+    private final Thread[] workers;
+    private final Thread caller;
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile int generation;
+    private volatile boolean running = true;
+    private long steps;
+    private long episodes;
+
+    private boolean resetting;
+    private int[] actions;
+    private float[] observations;
+    private float[] rewards;
+    private boolean[] dones;
+
+    /**
+     * Creates the environments and starts the worker threads. The thread that
+     * creates it is the only one that may call reset and step.
+     *
+     * @param settings The settings every episode is played with.
+     * @param count    The number of environments.
+     * @param threads  The number of threads to step them on, including the calling thread.
+     */
+    public VectorEnvironment(GameSettings settings, int count, int threads) {
+        environments = new GameEnvironment[count];
+        seeds = new GameRandom[count];
+        for (int i = 0; i < count; i++) {
+            environments[i] = new GameEnvironment(settings);
+        }
+        observationSize = environments[0].getObservationSize();
+        caller = Thread.currentThread();
+        int workerCount = Math.max(1, Math.min(threads, count)) - 1;
+        workers = new Thread[workerCount];
+        for (int w = 0; w < workerCount; w++) {
+            int range = w + 1;
+            workers[w] = new Thread(() -> runWorker(range), "env-worker-" + range);
+            workers[w].setDaemon(true);
+            workers[w].start();
+        }
+    }
+
+    public int size() {
+        return environments.length;
+    }
+
+    /**
+     * Gets the number of floats each environment writes per observation; the
+     * observation of environment i starts at i * getObservationSize().
+     */
+    public int getObservationSize() {
+        return observationSize;
+    }
+
+    public GameEnvironment getEnvironment(int index) {
+        return environments[index];
+    }
+
+    public long getSteps() {
+        return steps;
+    }
+
+    public long getEpisodes() {
+        return episodes;
+    }
+
+    /**
+     * Starts a new episode in every environment.
+     *
+     * @param seed         The base seed; environment i draws its episode seeds from a generator seeded with it
+     *                     and i.
+     * @param observations Receives the first observation of every environment.
+     */
+    public void reset(long seed, float[] observations) {
+        for (int i = 0; i < environments.length; i++) {
+            seeds[i] = new GameRandom(seed + i * SEED_STEP);
+        }
+        resetting = true;
+        this.observations = observations;
+        runStep();
+    }
+
+    /**
+     * Steps every environment once. An environment whose episode ends is reset
+     * straight away: its done flag is set, its reward is the final one, and its
+     * observation is the first of the new episode.
+     *
+     * @param actions      The action of each environment, see {@link GameEnvironment#step(int, float[], int)}.
+     * @param observations Receives the observation of every environment.
+     * @param rewards      Receives the reward of every environment.
+     * @param dones        Receives whether each environment's episode ended.
+     */
+    public void step(int[] actions, float[] observations, float[] rewards, boolean[] dones) {
+        resetting = false;
+        this.actions = actions;
+        this.observations = observations;
+        this.rewards = rewards;
+        this.dones = dones;
+        runStep();
+        steps += environments.length;
+        for (boolean done : dones) {
+            if (done) {
+                episodes++;
+            }
+        }
+    }
+
+    /**
+     * Stops the worker threads.
+     */
+    public void close() {
+        running = false;
+        generation++;
+        for (Thread worker : workers) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    private void runStep() {
+        pending.set(workers.length);
+        // The volatile write publishes the step's arguments to the workers
+        generation++;
+        for (Thread worker : workers) {
+            LockSupport.unpark(worker);
+        }
+        stepRange(0);
+        for (int spins = 0; pending.get() != 0; spins++) {
+            if (spins < SPINS_BEFORE_PARK) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private void runWorker(int range) {
+        int seen = 0;
+        while (true) {
+            for (int spins = 0; generation == seen; spins++) {
+                if (spins < SPINS_BEFORE_PARK) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            }
+            seen = generation;
+            if (!running) {
+                return;
+            }
+            stepRange(range);
+            if (pending.decrementAndGet() == 0) {
+                LockSupport.unpark(caller);
+            }
+        }
+    }
+
+    private void stepRange(int range) {
+        int ranges = workers.length + 1;
+        int from = (int) ((long) environments.length * range / ranges);
+        int to = (int) ((long) environments.length * (range + 1) / ranges);
+        for (int i = from; i < to; i++) {
+            GameEnvironment environment = environments[i];
+            int offset = i * observationSize;
+            if (resetting) {
+                environment.reset(seeds[i].nextLong(), observations, offset);
+                continue;
+            }
+            rewards[i] = environment.step(actions[i], observations, offset);
+            dones[i] = environment.isDone();
+            if (dones[i]) {
+                environment.reset(seeds[i].nextLong(), observations, offset);
+            }
+        }
+    }
+}
@@ -0,0 +1,293 @@
+/*
+Responsibilities:
+
+- Carry the events of a game from the tick to its consumers through one preallocated ring, in the style of the
+  Disruptor: the game thread only writes an event's fields into the next slot, so publishing never allocates,
+  locks or waits on a side effect.
+- Deliver events in batches. Handlers subscribed inline run on the game thread in publish order when the tick
+  flushes the bus, so their effects (e.g. the score) are deterministic. Handlers subscribed on a thread follow the
+  published sequence on a thread of their own.
+- Never let a slow threaded consumer hold the game back: when the ring is full, the events a lagging threaded
+  consumer has not read yet are skipped and counted as lost.
+
+Data:
+
+- The ring: one column per event field (tick, type, x, y, value), indexed by sequence modulo the capacity.
+- The tick events are being published in.
+- The sequences claimed and flushed by the game thread, and the published sequence threaded consumers read up to.
+- The inline handlers, and the threaded consumers with their next sequence and thread.
+- The number of events threaded consumers lost by falling a full ring behind.
+ */
+
+package main.java.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+public class EventBus {
+    /** The default number of events the ring holds, a power of two. */
+    public static final int DEFAULT_CAPACITY = 1 << 10;
+
+    private static final int SPIN_TRIES = 100;
+    private static final long IDLE_PARK_NANOS = 1_000_000;
+
+    private final int capacity;
+    private final int mask;
+    private final long[] ticks;
+    private final int[] types;
+    private final int[] xs;
+    private final int[] ys;
+    private final int[] values;
+
+    private long tick;
+    private long claimed;
+    private long flushed;
+    private volatile long published;
+
+    private EventHandler[] handlers = new EventHandler[0];
+    private final GameEvent inlineEvent = new GameEvent(this);
+    private final List<Consumer> consumers = new ArrayList<>();
+    private final AtomicLong lostEvents = new AtomicLong();
+    private volatile boolean running = true;
+
+    public EventBus() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity The number of events the ring holds, rounded up to a power of two.
+     */
+    public EventBus(int capacity) {
+        this.capacity = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = this.capacity - 1;
+        this.ticks = new long[this.capacity];
+        this.types = new int[this.capacity];
+        this.xs = new int[this.capacity];
+        this.ys = new int[this.capacity];
+        this.values = new int[this.capacity];
+    }
+
+    /**
+     * Registers a handler to run on the game thread, in order with the other
+     * inline handlers, whenever the bus is flushed.
+     */
+    public void subscribe(EventHandler handler) {
+        EventHandler[] grown = new EventHandler[handlers.length + 1];
+        System.arraycopy(handlers, 0, grown, 0, handlers.length);
+        grown[handlers.length] = handler;
+        handlers = grown;
+    }
+
+    /**
+     * Removes an inline handler, e.g. before moving it onto a thread.
+     */
+    public void unsubscribe(EventHandler handler) {
+        for (int i = 0; i < handlers.length; i++) {
+            if (handlers[i] == handler) {
+                EventHandler[] shrunk = new EventHandler[handlers.length - 1];
+                System.arraycopy(handlers, 0, shrunk, 0, i);
+                System.arraycopy(handlers, i + 1, shrunk, i, shrunk.length - i);
+                handlers = shrunk;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Starts a daemon thread running a handler on every event published from
+     * now on. The handler only sees events after inline handlers have run.
+     *
+     * @param handler The handler, which must not touch game state.
+     * @param name    The name of the consumer thread.
+     */
+    public void subscribeOnThread(EventHandler handler, String name) {
+        Consumer consumer = new Consumer(handler, published);
+        consumer.thread = new Thread(consumer::run, name);
+        consumer.thread.setDaemon(true);
+        consumers.add(consumer);
+        consumer.thread.start();
+    }
+
+    /**
+     * Sets the tick the events published from now on happen in. Called by the
+     * game thread at the start of every tick.
+     */
+    public void setTick(long tick) {
+        this.tick = tick;
+    }
+
+    /**
+     * Publishes an event. Called by the game thread only; never blocks. If the
+     * ring is full, the inline handlers are run early to make room.
+     *
+     * @param type  The event type.
+     * @param x     The column the event happened at.
+     * @param y     The row the event happened at.
+     * @param value The event's value, see {@link GameEventType}.
+     */
+    public void publish(GameEventType type, int x, int y, int value) {
+        if (claimed - flushed == capacity) {
+            flush();
+        }
+        if (!consumers.isEmpty()) {
+            skipLaggingConsumers();
+        }
+        int index = (int) claimed & mask;
+        ticks[index] = tick;
+        types[index] = type.ordinal();
+        xs[index] = x;
+        ys[index] = y;
+        values[index] = value;
+        claimed++;
+    }
+
+    /**
+     * Runs the inline handlers on every event published since the last flush,
+     * as one batch, then hands the events on to the threaded consumers. Called
+     * by the game thread at the end of every tick.
+     */
+    public void flush() {
+        long end = claimed;
+        if (flushed == end) {
+            return;
+        }
+        EventHandler[] current = handlers;
+        for (long sequence = flushed; sequence < end; sequence++) {
+            int index = (int) sequence & mask;
+            inlineEvent.set(sequence, ticks[index], GameEventType.fromOrdinal(types[index]), xs[index], ys[index],
+                    values[index]);
+            for (int i = 0; i < current.length; i++) {
+                current[i].onEvent(inlineEvent, sequence == end - 1);
+            }
+        }
+        flushed = end;
+        published = end;
+    }
+
+    /**
+     * Waits until every threaded consumer has handled every published event,
+     * e.g. before the game's log is flushed at the end of a game.
+     */
+    public void awaitConsumers() {
+        flush();
+        long end = published;
+        for (int i = 0; i < consumers.size(); i++) {
+            Consumer consumer = consumers.get(i);
+            while (consumer.handled < end && consumer.thread.isAlive()) {
+                LockSupport.unpark(consumer.thread);
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /**
+     * Delivers every event still pending, then stops the consumer threads. The
+     * bus stays usable: inline handlers keep running, and handlers can be
+     * subscribed on threads again.
+     */
+    public void close() {
+        awaitConsumers();
+        running = false;
+        for (int i = 0; i < consumers.size(); i++) {
+            Consumer consumer = consumers.get(i);
+            LockSupport.unpark(consumer.thread);
+            try {
+                consumer.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        consumers.clear();
+        // Every consumer has stopped, so new ones can start
+        running = true;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the number of events published and flushed so far.
+     */
+    public long getPublished() {
+        return published;
+    }
+
+    /**
+     * Gets the number of events threaded consumers skipped because they fell a full ring behind.
+     */
+    public long getLostEvents() {
+        return lostEvents.get();
+    }
+
+    void setValue(long sequence, int value) {
+        values[(int) sequence & mask] = value;
+    }
+
+    private void skipLaggingConsumers() {
+        // The slot about to be written still holds the event a full ring back
+        long overwritten = claimed - capacity;
+        for (int i = 0; i < consumers.size(); i++) {
+            AtomicLong next = consumers.get(i).next;
+            long sequence = next.get();
+            while (sequence <= overwritten) {
+                if (next.compareAndSet(sequence, overwritten + 1)) {
+                    lostEvents.addAndGet(overwritten + 1 - sequence);
+                    break;
+                }
+                sequence = next.get();
+            }
+        }
+    }
+
+    /** A handler following the published sequence on its own thread. */
+    private final class Consumer {
+        final EventHandler handler;
+        final GameEvent event = new GameEvent(null);
+        final AtomicLong next;
+        volatile long handled;
+        Thread thread;
+
+        Consumer(EventHandler handler, long start) {
+            this.handler = handler;
+            this.next = new AtomicLong(start);
+            this.handled = start;
+        }
+
+        void run() {
+            int idle = 0;
+            while (true) {
+                boolean stopping = !running;
+                long end = published;
+                long sequence = next.get();
+                if (sequence >= end) {
+                    handled = end;
+                    if (stopping) {
+                        return;
+                    }
+                    if (++idle < SPIN_TRIES) {
+                        Thread.onSpinWait();
+                    } else {
+                        LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    }
+                    continue;
+                }
+                idle = 0;
+                int index = (int) sequence & mask;
+                long tick = ticks[index];
+                GameEventType type = GameEventType.fromOrdinal(types[index]);
+                int x = xs[index];
+                int y = ys[index];
+                int value = values[index];
+                // Claim the sequence after reading it: if the producer skipped past it meanwhile, the copy is stale
+                if (!next.compareAndSet(sequence, sequence + 1)) {
+                    continue;
+                }
+                event.set(sequence, tick, type, x, y, value);
+                handler.onEvent(event, sequence + 1 == end);
+            }
+        }
+    }
+}
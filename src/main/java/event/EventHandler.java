@@ -0,0 +1,23 @@
+/*
+Responsibilities:
+
+- Define how a consumer of the event bus receives events, in batches, either on the game thread at the end of
+  each tick or on a thread of its own.
+
+Data:
+
+- None (the interface only defines the callback).
+ */
+
+package main.java.event;
+
+public interface EventHandler {
+    /**
+     * Handles one event. The event object is reused for the next event, so
+     * copy anything that needs keeping.
+     *
+     * @param event      The event.
+     * @param endOfBatch True for the last event currently available, e.g. to flush buffered output.
+     */
+    void onEvent(GameEvent event, boolean endOfBatch);
+}
@@ -0,0 +1,51 @@
+/*
+Responsibilities:
+
+- Write the banners and lines describing shots, kills, crashes, invader fire, completed levels and game over to the
+  game log.
+
+Data:
+
+- The logger the lines are written to.
+ */
+
+package main.java.event;
+
+import main.java.utility.GameLogger;
+import main.java.utility.LogEvent;
+import main.java.utility.LogLevel;
+
+public class EventLogger implements EventHandler {
+    private final GameLogger logger;
+
+    public EventLogger(GameLogger logger) {
+        this.logger = logger;
+    }
+
+    @Override
+    public void onEvent(GameEvent event, boolean endOfBatch) {
+        switch (event.getType()) {
+            case SHOT_FIRED:
+                logger.log(LogLevel.INFO, LogEvent.SHOT_SOUND, event.getX(), event.getY());
+                break;
+            case INVADER_KILLED:
+                logger.log(LogLevel.INFO, LogEvent.EXPLOSION_SOUND, event.getValue(), 0);
+                break;
+            case INVADER_FIRED:
+                logger.log(LogLevel.DEBUG, LogEvent.INVADER_FIRED, event.getX(), event.getY());
+                break;
+            case PLAYER_DESTROYED:
+                LogEvent sound = event.getValue() != 0 ? LogEvent.SHOT_DOWN_SOUND : LogEvent.CRASH_SOUND;
+                logger.log(LogLevel.INFO, sound, event.getX(), event.getY());
+                break;
+            case LEVEL_COMPLETE:
+                logger.log(LogLevel.DEBUG, LogEvent.LEVEL_COMPLETED, event.getValue());
+                break;
+            case GAME_OVER:
+                logger.log(LogLevel.INFO, LogEvent.GAME_LOST, event.getValue());
+                break;
+            default:
+                break;
+        }
+    }
+}
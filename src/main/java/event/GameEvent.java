@@ -0,0 +1,79 @@
+/*
+Responsibilities:
+
+- Present one event from the event bus's ring to a handler, as a reusable view, so delivering events allocates
+  nothing.
+- Let handlers running on the game thread update an event's value for the handlers that run after them (e.g. the
+  score keeper stamping the score on a kill).
+
+Data:
+
+- The bus the event came from (for write-back), its sequence number, the tick it happened in, its type, coordinates
+  and value.
+ */
+
+package main.java.event;
+
+public class GameEvent {
+    private final EventBus bus;
+    private long sequence;
+    private long tick;
+    private GameEventType type;
+    private int x;
+    private int y;
+    private int value;
+
+    /**
+     * @param bus The bus to write value updates back to, or null for a copy read off the game thread.
+     */
+    GameEvent(EventBus bus) {
+        this.bus = bus;
+    }
+
+    void set(long sequence, long tick, GameEventType type, int x, int y, int value) {
+        this.sequence = sequence;
+        this.tick = tick;
+        this.type = type;
+        this.x = x;
+        this.y = y;
+        this.value = value;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Gets the tick the event happened in, or 0 if the publisher does not set ticks.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    public GameEventType getType() {
+        return type;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    /**
+     * Sets the event's value. Only handlers on the game thread write it back to
+     * the bus, where later handlers see it.
+     */
+    public void setValue(int value) {
+        this.value = value;
+        if (bus != null) {
+            bus.setValue(sequence, value);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+Responsibilities:
+
+- Name every kind of event the game publishes on its event bus, and what its coordinates and value hold.
+
+Data:
+
+- None (the ordinal of each type is stored in the event bus's ring).
+ */
+
+package main.java.event;
+
+public enum GameEventType {
+    /** A player fired a bullet from (x, y). */
+    SHOT_FIRED,
+
+    /** A bullet hit an invader at (x, y) without destroying it. */
+    INVADER_HIT,
+
+    /** A bullet destroyed an invader at (x, y). The value is the score after the kill, set by the ScoreKeeper. */
+    INVADER_KILLED,
+
+    /** An invader crashed into a player at (x, y). */
+    PLAYER_HIT,
+
+    /** An invader fired a projectile from (x, y). The value is the ordinal of its ProjectileKind. */
+    INVADER_FIRED,
+
+    /** An invader's projectile hit a player at (x, y). The value is the damage done. */
+    PLAYER_SHOT,
+
+    /**
+     * A crash or projectile at (x, y) destroyed a player; follows that PLAYER_HIT or PLAYER_SHOT. The value is
+     * 1 if a projectile destroyed the player, 0 for a crash.
+     */
+    PLAYER_DESTROYED,
+
+    /** Every invader of a level is gone. The value is the level. */
+    LEVEL_COMPLETE,
+
+    /** The last player was destroyed. The value is the final score, set by the ScoreKeeper. */
+    GAME_OVER;
+
+    private static final GameEventType[] VALUES = values();
+
+    /**
+     * Gets an event type by its ordinal, without copying the values array.
+     */
+    public static GameEventType fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
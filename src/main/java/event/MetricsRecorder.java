@@ -0,0 +1,50 @@
+/*
+Responsibilities:
+
+- Count the collisions, kills and bullet and projectile spawns of each tick in the game's metrics, from the events
+  the tick published.
+
+Data:
+
+- The metrics to update, or none while metrics are off.
+ */
+
+package main.java.event;
+
+import main.java.metrics.GameMetrics;
+
+public class MetricsRecorder implements EventHandler {
+    private GameMetrics metrics;
+
+    /**
+     * Sets the metrics to update, or null to stop counting.
+     */
+    public void setMetrics(GameMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void onEvent(GameEvent event, boolean endOfBatch) {
+        GameMetrics current = metrics;
+        if (current == null) {
+            return;
+        }
+        switch (event.getType()) {
+            case SHOT_FIRED:
+            case INVADER_FIRED:
+                current.countSpawns(1);
+                break;
+            case INVADER_HIT:
+            case PLAYER_HIT:
+            case PLAYER_SHOT:
+                current.countCollision();
+                break;
+            case INVADER_KILLED:
+                current.countCollision();
+                current.countKill();
+                break;
+            default:
+                break;
+        }
+    }
+}
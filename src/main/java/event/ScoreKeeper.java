@@ -0,0 +1,38 @@
+/*
+Responsibilities:
+
+- Keep the score: award a point to the players' shared score for every invader killed, and stamp the score on
+  kill and game over events for the handlers after it.
+- Run inline on the game thread, so the score is up to date at the end of every tick and replays match.
+
+Data:
+
+- The game whose first player holds the shared score.
+ */
+
+package main.java.event;
+
+import main.java.controller.GameController;
+
+public class ScoreKeeper implements EventHandler {
+    private final GameController game;
+
+    public ScoreKeeper(GameController game) {
+        this.game = game;
+    }
+
+    @Override
+    public void onEvent(GameEvent event, boolean endOfBatch) {
+        switch (event.getType()) {
+            case INVADER_KILLED:
+                game.getPlayer().increaseScore(1);
+                event.setValue(game.getPlayer().getScore());
+                break;
+            case GAME_OVER:
+                event.setValue(game.getPlayer().getScore());
+                break;
+            default:
+                break;
+        }
+    }
+}
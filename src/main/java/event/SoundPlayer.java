@@ -0,0 +1,39 @@
+/*
+Responsibilities:
+
+- Play the sound effect of each shot, kill and crash on the game's sound manager, at the tick it happened in.
+
+Data:
+
+- The sound manager the effects are queued on.
+ */
+
+package main.java.event;
+
+import main.java.audio.SoundEffect;
+import main.java.utility.SoundManager;
+
+public class SoundPlayer implements EventHandler {
+    private final SoundManager soundManager;
+
+    public SoundPlayer(SoundManager soundManager) {
+        this.soundManager = soundManager;
+    }
+
+    @Override
+    public void onEvent(GameEvent event, boolean endOfBatch) {
+        switch (event.getType()) {
+            case SHOT_FIRED:
+                soundManager.play(SoundEffect.SHOOT, event.getTick());
+                break;
+            case INVADER_KILLED:
+                soundManager.play(SoundEffect.EXPLOSION, event.getTick());
+                break;
+            case PLAYER_DESTROYED:
+                soundManager.play(SoundEffect.CRASH, event.getTick());
+                break;
+            default:
+                break;
+        }
+    }
+}
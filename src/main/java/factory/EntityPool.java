@@ -0,0 +1,51 @@
+/*
+Responsibilities:
+
+- Keep game objects that have left the game so the factory can reuse them instead of allocating new ones.
+
+Data:
+
+- A stack of released (detached) objects, which grows as needed and is never shrunk.
+ */
+
+package main.java.factory;
+
+import java.util.Arrays;
+
+import main.java.model.GameObject;
+
+public class EntityPool<T extends GameObject> {
+    private Object[] free = new Object[16];
+    private int size;
+
+    /**
+     * Returns a released object to the pool.
+     *
+     * @param object An object that is no longer attached to a store.
+     */
+    public void push(T object) {
+        if (size == free.length) {
+            free = Arrays.copyOf(free, size * 2);
+        }
+        free[size++] = object;
+    }
+
+    /**
+     * Takes an object from the pool.
+     *
+     * @return A released object, or null if the pool is empty.
+     */
+    @SuppressWarnings("unchecked")
+    public T pop() {
+        if (size == 0) {
+            return null;
+        }
+        T object = (T) free[--size];
+        free[size] = null;
+        return object;
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -1,40 +1,221 @@
 /*
 Responsibilities:
 
-- Create different types of game objects based on the specified type (invaders, player, bullets).
+- Create different types of game objects (invaders, player, bullets), singly or as a whole wave of invaders, and
+  invaders of a given kind and health for wave scripts.
 - Initialize and configure the created game objects with appropriate initial positions and attributes.
+- Own the entity stores that hold the state of the created objects, one per kind of object.
+- Pool invaders and bullets that leave the game, so spawning reuses them instead of allocating.
 
 Data:
 
-- None (The GameObjectFactory class primarily serves as a factory for creating game objects and does not contain specific data).
+- The arena that created game objects are placed in, and the game's random number generator for random placement.
+- The speed (cells per tick) given to spawned invaders and bullets.
+- Entity stores for invaders, bullets and players.
+- Pools of released invaders and bullets.
  */
 
 package main.java.factory;
 
+import main.java.model.Arena;
+import main.java.model.EntityStore;
 import main.java.model.GameObject;
 import main.java.model.Invader;
 import main.java.model.Player;
 import main.java.model.Bullet;
+import main.java.utility.GameRandom;
 
 public class GameObjectFactory {
+    /** The health a player starts with. */
+    public static final int PLAYER_HEALTH = 100;
 
+    private final Arena arena;
+    private final GameRandom random;
+    private final EntityStore<Invader> invaders;
+    private final EntityStore<Bullet> bullets;
+    private final EntityStore<Player> players;
+    private final EntityPool<Invader> invaderPool = new EntityPool<>();
+    private final EntityPool<Bullet> bulletPool = new EntityPool<>();
+    private int invaderSpeed = 1;
+    private int bulletSpeed = 1;
+
+    public GameObjectFactory() {
+        this(Arena.DEFAULT, new GameRandom(System.nanoTime()));
+    }
+
+    public GameObjectFactory(Arena arena, GameRandom random) {
+        this.arena = arena;
+        this.random = random;
+        this.invaders = new EntityStore<>(arena, 64);
+        this.bullets = new EntityStore<>(arena, 64);
+        this.players = new EntityStore<>(arena, 1);
+    }
+
+    /**
+     * Creates a game object by name. Prefer the typed spawn methods, which avoid
+     * the string lookup.
+     *
+     * @param type The type of object, "invader", "player" or "bullet".
+     * @return The created object, or null if the type is unknown.
+     */
     public GameObject createObject(String type) {
         switch (type) {
             case "invader":
-                // Create and return an Invader object with initial position and attributes
-                int invaderX = (int) (Math.random() * 20);
-                return new Invader(invaderX, 0, 1, 1, 1); // Size as 1x1 for a point
+                // Create and return an Invader object at a random position along the top
+                return spawnInvader(random.nextInt(arena.getWidth()), 0);
 
             case "player":
-                // Create and return a Player object with initial position and attributes
-                return new Player(10, 19, 1, 1, 100); // Size as 1x1 for a point
+                return spawnPlayer();
 
             case "bullet":
                 // Create and return a Bullet object with a default initial position
-                return new Bullet(0, 0); // Initial position to be adjusted later
+                return spawnBullet(0, 0); // Initial position to be adjusted later
 
             default:
                 return null;
         }
     }
+
+    /**
+     * Spawns an invader, reusing a released one if available.
+     */
+    public Invader spawnInvader(int x, int y) {
+        Invader invader = invaderPool.pop();
+        if (invader == null) {
+            invader = new Invader(invaders, x, y, 1, 1, 1); // Size as 1x1 for a point
+        } else {
+            invaders.add(invader, x, y, 1, 1, 1);
+        }
+        invaders.setVelocity(invader.getSlot(), 0, invaderSpeed);
+        return invader;
+    }
+
+    /**
+     * Spawns an invader of a given kind and health, e.g. from a wave script.
+     */
+    public Invader spawnInvader(int x, int y, SpawnType type, int health) {
+        Invader invader = spawnInvader(x, y);
+        int slot = invader.getSlot();
+        invaders.setWidth(slot, type.getWidth());
+        invaders.setHealth(slot, health);
+        invaders.setVelocity(slot, 0, invaderSpeed * type.getSpeed());
+        return invader;
+    }
+
+    /**
+     * Spawns a bullet, reusing a released one if available.
+     */
+    public Bullet spawnBullet(int x, int y) {
+        Bullet bullet = bulletPool.pop();
+        if (bullet == null) {
+            bullet = new Bullet(bullets, x, y);
+        } else {
+            bullets.add(bullet, x, y, 1, 1, 1);
+        }
+        bullets.setVelocity(bullet.getSlot(), 0, -bulletSpeed);
+        return bullet;
+    }
+
+    /**
+     * Spawns the player at the bottom middle of the arena.
+     */
+    public Player spawnPlayer() {
+        return new Player(players, arena.getWidth() / 2, arena.getHeight() - 1, 1, 1, PLAYER_HEALTH); // Size as 1x1 for a point
+    }
+
+    /**
+     * Spawns a wave of invaders laid out by a pattern. The new invaders occupy
+     * the slots from the returned slot to the end of the invader store.
+     *
+     * @param count   The number of invaders to spawn.
+     * @param pattern How the invaders are laid out.
+     * @return The store slot of the first spawned invader.
+     */
+    public int spawnWave(int count, WavePattern pattern) {
+        int firstSlot = invaders.size();
+        for (int i = 0; i < count; i++) {
+            spawnInvader(pattern.x(i, count, arena, random), pattern.y(i, count, arena));
+        }
+        return firstSlot;
+    }
+
+    /**
+     * Removes an invader from the game and returns it to the pool.
+     */
+    public void release(Invader invader) {
+        releaseInvader(invader.getSlot());
+    }
+
+    /**
+     * Removes a bullet from the game and returns it to the pool.
+     */
+    public void release(Bullet bullet) {
+        releaseBullet(bullet.getSlot());
+    }
+
+    /**
+     * Removes the invader in a store slot and returns it to the pool. The last
+     * invader moves into the freed slot.
+     */
+    public void releaseInvader(int slot) {
+        Invader invader = invaders.get(slot);
+        invaders.remove(slot);
+        invaderPool.push(invader);
+    }
+
+    /**
+     * Removes the bullet in a store slot and returns it to the pool. The last
+     * bullet moves into the freed slot.
+     */
+    public void releaseBullet(int slot) {
+        Bullet bullet = bullets.get(slot);
+        bullets.remove(slot);
+        bulletPool.push(bullet);
+    }
+
+    /**
+     * Releases every invader whose health has run out.
+     */
+    public void releaseDestroyedInvaders() {
+        for (int slot = invaders.size() - 1; slot >= 0; slot--) {
+            if (invaders.health(slot) <= 0) {
+                releaseInvader(slot);
+            }
+        }
+    }
+
+    /**
+     * Releases every invader, e.g. before spawning the next level.
+     */
+    public void releaseAllInvaders() {
+        for (int slot = invaders.size() - 1; slot >= 0; slot--) {
+            releaseInvader(slot);
+        }
+    }
+
+    /**
+     * Sets how many rows per tick invaders spawned from now on move down.
+     */
+    public void setInvaderSpeed(int invaderSpeed) {
+        this.invaderSpeed = invaderSpeed;
+    }
+
+    /**
+     * Sets how many rows per tick bullets spawned from now on move up.
+     */
+    public void setBulletSpeed(int bulletSpeed) {
+        this.bulletSpeed = bulletSpeed;
+    }
+
+    public EntityStore<Invader> getInvaders() {
+        return invaders;
+    }
+
+    public EntityStore<Bullet> getBullets() {
+        return bullets;
+    }
+
+    public EntityStore<Player> getPlayers() {
+        return players;
+    }
 }
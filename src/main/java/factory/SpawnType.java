@@ -0,0 +1,68 @@
+/*
+Responsibilities:
+
+- Describe the kinds of invader a wave script can spawn, and how each differs from a standard invader.
+
+Data:
+
+- The width of each kind of invader, and how many times faster than the configured invader speed it falls.
+- The id of each kind, as stored in wave script files.
+ */
+
+package main.java.factory;
+
+public enum SpawnType {
+    /** A standard invader, one cell wide, falling at the invader speed. */
+    STANDARD(1, 1),
+
+    /** An invader three cells wide, and so easier to hit. */
+    WIDE(3, 1),
+
+    /** An invader falling twice as fast as a standard one. */
+    FAST(1, 2);
+
+    private static final SpawnType[] VALUES = values();
+
+    private final int width;
+    private final int speed;
+
+    SpawnType(int width, int speed) {
+        this.width = width;
+        this.speed = speed;
+    }
+
+    /**
+     * Gets a spawn type by its id.
+     *
+     * @return The spawn type, or null if the id is unknown.
+     */
+    public static SpawnType fromId(int id) {
+        return id >= 0 && id < VALUES.length ? VALUES[id] : null;
+    }
+
+    /**
+     * Gets how many times the configured invader speed the fastest kind of invader falls at.
+     */
+    public static int fastestSpeed() {
+        int fastest = 1;
+        for (SpawnType type : VALUES) {
+            fastest = Math.max(fastest, type.speed);
+        }
+        return fastest;
+    }
+
+    public int getId() {
+        return ordinal();
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets how many times the configured invader speed this kind of invader falls at.
+     */
+    public int getSpeed() {
+        return speed;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+Responsibilities:
+
+- Describe how a wave of invaders is laid out when it is spawned in bulk.
+
+Data:
+
+- None (each pattern only computes the position of the i-th invader of a wave).
+ */
+
+package main.java.factory;
+
+import main.java.model.Arena;
+import main.java.utility.GameRandom;
+
+public enum WavePattern {
+    /** Invaders are placed at random columns along the top row. */
+    RANDOM {
+        @Override
+        public int x(int index, int count, Arena arena, GameRandom random) {
+            return random.nextInt(arena.getWidth());
+        }
+
+        @Override
+        public int y(int index, int count, Arena arena) {
+            return 0;
+        }
+    },
+
+    /** Invaders are spread evenly across the top row. */
+    SPREAD {
+        @Override
+        public int x(int index, int count, Arena arena, GameRandom random) {
+            return (int) ((long) index * arena.getWidth() / count);
+        }
+
+        @Override
+        public int y(int index, int count, Arena arena) {
+            return 0;
+        }
+    },
+
+    /** Invaders fill the arena row by row from the top left, like a classic formation. */
+    BLOCK {
+        @Override
+        public int x(int index, int count, Arena arena, GameRandom random) {
+            return index % arena.getWidth();
+        }
+
+        @Override
+        public int y(int index, int count, Arena arena) {
+            return (index / arena.getWidth()) % arena.getHeight();
+        }
+    };
+
+    /**
+     * Gets the column of the i-th invader in a wave.
+     */
+    public abstract int x(int index, int count, Arena arena, GameRandom random);
+
+    /**
+     * Gets the row of the i-th invader in a wave.
+     */
+    public abstract int y(int index, int count, Arena arena);
+}
@@ -0,0 +1,207 @@
+/*
+Responsibilities:
+
+- Read a wave script: a file of scheduled invader spawns (tick, position, type and health), sorted by tick, so
+  levels can be scripted instead of spawned at random.
+- Stream the spawns through a memory-mapped window that slides along the file as ticks advance, so a script with
+  millions of spawns is never read into memory as a whole and plays with a constant memory footprint.
+- Hand out the spawns due at a tick one at a time through the cursor's fields, so playing a script allocates
+  nothing between window moves.
+- Seek to a tick by binary search, so a game restored from a snapshot continues with the right spawn.
+
+Data:
+
+- The script file and the number of spawns in it.
+- The mapped window: the index of its first spawn and the number of spawns it holds.
+- The index of the next spawn, and the fields of the spawn last handed out.
+
+File format (little-endian): a 16-byte header of magic, version, reserved short and spawn count (long), then one
+16-byte record per spawn: tick (int), x (int), y (int), type id (byte), reserved byte and health (short).
+ */
+
+package main.java.factory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class WaveScript {
+    static final int MAGIC = 0x53495756; // "SIWV"
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int RECORD_BYTES = 16;
+
+    /** The number of spawns mapped at a time: 16 MiB of the file. */
+    private static final int WINDOW_RECORDS = 1 << 20;
+
+    private final Path file;
+    private final long count;
+    private ByteBuffer window;
+    private long windowStart;
+    private int windowCount;
+    private long next;
+    private int lastTick;
+
+    private int tick;
+    private int x;
+    private int y;
+    private SpawnType type;
+    private int health;
+
+    private WaveScript(Path file, long count) {
+        this.file = file;
+        this.count = count;
+    }
+
+    /**
+     * Opens a wave script and checks its header. Every game playing the script
+     * opens its own, since each keeps its own position in it.
+     *
+     * @throws IOException If the file cannot be read or is not a wave script.
+     */
+    public static WaveScript open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Keep reading until the header is complete or the file ends
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+                throw new IOException("Not a wave script: " + file);
+            }
+            short version = header.getShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported wave script version " + version + ": " + file);
+            }
+            header.getShort();
+            long count = header.getLong();
+            if (count < 0 || channel.size() < HEADER_BYTES + count * RECORD_BYTES) {
+                throw new IOException("Wave script is truncated: " + file);
+            }
+            return new WaveScript(file, count);
+        }
+    }
+
+    /**
+     * Gets the number of spawns in the script.
+     */
+    public long size() {
+        return count;
+    }
+
+    /**
+     * Checks if every spawn has been handed out.
+     */
+    public boolean isExhausted() {
+        return next >= count;
+    }
+
+    /**
+     * Moves to the next spawn if it is due by a tick. Its details are then read
+     * with {@link #x()}, {@link #y()}, {@link #type()} and {@link #health()}.
+     *
+     * @param now The current tick.
+     * @return False if the next spawn is not due yet, or there are no more spawns.
+     * @throws IllegalStateException If the script is out of tick order or names an unknown type.
+     */
+    public boolean nextDue(long now) {
+        if (next >= count) {
+            return false;
+        }
+        int offset = recordOffset(next);
+        int recordTick = window.getInt(offset);
+        if (recordTick > now) {
+            return false;
+        }
+        if (recordTick < lastTick) {
+            throw new IllegalStateException("Wave script " + file + " is out of tick order at spawn " + next);
+        }
+        type = SpawnType.fromId(window.get(offset + 12));
+        if (type == null) {
+            throw new IllegalStateException("Wave script " + file + " has an unknown type at spawn " + next);
+        }
+        tick = recordTick;
+        x = window.getInt(offset + 4);
+        y = window.getInt(offset + 8);
+        health = window.getShort(offset + 14);
+        lastTick = recordTick;
+        next++;
+        return true;
+    }
+
+    /**
+     * Moves to the first spawn after a tick, as if every earlier spawn had been
+     * handed out.
+     */
+    public void seek(long after) {
+        long low = 0;
+        long high = count;
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            if (tickAt(middle) <= after) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        next = low;
+        lastTick = low > 0 ? tickAt(low - 1) : 0;
+    }
+
+    /**
+     * Moves back to the first spawn, to play the script again.
+     */
+    public void rewind() {
+        next = 0;
+        lastTick = 0;
+    }
+
+    public int tick() {
+        return tick;
+    }
+
+    public int x() {
+        return x;
+    }
+
+    public int y() {
+        return y;
+    }
+
+    public SpawnType type() {
+        return type;
+    }
+
+    public int health() {
+        return health;
+    }
+
+    private int tickAt(long index) {
+        // Find the offset first: it may map a new window
+        int offset = recordOffset(index);
+        return window.getInt(offset);
+    }
+
+    private int recordOffset(long index) {
+        if (index < windowStart || index >= windowStart + windowCount) {
+            mapWindow(index);
+        }
+        return (int) (index - windowStart) * RECORD_BYTES;
+    }
+
+    private void mapWindow(long index) {
+        windowStart = index;
+        windowCount = (int) Math.min(WINDOW_RECORDS, count - index);
+        // The mapping stays valid after the channel is closed, so no file handle is held between moves
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            window = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + index * RECORD_BYTES,
+                    (long) windowCount * RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read wave script " + file, e);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+Responsibilities:
+
+- Write wave scripts, streaming the spawns through a fixed buffer so scripts of any length can be written with a
+  constant memory footprint.
+- Check that spawns are added in tick order, and fill in the spawn count in the header on close.
+- Generate stress scripts: a steady stream of random spawns of every type across the top of the arena.
+
+Data:
+
+- The open file, the buffer of spawns not yet written, the number of spawns and the tick of the last one.
+ */
+
+package main.java.factory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import main.java.model.Arena;
+import main.java.utility.GameRandom;
+
+public class WaveScriptWriter implements Closeable {
+    private static final int BUFFER_RECORDS = 1 << 12;
+    private static final int MAX_HEALTH = 3;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_RECORDS * WaveScript.RECORD_BYTES)
+            .order(ByteOrder.LITTLE_ENDIAN);
+    private long count;
+    private int lastTick;
+
+    /**
+     * Creates the file, replacing any existing one, and writes the header.
+     */
+    public WaveScriptWriter(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        writeHeader();
+        channel.position(WaveScript.HEADER_BYTES);
+    }
+
+    /**
+     * Generates a stress script: spawns of random types and health at random
+     * columns along the top row, a fixed number per tick from tick 1.
+     *
+     * @param file    The script to create.
+     * @param arena   The arena the script is played in.
+     * @param spawns  The number of spawns.
+     * @param perTick The number of spawns per tick.
+     * @param seed    The seed for the random placement.
+     */
+    public static void generate(Path file, Arena arena, long spawns, int perTick, long seed) throws IOException {
+        GameRandom random = new GameRandom(seed);
+        SpawnType[] types = SpawnType.values();
+        try (WaveScriptWriter writer = new WaveScriptWriter(file)) {
+            for (long i = 0; i < spawns; i++) {
+                int tick = (int) (1 + i / perTick);
+                writer.add(tick, random.nextInt(arena.getWidth()), 0, types[random.nextInt(types.length)],
+                        1 + random.nextInt(MAX_HEALTH));
+            }
+        }
+    }
+
+    /**
+     * Adds a spawn to the end of the script.
+     *
+     * @param tick   The tick the invader appears at, no earlier than the last spawn's.
+     * @param x      The column of the invader's left edge.
+     * @param y      The row of the invader.
+     * @param type   The kind of invader.
+     * @param health The number of hits the invader takes, from 1 to Short.MAX_VALUE.
+     * @throws IllegalArgumentException If the spawn is earlier than the last one or its health is out of range.
+     */
+    public void add(int tick, int x, int y, SpawnType type, int health) throws IOException {
+        if (tick < lastTick) {
+            throw new IllegalArgumentException("Spawn at tick " + tick + " added after one at tick " + lastTick);
+        }
+        if (health < 1 || health > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Spawn health out of range: " + health);
+        }
+        if (!buffer.hasRemaining()) {
+            flush();
+        }
+        buffer.putInt(tick).putInt(x).putInt(y).put((byte) type.getId()).put((byte) 0).putShort((short) health);
+        lastTick = tick;
+        count++;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Writes the remaining spawns and the spawn count, and closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+            writeHeader();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(WaveScript.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(WaveScript.MAGIC).putShort(WaveScript.VERSION).putShort((short) 0).putLong(count).flip();
+        long position = 0;
+        while (header.hasRemaining()) {
+            position += channel.write(header, position);
+        }
+    }
+}
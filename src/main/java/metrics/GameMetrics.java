@@ -0,0 +1,276 @@
+/*
+Responsibilities:
+
+- Measure what each game tick costs: latency histograms for the whole tick and for each phase of it, and the
+  bytes the game thread allocates per tick.
+- Track live gauges (invader and bullet counts) and counters (collisions, kills, spawns).
+- Publish everything as a JMX MBean, and render it as a text report for periodic dumps.
+- Keep the game thread's cost to a few clock reads and plain stores per tick; readers on other threads never
+  block it. A game without metrics attached pays nothing.
+
+Data:
+
+- A histogram per tick phase, one for whole ticks and one for bytes allocated per tick.
+- The gauges and counters, written only by the game thread.
+- The start time and allocated bytes at the start of the current tick.
+- The JVM's per-thread allocation counter, if the JVM supports one.
+ */
+
+package main.java.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+public class GameMetrics implements GameMetricsMBean {
+    /** The name the metrics are registered under on the platform MBean server. */
+    public static final String OBJECT_NAME = "spaceinvaders:type=GameMetrics";
+
+    private final Histogram[] phases = new Histogram[TickPhase.values().length];
+    private final Histogram ticks = new Histogram();
+    private final Histogram allocatedBytes = new Histogram();
+    private final com.sun.management.ThreadMXBean allocationCounter;
+    private final AtomicLong collisions = new AtomicLong();
+    private final AtomicLong kills = new AtomicLong();
+    private final AtomicLong spawns = new AtomicLong();
+    private volatile int invaderCount;
+    private volatile int bulletCount;
+    private long tickStartNanos;
+    private long tickStartBytes;
+
+    public GameMetrics() {
+        for (int i = 0; i < phases.length; i++) {
+            phases[i] = new Histogram();
+        }
+        allocationCounter = supportedAllocationCounter();
+    }
+
+    /**
+     * Registers the metrics on the platform MBean server.
+     *
+     * @throws JMException If metrics are already registered under {@link #OBJECT_NAME}.
+     */
+    public void register() throws JMException {
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+    }
+
+    /**
+     * Marks the start of a tick. Called on the game thread.
+     *
+     * @return The start time of the tick's first phase.
+     */
+    public long beginTick() {
+        if (allocationCounter != null) {
+            tickStartBytes = allocationCounter.getCurrentThreadAllocatedBytes();
+        }
+        tickStartNanos = System.nanoTime();
+        return tickStartNanos;
+    }
+
+    /**
+     * Records the time taken by a phase of the current tick.
+     *
+     * @param phase      The phase that just finished.
+     * @param startNanos When the phase started.
+     * @return The current time, i.e. the start time of the next phase.
+     */
+    public long endPhase(TickPhase phase, long startNanos) {
+        long now = System.nanoTime();
+        phases[phase.ordinal()].record(now - startNanos);
+        return now;
+    }
+
+    /**
+     * Marks the end of a tick, recording its total time and allocations and
+     * updating the gauges.
+     */
+    public void endTick(int invaders, int bullets) {
+        ticks.record(System.nanoTime() - tickStartNanos);
+        if (allocationCounter != null) {
+            allocatedBytes.record(allocationCounter.getCurrentThreadAllocatedBytes() - tickStartBytes);
+        }
+        invaderCount = invaders;
+        bulletCount = bullets;
+    }
+
+    public void countCollision() {
+        collisions.lazySet(collisions.get() + 1);
+    }
+
+    public void countKill() {
+        kills.lazySet(kills.get() + 1);
+    }
+
+    public void countSpawns(int count) {
+        spawns.lazySet(spawns.get() + count);
+    }
+
+    public Histogram getPhase(TickPhase phase) {
+        return phases[phase.ordinal()];
+    }
+
+    /**
+     * Renders every metric as a human-readable report.
+     */
+    @Override
+    public String getReport() {
+        StringBuilder report = new StringBuilder(512);
+        report.append(String.format("Metrics after %d ticks%n", getTicks()));
+        report.append(String.format("%-20s %12s %12s %12s%n", "phase", "p50 ns", "p99 ns", "max ns"));
+        for (TickPhase phase : TickPhase.values()) {
+            appendRow(report, phase.getLabel(), getPhase(phase));
+        }
+        appendRow(report, "whole tick", ticks);
+        report.append(String.format("Invaders: %d, bullets: %d%n", invaderCount, bulletCount));
+        report.append(String.format("Collisions: %d, kills: %d, spawns: %d%n",
+                collisions.get(), kills.get(), spawns.get()));
+        if (allocationCounter != null) {
+            report.append(String.format("Allocated per tick: %.1f bytes mean, %d bytes p99%n",
+                    allocatedBytes.getMean(), allocatedBytes.percentile(0.99)));
+        } else {
+            report.append(String.format("Allocated per tick: not supported by this JVM%n"));
+        }
+        return report.toString();
+    }
+
+    private static void appendRow(StringBuilder report, String label, Histogram histogram) {
+        report.append(String.format("%-20s %12d %12d %12d%n", label,
+                histogram.percentile(0.5), histogram.percentile(0.99), histogram.getMax()));
+    }
+
+    /**
+     * Gets the JVM's per-thread allocation counter, enabling it if needed.
+     *
+     * @return The counter, or null if this JVM cannot count allocated bytes per thread.
+     */
+    public static com.sun.management.ThreadMXBean supportedAllocationCounter() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        com.sun.management.ThreadMXBean counter = (com.sun.management.ThreadMXBean) threads;
+        if (!counter.isThreadAllocatedMemorySupported()) {
+            return null;
+        }
+        counter.setThreadAllocatedMemoryEnabled(true);
+        return counter;
+    }
+
+    // JMX attributes
+    @Override
+    public long getTicks() {
+        return ticks.getCount();
+    }
+
+    @Override
+    public long getTickP50Nanos() {
+        return ticks.percentile(0.5);
+    }
+
+    @Override
+    public long getTickP99Nanos() {
+        return ticks.percentile(0.99);
+    }
+
+    @Override
+    public long getTickMaxNanos() {
+        return ticks.getMax();
+    }
+
+    @Override
+    public long getPlayerActionsP50Nanos() {
+        return getPhase(TickPhase.PLAYER_ACTIONS).percentile(0.5);
+    }
+
+    @Override
+    public long getPlayerActionsP99Nanos() {
+        return getPhase(TickPhase.PLAYER_ACTIONS).percentile(0.99);
+    }
+
+    @Override
+    public long getPlayerActionsMaxNanos() {
+        return getPhase(TickPhase.PLAYER_ACTIONS).getMax();
+    }
+
+    @Override
+    public long getInvaderMovementP50Nanos() {
+        return getPhase(TickPhase.INVADER_MOVEMENT).percentile(0.5);
+    }
+
+    @Override
+    public long getInvaderMovementP99Nanos() {
+        return getPhase(TickPhase.INVADER_MOVEMENT).percentile(0.99);
+    }
+
+    @Override
+    public long getInvaderMovementMaxNanos() {
+        return getPhase(TickPhase.INVADER_MOVEMENT).getMax();
+    }
+
+    @Override
+    public long getBulletProcessingP50Nanos() {
+        return getPhase(TickPhase.BULLET_PROCESSING).percentile(0.5);
+    }
+
+    @Override
+    public long getBulletProcessingP99Nanos() {
+        return getPhase(TickPhase.BULLET_PROCESSING).percentile(0.99);
+    }
+
+    @Override
+    public long getBulletProcessingMaxNanos() {
+        return getPhase(TickPhase.BULLET_PROCESSING).getMax();
+    }
+
+    @Override
+    public long getCollisionsP50Nanos() {
+        return getPhase(TickPhase.COLLISIONS).percentile(0.5);
+    }
+
+    @Override
+    public long getCollisionsP99Nanos() {
+        return getPhase(TickPhase.COLLISIONS).percentile(0.99);
+    }
+
+    @Override
+    public long getCollisionsMaxNanos() {
+        return getPhase(TickPhase.COLLISIONS).getMax();
+    }
+
+    @Override
+    public int getInvaderCount() {
+        return invaderCount;
+    }
+
+    @Override
+    public int getBulletCount() {
+        return bulletCount;
+    }
+
+    @Override
+    public long getCollisionCount() {
+        return collisions.get();
+    }
+
+    @Override
+    public long getKillCount() {
+        return kills.get();
+    }
+
+    @Override
+    public long getSpawnCount() {
+        return spawns.get();
+    }
+
+    @Override
+    public double getAllocatedBytesPerTick() {
+        return allocatedBytes.getMean();
+    }
+
+    @Override
+    public long getAllocatedBytesP99() {
+        return allocatedBytes.percentile(0.99);
+    }
+}
@@ -0,0 +1,62 @@
+/*
+Responsibilities:
+
+- Define the management interface through which GameMetrics is published over JMX, so tools such as JConsole
+  or a JMX exporter can read and alert on the game's metrics.
+
+Data:
+
+- None (each getter is a read-only JMX attribute).
+ */
+
+package main.java.metrics;
+
+public interface GameMetricsMBean {
+    long getTicks();
+
+    long getTickP50Nanos();
+
+    long getTickP99Nanos();
+
+    long getTickMaxNanos();
+
+    long getPlayerActionsP50Nanos();
+
+    long getPlayerActionsP99Nanos();
+
+    long getPlayerActionsMaxNanos();
+
+    long getInvaderMovementP50Nanos();
+
+    long getInvaderMovementP99Nanos();
+
+    long getInvaderMovementMaxNanos();
+
+    long getBulletProcessingP50Nanos();
+
+    long getBulletProcessingP99Nanos();
+
+    long getBulletProcessingMaxNanos();
+
+    long getCollisionsP50Nanos();
+
+    long getCollisionsP99Nanos();
+
+    long getCollisionsMaxNanos();
+
+    int getInvaderCount();
+
+    int getBulletCount();
+
+    long getCollisionCount();
+
+    long getKillCount();
+
+    long getSpawnCount();
+
+    double getAllocatedBytesPerTick();
+
+    long getAllocatedBytesP99();
+
+    String getReport();
+}
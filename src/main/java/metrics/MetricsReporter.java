@@ -0,0 +1,65 @@
+/*
+Responsibilities:
+
+- Dump a text report of the game's metrics at a fixed interval while a game runs, from a background thread so
+  the game thread is never delayed by it.
+
+Data:
+
+- The metrics to report and the interval between reports.
+- The scheduler running the reports on a daemon thread.
+ */
+
+package main.java.metrics;
+
+import java.io.PrintStream;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class MetricsReporter {
+    private final GameMetrics metrics;
+    private final long intervalSeconds;
+    private final PrintStream output;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param metrics         The metrics to report.
+     * @param intervalSeconds The time between reports.
+     * @param output          Where to print the reports, e.g. System.err to keep them apart from the game log.
+     */
+    public MetricsReporter(GameMetrics metrics, long intervalSeconds, PrintStream output) {
+        if (intervalSeconds <= 0) {
+            throw new IllegalArgumentException("Report interval must be positive: " + intervalSeconds);
+        }
+        this.metrics = metrics;
+        this.intervalSeconds = intervalSeconds;
+        this.output = output;
+    }
+
+    /**
+     * Starts reporting. The first report is printed after one interval.
+     */
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::report, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops reporting.
+     */
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void report() {
+        output.print(metrics.getReport());
+        output.flush();
+    }
+}
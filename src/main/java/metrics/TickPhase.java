@@ -0,0 +1,32 @@
+/*
+Responsibilities:
+
+- Name the phases of a game tick that are timed separately, so the cost of a tick can be broken down.
+
+Data:
+
+- A readable label for each phase, used in metric reports.
+ */
+
+package main.java.metrics;
+
+public enum TickPhase {
+    /** Reading the player's input and applying it, including firing bullets. */
+    PLAYER_ACTIONS("player actions"),
+    /** Moving the invaders down and checking them against the player and the bottom of the arena, then their fire. */
+    INVADER_MOVEMENT("invader movement"),
+    /** Moving the bullets by their velocity. */
+    BULLET_PROCESSING("bullet processing"),
+    /** Indexing the invaders, sweeping each bullet's path for hits, and removing spent bullets. */
+    COLLISIONS("collisions");
+
+    private final String label;
+
+    TickPhase(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,41 @@
+/*
+Responsibilities:
+
+- Describe the playing canvas that game objects move within.
+
+Data:
+
+- Width and height of the canvas in coordinates.
+ */
+
+package main.java.model;
+
+public class Arena {
+    public static final Arena DEFAULT = new Arena(20, 20);
+
+    private final int width;
+    private final int height;
+
+    public Arena(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Arena size must be positive: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Checks if a point lies on the canvas.
+     */
+    public boolean contains(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+}
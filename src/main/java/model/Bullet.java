@@ -2,29 +2,38 @@
 Responsibilities:
 
 - Represent a bullet in the game.
-- Implement bullet movement logic.
+- Start moving up, one cell per tick, from where it was fired; the bullet store moves every bullet at once.
 
 Data:
 
-- Inherits properties (position, size, health) from the parent class GameObject.
+- Inherits properties (position, velocity, size, health) from the parent class GameObject, stored in the bullet EntityStore.
  */
 
 package main.java.model;
 
+import main.java.render.FrameBuffer;
+
 public class Bullet extends GameObject {
+    /** The character the bullet is drawn with. */
+    public static final char GLYPH = '|';
 
     public Bullet(int x, int y) {
         super(x, y, 1, 1, 1); // Size and health are minimal since it's just a point
+        setVelocity(0, -1);
+    }
+
+    public Bullet(EntityStore<Bullet> store, int x, int y) {
+        super(store, x, y, 1, 1, 1);
+        setVelocity(0, -1);
     }
 
     @Override
-    public void draw() {
-        // TODO: Drawing logic for the bullet
+    public EntityType getType() {
+        return EntityType.BULLET;
     }
 
-    // Method for the bullet to move upward
-    public void move() {
-        moveUp();
-        System.out.println("Bullet moved up to (" + getX() + ", " + getY() + ")");
+    @Override
+    public void draw(FrameBuffer frame) {
+        drawAs(frame, GLYPH);
     }
 }
@@ -0,0 +1,315 @@
+/*
+Responsibilities:
+
+- Store the state of every entity of one archetype (e.g. all invaders) in parallel primitive columns, so movement
+  and collision loops walk contiguous int arrays instead of chasing object references.
+- Keep live entities densely packed: removing an entity moves the last entity into its slot.
+- Keep each GameObject handle pointing at the slot that holds its state.
+
+Data:
+
+- The arena that bounds entity movement.
+- Columns for position (x, y), velocity in cells per tick (vx, vy), size (width, height) and health, indexed by
+  slot.
+- The GameObject handle for each slot, and the number of live slots.
+ */
+
+package main.java.model;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+public class EntityStore<T extends GameObject> {
+    /** The number of int columns written per entity by {@link #writeColumns(IntBuffer)}. */
+    public static final int COLUMNS = 7;
+
+    private final Arena arena;
+    private int[] x;
+    private int[] y;
+    private int[] vx;
+    private int[] vy;
+    private int[] width;
+    private int[] height;
+    private int[] health;
+    private Object[] handles;
+    private int size;
+
+    public EntityStore(Arena arena, int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 1);
+        this.arena = arena;
+        this.x = new int[capacity];
+        this.y = new int[capacity];
+        this.vx = new int[capacity];
+        this.vy = new int[capacity];
+        this.width = new int[capacity];
+        this.height = new int[capacity];
+        this.health = new int[capacity];
+        this.handles = new Object[capacity];
+    }
+
+    /**
+     * Adds an entity to the store and points its handle at the new slot. The
+     * entity starts at rest.
+     *
+     * @return The slot holding the entity's state.
+     */
+    int attach(GameObject handle, int x, int y, int width, int height, int health) {
+        if (size == handles.length) {
+            grow();
+        }
+        int slot = size++;
+        this.x[slot] = x;
+        this.y[slot] = y;
+        this.vx[slot] = 0;
+        this.vy[slot] = 0;
+        this.width[slot] = width;
+        this.height[slot] = height;
+        this.health[slot] = health;
+        handles[slot] = handle;
+        handle.store = this;
+        handle.slot = slot;
+        return slot;
+    }
+
+    /**
+     * Adds a detached handle back into the store, e.g. when reusing a pooled entity.
+     */
+    public void add(T handle, int x, int y, int width, int height, int health) {
+        if (handle.store != null) {
+            throw new IllegalStateException("Entity is already in a store");
+        }
+        attach(handle, x, y, width, height, health);
+    }
+
+    /**
+     * Removes the entity in a slot. The last entity is moved into the freed slot,
+     * so loops that remove while iterating should walk the slots from last to first.
+     * The removed handle is detached and must not be read until it is added again.
+     *
+     * @param slot The slot to remove.
+     */
+    public void remove(int slot) {
+        GameObject removed = (GameObject) handles[slot];
+        int last = --size;
+        if (slot != last) {
+            x[slot] = x[last];
+            y[slot] = y[last];
+            vx[slot] = vx[last];
+            vy[slot] = vy[last];
+            width[slot] = width[last];
+            height[slot] = height[last];
+            health[slot] = health[last];
+            GameObject moved = (GameObject) handles[last];
+            handles[slot] = moved;
+            moved.slot = slot;
+        }
+        handles[last] = null;
+        removed.store = null;
+        removed.slot = -1;
+    }
+
+    /**
+     * Removes every entity whose health has run out.
+     */
+    public void removeDestroyed() {
+        for (int slot = size - 1; slot >= 0; slot--) {
+            if (health[slot] <= 0) {
+                remove(slot);
+            }
+        }
+    }
+
+    /**
+     * Removes every entity.
+     */
+    public void clear() {
+        for (int slot = size - 1; slot >= 0; slot--) {
+            remove(slot);
+        }
+    }
+
+    /**
+     * Moves every entity down by one, if possible. Equivalent to calling
+     * {@link GameObject#moveDown()} on each entity.
+     */
+    public void moveAllDown() {
+        int bottom = arena.getHeight();
+        for (int slot = 0; slot < size; slot++) {
+            if (y[slot] < bottom - height[slot]) {
+                y[slot]++;
+            }
+        }
+    }
+
+    /**
+     * Moves every entity by its velocity, stopping at the edges of the arena.
+     * For entities moving one cell down, equivalent to {@link #moveAllDown()}.
+     */
+    public void moveAll() {
+        moveRange(0, size);
+    }
+
+    /**
+     * Moves the entities in a range of slots by their velocity, stopping at the
+     * edges of the arena. Ranges that do not overlap can be moved by different
+     * threads at once.
+     *
+     * @param from The first slot to move.
+     * @param to   The slot after the last one to move.
+     */
+    public void moveRange(int from, int to) {
+        int right = arena.getWidth();
+        int bottom = arena.getHeight();
+        for (int slot = from; slot < to; slot++) {
+            x[slot] = Math.max(0, Math.min(x[slot] + vx[slot], right - width[slot]));
+            y[slot] = Math.max(0, Math.min(y[slot] + vy[slot], bottom - height[slot]));
+        }
+    }
+
+    /**
+     * Moves every entity by its velocity, ignoring the edges of the arena, e.g.
+     * for projectiles that are removed once they leave it.
+     */
+    public void translateAll() {
+        translateRange(0, size);
+    }
+
+    /**
+     * Moves the entities in a range of slots by their velocity, ignoring the
+     * edges of the arena. Ranges that do not overlap can be moved by different
+     * threads at once.
+     *
+     * @param from The first slot to move.
+     * @param to   The slot after the last one to move.
+     */
+    public void translateRange(int from, int to) {
+        for (int slot = from; slot < to; slot++) {
+            x[slot] += vx[slot];
+            y[slot] += vy[slot];
+        }
+    }
+
+    /**
+     * Checks if the entity in a slot lies entirely outside the arena.
+     */
+    public boolean isOutsideArena(int slot) {
+        return x[slot] + width[slot] <= 0 || x[slot] >= arena.getWidth()
+                || y[slot] + height[slot] <= 0 || y[slot] >= arena.getHeight();
+    }
+
+    /**
+     * Writes the live part of every column to a buffer, one whole column after
+     * another (x, y, vx, vy, width, height, health).
+     *
+     * @param out The buffer to write to, with room for {@code size() * COLUMNS} ints.
+     */
+    public void writeColumns(IntBuffer out) {
+        out.put(x, 0, size);
+        out.put(y, 0, size);
+        out.put(vx, 0, size);
+        out.put(vy, 0, size);
+        out.put(width, 0, size);
+        out.put(height, 0, size);
+        out.put(health, 0, size);
+    }
+
+    /**
+     * Overwrites the columns of the live slots with values written by
+     * {@link #writeColumns(IntBuffer)}. The store must already hold the same
+     * number of entities as were written.
+     *
+     * @param in The buffer to read from.
+     */
+    public void readColumns(IntBuffer in) {
+        in.get(x, 0, size);
+        in.get(y, 0, size);
+        in.get(vx, 0, size);
+        in.get(vy, 0, size);
+        in.get(width, 0, size);
+        in.get(height, 0, size);
+        in.get(health, 0, size);
+    }
+
+    private void grow() {
+        int capacity = handles.length * 2;
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        vx = Arrays.copyOf(vx, capacity);
+        vy = Arrays.copyOf(vy, capacity);
+        width = Arrays.copyOf(width, capacity);
+        height = Arrays.copyOf(height, capacity);
+        health = Arrays.copyOf(health, capacity);
+        handles = Arrays.copyOf(handles, capacity);
+    }
+
+    // Column accessors, indexed by slot
+    public Arena getArena() {
+        return arena;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T get(int slot) {
+        return (T) handles[slot];
+    }
+
+    public int x(int slot) {
+        return x[slot];
+    }
+
+    public void setX(int slot, int value) {
+        x[slot] = value;
+    }
+
+    public int y(int slot) {
+        return y[slot];
+    }
+
+    public void setY(int slot, int value) {
+        y[slot] = value;
+    }
+
+    public int vx(int slot) {
+        return vx[slot];
+    }
+
+    public int vy(int slot) {
+        return vy[slot];
+    }
+
+    public void setVelocity(int slot, int vx, int vy) {
+        this.vx[slot] = vx;
+        this.vy[slot] = vy;
+    }
+
+    public int width(int slot) {
+        return width[slot];
+    }
+
+    public void setWidth(int slot, int value) {
+        width[slot] = value;
+    }
+
+    public int height(int slot) {
+        return height[slot];
+    }
+
+    public void setHeight(int slot, int value) {
+        height[slot] = value;
+    }
+
+    public int health(int slot) {
+        return health[slot];
+    }
+
+    public void setHealth(int slot, int value) {
+        health[slot] = value;
+    }
+}
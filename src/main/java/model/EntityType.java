@@ -0,0 +1,18 @@
+/*
+Responsibilities:
+
+- Identify the kind of a game object, so behaviour that depends on the kinds involved (such as collision
+  resolution) can be looked up by index instead of by instanceof checks.
+
+Data:
+
+- None (the ordinal of each type is used as a table index).
+ */
+
+package main.java.model;
+
+public enum EntityType {
+    PLAYER,
+    INVADER,
+    BULLET
+}
@@ -2,140 +2,234 @@
 Responsibilities:
 
 - Represent a generic game object in the game.
+- Act as a handle onto the object's state, which lives in the columns of an EntityStore shared by every object
+  of the same kind.
 
 Data:
 
-- Position (x, y) to determine the object's location on the game canvas.
-- Size (width, height) to define the object's dimensions.
-- Health (if applicable) to track the object's state and potential damage.
+- The store and slot holding the object's state.
+- Position (x, y) to determine the object's location on the game canvas (stored in the store's columns).
+- Velocity (vx, vy) in cells per tick, for objects that move on their own (stored in the store's columns).
+- Size (width, height) to define the object's dimensions (stored in the store's columns).
+- Health (if applicable) to track the object's state and potential damage (stored in the store's columns).
+- The arena the object moves within (from its store), which bounds its movement.
  */
 
 package main.java.model;
 
+import main.java.render.FrameBuffer;
+import main.java.utility.SweptAabb;
+
 public abstract class GameObject {
-    protected int x;
-    protected int y;
-    protected int width;
-    protected int height;
-    protected int health;
-    private final int canvasSize = 20;
+    EntityStore<?> store;
+    int slot = -1;
 
+    /**
+     * Creates an object with its own single-slot store, for use outside a game's
+     * shared entity storage.
+     */
     public GameObject(int x, int y, int width, int height, int health) {
-        this.x = x;
-        this.y = y;
-        this.width = width;
-        this.height = height;
-        this.health = health;
+        new EntityStore<GameObject>(Arena.DEFAULT, 1).attach(this, x, y, width, height, health);
+    }
+
+    /**
+     * Creates an object whose state is kept in the given store.
+     */
+    protected GameObject(EntityStore<?> store, int x, int y, int width, int height, int health) {
+        store.attach(this, x, y, width, height, health);
+    }
+
+    /**
+     * Draws the object into a frame, covering its bounding box.
+     */
+    public abstract void draw(FrameBuffer frame);
+
+    /**
+     * Fills the object's bounding box in a frame with a character.
+     */
+    protected void drawAs(FrameBuffer frame, char glyph) {
+        EntityStore<?> s = store();
+        frame.fill(s.x(slot), s.y(slot), s.width(slot), s.height(slot), glyph);
     }
 
     /**
-     * Abstract method to be implemented by subclasses for rendering.
+     * Gets the kind of object this is.
      */
-    public abstract void draw();
+    public abstract EntityType getType();
 
     /**
      * Moves the object to the left, if possible.
      */
     public void moveLeft() {
-        if (x > 0)
-            x--;
+        EntityStore<?> s = store();
+        if (s.x(slot) > 0)
+            s.setX(slot, s.x(slot) - 1);
     }
 
     /**
      * Moves the object to the right, if possible.
      */
     public void moveRight() {
-        if (x < canvasSize - width)
-            x++;
+        EntityStore<?> s = store();
+        if (s.x(slot) < s.getArena().getWidth() - s.width(slot))
+            s.setX(slot, s.x(slot) + 1);
     }
 
     /**
      * Moves the object down, if possible.
      */
     public void moveDown() {
-        if (y < canvasSize - height)
-            y++;
+        EntityStore<?> s = store();
+        if (s.y(slot) < s.getArena().getHeight() - s.height(slot))
+            s.setY(slot, s.y(slot) + 1);
     }
 
     /**
      * Moves the object up, if possible.
      */
     public void moveUp() {
-        if (y > 0)
-            y--;
+        EntityStore<?> s = store();
+        if (s.y(slot) > 0)
+            s.setY(slot, s.y(slot) - 1);
     }
 
     /**
-     * Checks if this object is colliding with another game object based on
-     * coordinates.
+     * Checks if this object's bounding box overlaps another game object's.
      */
     public boolean isCollidingWith(GameObject other) {
-        return this.x == other.x && this.y == other.y;
+        return SweptAabb.overlaps(getX(), getY(), getWidth(), getHeight(),
+                other.getX(), other.getY(), other.getWidth(), other.getHeight());
+    }
+
+    /**
+     * Checks if this object hit another game object while moving over the last
+     * tick, i.e. from its current position minus its velocity to its current
+     * position. The other object is treated as stationary.
+     *
+     * @return The time of impact as a fraction of the tick, or {@link SweptAabb#NO_HIT}.
+     */
+    public double sweptCollisionTime(GameObject other) {
+        EntityStore<?> s = store();
+        int vx = s.vx(slot);
+        int vy = s.vy(slot);
+        return SweptAabb.timeOfImpact(s.x(slot) - vx, s.y(slot) - vy, s.width(slot), s.height(slot), vx, vy,
+                other.getX(), other.getY(), other.getWidth(), other.getHeight());
+    }
+
+    /**
+     * Checks if the object currently has its state in a store. Objects removed
+     * from the game are detached until they are added again.
+     */
+    public boolean isAttached() {
+        return store != null;
+    }
+
+    /**
+     * Gets the slot holding this object's state in its store.
+     */
+    public int getSlot() {
+        return slot;
     }
 
     // Getters and Setters
+    public Arena getArena() {
+        return store().getArena();
+    }
+
     public int getX() {
-        return x;
+        return store().x(slot);
     }
 
     public void setX(int x) {
-        this.x = x;
+        store().setX(slot, x);
     }
 
     public int getY() {
-        return y;
+        return store().y(slot);
     }
 
     public void setY(int y) {
-        this.y = y;
+        store().setY(slot, y);
+    }
+
+    public int getVelocityX() {
+        return store().vx(slot);
+    }
+
+    public int getVelocityY() {
+        return store().vy(slot);
+    }
+
+    /**
+     * Sets how many cells the object moves per tick along each axis.
+     */
+    public void setVelocity(int vx, int vy) {
+        store().setVelocity(slot, vx, vy);
     }
 
     public int getWidth() {
-        return width;
+        return store().width(slot);
     }
 
     public void setWidth(int width) {
-        this.width = width;
+        store().setWidth(slot, width);
     }
 
     public int getHeight() {
-        return height;
+        return store().height(slot);
     }
 
     public void setHeight(int height) {
-        this.height = height;
+        store().setHeight(slot, height);
     }
 
     public int getHealth() {
-        return health;
+        return store().health(slot);
     }
 
     public void setHealth(int health) {
-        this.health = health;
+        store().setHealth(slot, health);
     }
 
     /**
      * Sets the position of the object.
      */
     public void setPosition(int x, int y) {
-        this.x = x;
-        this.y = y;
+        EntityStore<?> s = store();
+        s.setX(slot, x);
+        s.setY(slot, y);
     }
 
     /**
      * Handles damage or impact on the object.
      */
     public void takeDamage(int damage) {
-        this.health -= damage;
-        if (this.health <= 0) {
+        EntityStore<?> s = store();
+        s.setHealth(slot, s.health(slot) - damage);
+        if (s.health(slot) <= 0) {
             onDestruction();
         }
     }
 
     /**
-     * Handles the object's destruction (if needed).
+     * Checks if the object has run out of health.
+     */
+    public boolean isDestroyed() {
+        return getHealth() <= 0;
+    }
+
+    /**
+     * Called once damage takes the object's health to 0 or below. Does nothing by
+     * default; the game reports destruction through its event bus, so subclasses
+     * only override this for effects of their own.
      */
     protected void onDestruction() {
-        // TODO: Implement this method in subclasses to handle destruction
+    }
+
+    private EntityStore<?> store() {
+        if (store == null) {
+            throw new IllegalStateException(getClass().getSimpleName() + " has been removed from the game");
+        }
+        return store;
     }
 }
@@ -0,0 +1,81 @@
+/*
+Responsibilities:
+
+- Name the commands a player can give, so input is passed around as a small enum instead of as strings.
+- Map each command to the Player.ACTION_* flag it sets for a tick, and parse commands from script names and keys.
+
+Data:
+
+- The name each command is written as in input scripts, its key on the keyboard and its action flag.
+ */
+
+package main.java.model;
+
+public enum InputCommand {
+    MOVE_LEFT("moveLeft", 'a', Player.ACTION_LEFT),
+    MOVE_RIGHT("moveRight", 'd', Player.ACTION_RIGHT),
+    SHOOT("shoot", ' ', Player.ACTION_FIRE);
+
+    private static final InputCommand[] VALUES = values();
+
+    private final String name;
+    private final char key;
+    private final int action;
+
+    InputCommand(String name, char key, int action) {
+        this.name = name;
+        this.key = key;
+        this.action = action;
+    }
+
+    /**
+     * Finds the command written as a name in an input script.
+     *
+     * @param name The name, e.g. "moveLeft".
+     * @return The command, or null if no command has that name.
+     */
+    public static InputCommand fromName(String name) {
+        for (InputCommand command : VALUES) {
+            if (command.name.equals(name)) {
+                return command;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the command bound to a key.
+     *
+     * @return The command, or null if the key is not bound.
+     */
+    public static InputCommand fromKey(char key) {
+        for (InputCommand command : VALUES) {
+            if (command.key == Character.toLowerCase(key)) {
+                return command;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets a command by its ordinal, e.g. as stored in an input queue.
+     */
+    public static InputCommand fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public char getKey() {
+        return key;
+    }
+
+    /**
+     * Gets the Player.ACTION_* flag this command sets.
+     */
+    public int getAction() {
+        return action;
+    }
+}
@@ -2,32 +2,39 @@
 Responsibilities:
 
 - Represent an invader character within the game.
-- Handle the movement of the invader.
+- Move with the rest of its EntityStore, by the velocity stored in the store.
 
 Data:
 
-- Inherits properties (position, size, health) from the parent class GameObject.
+- Inherits properties (position, velocity, size, health) from the parent class GameObject, stored in the invader EntityStore.
 - The specific type of the invader, which may influence its behaviour (though not explicitly implemented in the provided code).
  */
 
 package main.java.model;
 
+import main.java.render.FrameBuffer;
+
 public class Invader extends GameObject {
+    /** The character the invader is drawn with. */
+    public static final char GLYPH = 'M';
 
     public Invader(int x, int y, int width, int height, int health) {
         super(x, y, width, height, health);
+        setVelocity(0, 1);
+    }
+
+    public Invader(EntityStore<Invader> store, int x, int y, int width, int height, int health) {
+        super(store, x, y, width, height, health);
+        setVelocity(0, 1);
     }
 
     @Override
-    public void draw() {
-        // TODO: Add drawing logic for the invader here
+    public EntityType getType() {
+        return EntityType.INVADER;
     }
 
-    /**
-     * Moves the invader downward.
-     */
-    public void move() {
-        moveDown();
-        System.out.println("Invader moved down to (" + getX() + ", " + getY() + ")");
+    @Override
+    public void draw(FrameBuffer frame) {
+        drawAs(frame, GLYPH);
     }
 }
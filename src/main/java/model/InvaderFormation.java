@@ -0,0 +1,268 @@
+/*
+Responsibilities:
+
+- Hold a formation of invaders as a bitboard: one bit per arena cell, each arena row a run of 64-bit words, for
+  levels with far more invaders than it is practical to keep as objects.
+- Move the whole formation down a row by rotating which word row is the top (no bits are copied), so a move
+  costs the same for a hundred invaders as for a million.
+- Resolve hits and formation-wide checks (a row reached, a box occupied, the formation empty) with word-wide
+  mask tests and clears instead of per-invader loops.
+
+Data:
+
+- The arena size, and the number of words per row.
+- The bits of every row, stored as a ring of rows: the top arena row starts at the base row.
+- The number of invaders left in the formation.
+ */
+
+package main.java.model;
+
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+public class InvaderFormation {
+    private final int width;
+    private final int height;
+    private final int wordsPerRow;
+    private final long[] bits;
+    private int base;
+    private int population;
+
+    public InvaderFormation(Arena arena) {
+        this.width = arena.getWidth();
+        this.height = arena.getHeight();
+        this.wordsPerRow = (width + 63) >>> 6;
+        this.bits = new long[wordsPerRow * height];
+    }
+
+    /**
+     * Removes every invader.
+     */
+    public void clear() {
+        Arrays.fill(bits, 0);
+        base = 0;
+        population = 0;
+    }
+
+    /**
+     * Adds invaders row by row from the top left corner, one per cell, laid out
+     * like {@link main.java.factory.WavePattern#BLOCK}. Cells already occupied are
+     * filled again, so call on an empty formation.
+     *
+     * @param count The number of invaders to add; at most one per arena cell is placed.
+     * @return The number of invaders placed.
+     */
+    public int fill(int count) {
+        int placed = (int) Math.min(count, (long) width * height);
+        int fullRows = placed / width;
+        for (int y = 0; y < fullRows; y++) {
+            setRange(y, 0, width);
+        }
+        if (placed % width != 0) {
+            setRange(fullRows, 0, placed % width);
+        }
+        population += placed;
+        return placed;
+    }
+
+    /**
+     * Adds one invader, e.g. a scripted spawn.
+     *
+     * @return True if it was placed: the cell is in the arena and was empty.
+     */
+    public boolean add(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            return false;
+        }
+        int word = rowStart(y) + (x >>> 6);
+        long bit = 1L << x;
+        if ((bits[word] & bit) != 0) {
+            return false;
+        }
+        bits[word] |= bit;
+        population++;
+        return true;
+    }
+
+    /**
+     * Moves every invader down one row. Invaders on the bottom row are dropped
+     * from the formation, since there is no row below it.
+     *
+     * @return The number of invaders dropped.
+     */
+    public int moveDown() {
+        base = base == 0 ? height - 1 : base - 1;
+        // The bottom row has rotated round to the top; whatever was on it leaves the formation
+        int dropped = clearRow(base * wordsPerRow);
+        population -= dropped;
+        return dropped;
+    }
+
+    /**
+     * Removes every invader on a row, e.g. those that reached the bottom.
+     *
+     * @return The number of invaders removed.
+     */
+    public int removeRow(int y) {
+        int removed = clearRow(rowStart(y));
+        population -= removed;
+        return removed;
+    }
+
+    /**
+     * Checks if an invader occupies a cell.
+     */
+    public boolean contains(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            return false;
+        }
+        return (bits[rowStart(y) + (x >>> 6)] & (1L << x)) != 0;
+    }
+
+    /**
+     * Finds the lowest invader in a column, e.g. the one that fires down it.
+     *
+     * @return The invader's row, or -1 if the column is empty.
+     */
+    public int lowestInColumn(int x) {
+        if (x < 0 || x >= width) {
+            return -1;
+        }
+        int word = x >>> 6;
+        long mask = 1L << x;
+        for (int y = height - 1; y >= 0; y--) {
+            if ((bits[rowStart(y) + word] & mask) != 0) {
+                return y;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Checks if any invader occupies a box of cells. Parts of the box outside the
+     * arena are ignored.
+     */
+    public boolean anyInBox(int x, int y, int boxWidth, int boxHeight) {
+        int minX = Math.max(x, 0);
+        int maxX = Math.min(x + boxWidth, width) - 1;
+        if (minX > maxX) {
+            return false;
+        }
+        for (int row = Math.max(y, 0); row < Math.min(y + boxHeight, height); row++) {
+            int start = rowStart(row);
+            for (int word = minX >>> 6; word <= maxX >>> 6; word++) {
+                if ((bits[start + word] & mask(word, minX, maxX)) != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes the leftmost invader in a span of a row, e.g. the one a bullet hit.
+     *
+     * @param y         The row.
+     * @param x         The first column of the span.
+     * @param spanWidth The number of columns in the span.
+     * @return The column of the removed invader, or -1 if the span was empty.
+     */
+    public int removeFirstInRow(int y, int x, int spanWidth) {
+        int minX = Math.max(x, 0);
+        int maxX = Math.min(x + spanWidth, width) - 1;
+        if (y < 0 || y >= height || minX > maxX) {
+            return -1;
+        }
+        int start = rowStart(y);
+        for (int word = minX >>> 6; word <= maxX >>> 6; word++) {
+            long hits = bits[start + word] & mask(word, minX, maxX);
+            if (hits != 0) {
+                int bit = Long.numberOfTrailingZeros(hits);
+                bits[start + word] &= ~(1L << bit);
+                population--;
+                return (word << 6) + bit;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets a word of a row: bit i holds the cell at column {@code word * 64 + i}.
+     */
+    public long word(int y, int word) {
+        return bits[rowStart(y) + word];
+    }
+
+    /**
+     * Writes every row, top to bottom, to a buffer.
+     *
+     * @param out The buffer to write to, with room for {@code getHeight() * getWordsPerRow()} longs.
+     */
+    public void writeRows(LongBuffer out) {
+        for (int y = 0; y < height; y++) {
+            out.put(bits, rowStart(y), wordsPerRow);
+        }
+    }
+
+    /**
+     * Replaces the formation with rows written by {@link #writeRows(LongBuffer)}.
+     */
+    public void readRows(LongBuffer in) {
+        base = 0;
+        in.get(bits, 0, bits.length);
+        population = 0;
+        for (long word : bits) {
+            population += Long.bitCount(word);
+        }
+    }
+
+    public int size() {
+        return population;
+    }
+
+    public boolean isEmpty() {
+        return population == 0;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getWordsPerRow() {
+        return wordsPerRow;
+    }
+
+    private int rowStart(int y) {
+        int row = base + y;
+        return (row >= height ? row - height : row) * wordsPerRow;
+    }
+
+    private int clearRow(int start) {
+        int removed = 0;
+        for (int word = start; word < start + wordsPerRow; word++) {
+            removed += Long.bitCount(bits[word]);
+            bits[word] = 0;
+        }
+        return removed;
+    }
+
+    private void setRange(int y, int fromX, int toX) {
+        int start = rowStart(y);
+        for (int word = fromX >>> 6; word <= (toX - 1) >>> 6; word++) {
+            bits[start + word] |= mask(word, fromX, toX - 1);
+        }
+    }
+
+    /**
+     * Gets the bits of a word that fall within the columns from minX to maxX inclusive.
+     */
+    private static long mask(int word, int minX, int maxX) {
+        int first = Math.max(minX - (word << 6), 0);
+        int last = Math.min(maxX - (word << 6), 63);
+        return (-1L << first) & (-1L >>> (63 - last));
+    }
+}
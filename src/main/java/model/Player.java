@@ -2,17 +2,27 @@
 Responsibilities:
 
 - Represent the player's spaceship within the game.
-- Handle player input, including movement and shooting.
+- Name the actions the player can take in a tick (moving left or right and firing), as flags the game applies.
 
 Data:
 
-- Inherits properties (position, size, health) from the parent class GameObject.
+- Inherits properties (position, size, health) from the parent class GameObject, stored in the player EntityStore.
 - Player's score, which tracks the player's in-game achievements.
  */
 
 package main.java.model;
 
+import main.java.render.FrameBuffer;
+
 public class Player extends GameObject {
+    /** The character the player is drawn with. */
+    public static final char GLYPH = 'A';
+
+    // Action flags for one tick, combined with bitwise or
+    public static final int NO_ACTION = 0;
+    public static final int ACTION_LEFT = 1;
+    public static final int ACTION_RIGHT = 2;
+    public static final int ACTION_FIRE = 4;
 
     private int score;
 
@@ -21,34 +31,19 @@ public class Player extends GameObject {
         this.score = 0;
     }
 
+    public Player(EntityStore<Player> store, int x, int y, int width, int height, int health) {
+        super(store, x, y, width, height, health);
+        this.score = 0;
+    }
+
     @Override
-    public void draw() {
-        // TODO: Add drawing logic
+    public EntityType getType() {
+        return EntityType.PLAYER;
     }
 
-    /**
-     * Handles player input for movement and shooting.
-     * 
-     * @param input The input command, e.g., "moveLeft", "moveRight", "shoot".
-     */
-    public void handleInput(String input) {
-        switch (input) {
-            case "moveLeft":
-                moveLeft();
-                System.out.println("Player moved left to (" + getX() + ", " + getY() + ")");
-                break;
-            case "moveRight":
-                moveRight();
-                System.out.println("Player moved right to (" + getX() + ", " + getY() + ")");
-                break;
-            case "shoot":
-                // TODO: Add logic for shooting here
-                System.out.println("Player shoots a bullet");
-                break;
-            default:
-                System.out.println("Unknown command");
-                break;
-        }
+    @Override
+    public void draw(FrameBuffer frame) {
+        drawAs(frame, GLYPH);
     }
 
     /**
@@ -68,4 +63,13 @@ public class Player extends GameObject {
     public int getScore() {
         return score;
     }
+
+    /**
+     * Sets the player's score, e.g. when restoring a saved game.
+     *
+     * @param score The new score.
+     */
+    public void setScore(int score) {
+        this.score = score;
+    }
 }
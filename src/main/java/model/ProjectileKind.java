@@ -0,0 +1,70 @@
+/*
+Responsibilities:
+
+- Describe each kind of projectile invaders fire: the cells it moves per tick along each axis, the damage it does
+  to a player it hits, and the glyph it is drawn with.
+- Unlock kinds level by level: level n fires the first n kinds.
+
+Data:
+
+- Velocity (vx, vy) in cells per tick, damage and glyph of each kind.
+ */
+
+package main.java.model;
+
+public enum ProjectileKind {
+    /** A plain shot straight down. */
+    SHOT(0, 1, 10, '!'),
+    /** A fast, light shot straight down. */
+    LASER(0, 3, 5, ':'),
+    /** A heavy bomb straight down. */
+    BOMB(0, 1, 34, '*'),
+    /** A shot angled down to the left. */
+    ANGLED_LEFT(-1, 1, 10, '/'),
+    /** A shot angled down to the right. */
+    ANGLED_RIGHT(1, 1, 10, '\\');
+
+    private static final ProjectileKind[] VALUES = values();
+
+    private final int vx;
+    private final int vy;
+    private final int damage;
+    private final char glyph;
+
+    ProjectileKind(int vx, int vy, int damage, char glyph) {
+        this.vx = vx;
+        this.vy = vy;
+        this.damage = damage;
+        this.glyph = glyph;
+    }
+
+    /**
+     * Gets a kind by its ordinal, without copying the values array.
+     */
+    public static ProjectileKind fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * Gets the number of kinds fired on a level.
+     */
+    public static int unlockedAt(int level) {
+        return Math.max(1, Math.min(level, VALUES.length));
+    }
+
+    public int getVelocityX() {
+        return vx;
+    }
+
+    public int getVelocityY() {
+        return vy;
+    }
+
+    public int getDamage() {
+        return damage;
+    }
+
+    public char getGlyph() {
+        return glyph;
+    }
+}
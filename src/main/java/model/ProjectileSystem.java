@@ -0,0 +1,286 @@
+/*
+Responsibilities:
+
+- Hold every live projectile fired by invaders in packed primitive columns, with no object per projectile, so
+  tens of thousands can be in flight at once.
+- Update all of them in one tight loop per tick: move each by its velocity, sweep its path against the players,
+  and compact the survivors in place, keeping their order so games stay deterministic.
+- Report the players hit during the update, for the game to apply the damage; projectiles that hit a player or
+  leave the arena are removed.
+
+Data:
+
+- The arena that bounds the projectiles.
+- Columns for position (x, y), velocity (vx, vy), damage and kind, indexed by slot, and the number of live slots.
+- The boxes of the live players, copied at the start of each update, and the band of rows they cover.
+- The hits found by the last update: player slot, position and damage.
+ */
+
+package main.java.model;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+import main.java.utility.SweptAabb;
+
+public class ProjectileSystem {
+    /** The number of int columns written per projectile by {@link #writeColumns(IntBuffer)}. */
+    public static final int COLUMNS = 3;
+
+    private final Arena arena;
+    private int[] x;
+    private int[] y;
+    private int[] vx;
+    private int[] vy;
+    private int[] damage;
+    private byte[] kind;
+    private int size;
+
+    private int[] playerBoxes = new int[4 * 4];
+    private int[] playerSlots = new int[4];
+    private int playersTop;
+    private int playersBottom;
+
+    private int[] hitPlayers = new int[16];
+    private int[] hitX = new int[16];
+    private int[] hitY = new int[16];
+    private int[] hitDamage = new int[16];
+    private int hitCount;
+
+    public ProjectileSystem(Arena arena, int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 1);
+        this.arena = arena;
+        this.x = new int[capacity];
+        this.y = new int[capacity];
+        this.vx = new int[capacity];
+        this.vy = new int[capacity];
+        this.damage = new int[capacity];
+        this.kind = new byte[capacity];
+    }
+
+    /**
+     * Fires a projectile from a cell.
+     *
+     * @return False if the cell is outside the arena, in which case nothing is fired.
+     */
+    public boolean spawn(int fromX, int fromY, ProjectileKind projectileKind) {
+        if (fromX < 0 || fromX >= arena.getWidth() || fromY < 0 || fromY >= arena.getHeight()) {
+            return false;
+        }
+        if (size == x.length) {
+            grow();
+        }
+        set(size++, fromX, fromY, projectileKind);
+        return true;
+    }
+
+    /**
+     * Moves every projectile by its velocity and finds the players they hit.
+     * Projectiles that hit a live player, or leave the arena, are removed; the
+     * rest keep their order.
+     *
+     * @param players The players to check the projectiles against.
+     * @return The number of hits, read with {@link #hitPlayer(int)} and friends.
+     */
+    public int update(EntityStore<Player> players) {
+        int playerCount = capturePlayers(players);
+        int width = arena.getWidth();
+        int height = arena.getHeight();
+        hitCount = 0;
+        int live = 0;
+        for (int slot = 0; slot < size; slot++) {
+            int fromX = x[slot];
+            int fromY = y[slot];
+            int dx = vx[slot];
+            int dy = vy[slot];
+            int toX = fromX + dx;
+            int toY = fromY + dy;
+            // Most projectiles are far above the players' rows, so only paths crossing those rows are checked per box
+            int hit = Math.max(fromY, toY) >= playersTop && Math.min(fromY, toY) < playersBottom
+                    ? firstPlayerHit(fromX, fromY, dx, dy, toX, toY, playerCount) : -1;
+            if (hit >= 0) {
+                addHit(playerSlots[hit], toX, toY, damage[slot]);
+                continue;
+            }
+            if (toX < 0 || toX >= width || toY < 0 || toY >= height) {
+                continue;
+            }
+            x[live] = toX;
+            y[live] = toY;
+            vx[live] = dx;
+            vy[live] = dy;
+            damage[live] = damage[slot];
+            kind[live] = kind[slot];
+            live++;
+        }
+        size = live;
+        return hitCount;
+    }
+
+    /**
+     * Removes every projectile, e.g. when a new level starts.
+     */
+    public void clear() {
+        size = 0;
+        hitCount = 0;
+    }
+
+    /**
+     * Gets the slot of the player hit by the i-th hit of the last update.
+     */
+    public int hitPlayer(int i) {
+        return hitPlayers[i];
+    }
+
+    public int hitX(int i) {
+        return hitX[i];
+    }
+
+    public int hitY(int i) {
+        return hitY[i];
+    }
+
+    public int hitDamage(int i) {
+        return hitDamage[i];
+    }
+
+    /**
+     * Writes the live projectiles to a buffer, one whole column after another
+     * (x, y, kind).
+     *
+     * @param out The buffer to write to, with room for {@code size() * COLUMNS} ints.
+     */
+    public void writeColumns(IntBuffer out) {
+        out.put(x, 0, size);
+        out.put(y, 0, size);
+        for (int slot = 0; slot < size; slot++) {
+            out.put(kind[slot]);
+        }
+    }
+
+    /**
+     * Replaces the projectiles with ones written by {@link #writeColumns(IntBuffer)}.
+     *
+     * @param in    The buffer to read from.
+     * @param count The number of projectiles written.
+     */
+    public void readColumns(IntBuffer in, int count) {
+        while (x.length < count) {
+            grow();
+        }
+        in.get(x, 0, count);
+        in.get(y, 0, count);
+        for (int slot = 0; slot < count; slot++) {
+            set(slot, x[slot], y[slot], ProjectileKind.fromOrdinal(in.get()));
+        }
+        size = count;
+        hitCount = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int x(int slot) {
+        return x[slot];
+    }
+
+    public int y(int slot) {
+        return y[slot];
+    }
+
+    public int vx(int slot) {
+        return vx[slot];
+    }
+
+    public int vy(int slot) {
+        return vy[slot];
+    }
+
+    public ProjectileKind kind(int slot) {
+        return ProjectileKind.fromOrdinal(kind[slot]);
+    }
+
+    private void set(int slot, int atX, int atY, ProjectileKind projectileKind) {
+        x[slot] = atX;
+        y[slot] = atY;
+        vx[slot] = projectileKind.getVelocityX();
+        vy[slot] = projectileKind.getVelocityY();
+        damage[slot] = projectileKind.getDamage();
+        kind[slot] = (byte) projectileKind.ordinal();
+    }
+
+    private int capturePlayers(EntityStore<Player> players) {
+        if (playerSlots.length < players.size()) {
+            playerSlots = new int[players.size()];
+            playerBoxes = new int[players.size() * 4];
+        }
+        int count = 0;
+        playersTop = Integer.MAX_VALUE;
+        playersBottom = Integer.MIN_VALUE;
+        for (int slot = 0; slot < players.size(); slot++) {
+            if (players.health(slot) <= 0) {
+                continue;
+            }
+            playerSlots[count] = slot;
+            playerBoxes[count * 4] = players.x(slot);
+            playerBoxes[count * 4 + 1] = players.y(slot);
+            playerBoxes[count * 4 + 2] = players.width(slot);
+            playerBoxes[count * 4 + 3] = players.height(slot);
+            playersTop = Math.min(playersTop, players.y(slot));
+            playersBottom = Math.max(playersBottom, players.y(slot) + players.height(slot));
+            count++;
+        }
+        return count;
+    }
+
+    private int firstPlayerHit(int fromX, int fromY, int dx, int dy, int toX, int toY, int playerCount) {
+        // Reject on the box around the whole path first; only a path that reaches a player is swept exactly
+        int minX = Math.min(fromX, toX);
+        int maxX = Math.max(fromX, toX);
+        int minY = Math.min(fromY, toY);
+        int maxY = Math.max(fromY, toY);
+        for (int p = 0, i = 0; p < playerCount; p++, i += 4) {
+            int px = playerBoxes[i];
+            int py = playerBoxes[i + 1];
+            int pw = playerBoxes[i + 2];
+            int ph = playerBoxes[i + 3];
+            if (maxX < px || minX >= px + pw || maxY < py || minY >= py + ph) {
+                continue;
+            }
+            if (SweptAabb.timeOfImpact(fromX, fromY, 1, 1, dx, dy, px, py, pw, ph) != SweptAabb.NO_HIT) {
+                return p;
+            }
+        }
+        return -1;
+    }
+
+    private void addHit(int player, int atX, int atY, int hitDamageValue) {
+        if (hitCount == hitPlayers.length) {
+            int capacity = hitCount * 2;
+            hitPlayers = Arrays.copyOf(hitPlayers, capacity);
+            hitX = Arrays.copyOf(hitX, capacity);
+            hitY = Arrays.copyOf(hitY, capacity);
+            hitDamage = Arrays.copyOf(hitDamage, capacity);
+        }
+        hitPlayers[hitCount] = player;
+        hitX[hitCount] = atX;
+        hitY[hitCount] = atY;
+        hitDamage[hitCount] = hitDamageValue;
+        hitCount++;
+    }
+
+    private void grow() {
+        int capacity = x.length * 2;
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        vx = Arrays.copyOf(vx, capacity);
+        vy = Arrays.copyOf(vy, capacity);
+        damage = Arrays.copyOf(damage, capacity);
+        kind = Arrays.copyOf(kind, capacity);
+    }
+}
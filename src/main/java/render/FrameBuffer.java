@@ -0,0 +1,75 @@
+/*
+Responsibilities:
+
+- Hold one frame of the arena as a grid of characters, one per cell, so game objects can be drawn into it and
+  two frames can be compared cell by cell.
+- Clip drawing to the frame, so objects partly (or wholly) outside the visible area are safe to draw.
+
+Data:
+
+- The width and height of the frame in cells.
+- The characters of every cell, row by row, in one reusable array.
+ */
+
+package main.java.render;
+
+import java.util.Arrays;
+
+public class FrameBuffer {
+    /** The character of a cell with nothing in it. */
+    public static final char EMPTY = ' ';
+
+    private final int width;
+    private final int height;
+    private final char[] cells;
+
+    public FrameBuffer(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.cells = new char[width * height];
+        clear();
+    }
+
+    /**
+     * Empties every cell.
+     */
+    public void clear() {
+        Arrays.fill(cells, EMPTY);
+    }
+
+    /**
+     * Fills a box of cells with a character. The parts of the box outside the
+     * frame are ignored.
+     */
+    public void fill(int x, int y, int boxWidth, int boxHeight, char glyph) {
+        int minX = Math.max(x, 0);
+        int maxX = Math.min(x + boxWidth, width);
+        int minY = Math.max(y, 0);
+        int maxY = Math.min(y + boxHeight, height);
+        if (minX >= maxX) {
+            return;
+        }
+        for (int row = minY; row < maxY; row++) {
+            Arrays.fill(cells, row * width + minX, row * width + maxX, glyph);
+        }
+    }
+
+    public char get(int x, int y) {
+        return cells[y * width + x];
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the cells row by row, for renderers comparing whole frames.
+     */
+    char[] cells() {
+        return cells;
+    }
+}
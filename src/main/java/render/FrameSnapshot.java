@@ -0,0 +1,237 @@
+/*
+Responsibilities:
+
+- Capture what is needed to draw one frame of a game (the boxes of every invader and bullet, the invaders'
+  projectiles, the player, and the tick, level and score) on the game thread, so a renderer thread can draw it
+  while the game moves on.
+- Draw the captured frame into a FrameBuffer, with the same glyphs as the objects' own draw methods.
+- In a paced game, draw moving objects between where they were before the captured tick and where it left them,
+  by how far the frame time is into the tick, so frames drawn faster than the tick rate still move smoothly.
+
+Data:
+
+- The size of the visible area.
+- Packed (x, y, width, height, vx, vy) boxes of the invaders and bullets, in arrays that grow as needed and are
+  reused.
+- In formation mode, the words of the formation rows within the visible area, and how many rows it moves a tick.
+- Packed (x, y, vx, vy, glyph) cells of the invaders' projectiles.
+- The player's box, and the tick, level and score at capture time.
+- The time the captured tick was scheduled for and the tick interval, or no interval if the game is not paced.
+- Whether the snapshot holds a capture the render thread has not taken yet.
+ */
+
+package main.java.render;
+
+import java.util.Arrays;
+
+import main.java.controller.GameController;
+import main.java.controller.TickScheduler;
+import main.java.model.Bullet;
+import main.java.model.EntityStore;
+import main.java.model.Invader;
+import main.java.model.InvaderFormation;
+import main.java.model.Player;
+import main.java.model.ProjectileSystem;
+
+public class FrameSnapshot {
+    private static final int BOX = 6;
+    private static final int CELL = 5;
+
+    private final int width;
+    private final int height;
+    private int[] invaderBoxes = new int[64 * BOX];
+    private int invaderCount;
+    private int[] bulletBoxes = new int[64 * BOX];
+    private int bulletCount;
+    private int[] projectileCells = new int[64 * CELL];
+    private int projectileCount;
+    private long[] formationRows = new long[0];
+    private int formationRowCount;
+    private int formationWords;
+    private int formationSpeed;
+    private final int[] playerBox = new int[4];
+    private long tick;
+    private int level;
+    private int score;
+    private long tickNanos;
+    private long intervalNanos;
+    private boolean fresh;
+
+    /**
+     * @param width  The number of arena columns that will be drawn.
+     * @param height The number of arena rows that will be drawn.
+     */
+    public FrameSnapshot(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Copies the state needed to draw the game. Called on the game thread, between ticks.
+     */
+    public void capture(GameController game) {
+        EntityStore<Invader> invaders = game.getFactory().getInvaders();
+        EntityStore<Bullet> bullets = game.getFactory().getBullets();
+        invaderBoxes = captureBoxes(invaders, invaderBoxes);
+        invaderCount = invaders.size();
+        bulletBoxes = captureBoxes(bullets, bulletBoxes);
+        bulletCount = bullets.size();
+        captureFormation(game.getFormation());
+        formationSpeed = game.getSettings().getInvaderSpeed();
+        captureProjectiles(game.getProjectiles());
+
+        Player player = game.getPlayer();
+        playerBox[0] = player.getX();
+        playerBox[1] = player.getY();
+        playerBox[2] = player.getWidth();
+        playerBox[3] = player.getHeight();
+        tick = game.getTickCount();
+        level = game.getCurrentLevel();
+        score = player.getScore();
+
+        TickScheduler scheduler = game.getScheduler();
+        tickNanos = scheduler != null ? scheduler.getScheduledNanos() : 0;
+        intervalNanos = scheduler != null ? scheduler.getIntervalNanos() : 0;
+    }
+
+    /**
+     * Draws the captured frame into an empty frame buffer. Bullets and projectiles
+     * are drawn over invaders, and the player over all of them.
+     *
+     * @param nowNanos The time the frame is drawn for, in System.nanoTime() terms; moving
+     *                 objects are placed by how far it is into the captured tick.
+     */
+    public void drawTo(FrameBuffer frame, long nowNanos) {
+        float lag = lag(nowNanos);
+        drawBoxes(frame, invaderBoxes, invaderCount, Invader.GLYPH, lag);
+        drawFormation(frame, Math.round(formationSpeed * lag));
+        drawBoxes(frame, bulletBoxes, bulletCount, Bullet.GLYPH, lag);
+        for (int i = 0; i < projectileCount * CELL; i += CELL) {
+            frame.fill(projectileCells[i] - Math.round(projectileCells[i + 2] * lag),
+                    projectileCells[i + 1] - Math.round(projectileCells[i + 3] * lag), 1, 1,
+                    (char) projectileCells[i + 4]);
+        }
+        frame.fill(playerBox[0], playerBox[1], playerBox[2], playerBox[3], Player.GLYPH);
+    }
+
+    /**
+     * Checks if the frame looks different depending on when it is drawn, i.e. the
+     * game is paced and objects are part way through the captured tick's move.
+     */
+    public boolean isMoving(long nowNanos) {
+        return lag(nowNanos) > 0;
+    }
+
+    /**
+     * Makes the captured state draw as it is, whatever the time, e.g. for the last
+     * frame of a game.
+     */
+    public void stopMoving() {
+        intervalNanos = 0;
+    }
+
+    public boolean isFresh() {
+        return fresh;
+    }
+
+    public void setFresh(boolean fresh) {
+        this.fresh = fresh;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Gets how much of the captured tick's move is still to be shown at a time: 1
+     * when the tick has just been scheduled, down to 0 one interval later.
+     */
+    private float lag(long nowNanos) {
+        if (intervalNanos <= 0) {
+            return 0;
+        }
+        long sinceTick = nowNanos - tickNanos;
+        if (sinceTick >= intervalNanos) {
+            return 0;
+        }
+        return sinceTick <= 0 ? 1 : 1 - (float) sinceTick / intervalNanos;
+    }
+
+    private void captureFormation(InvaderFormation formation) {
+        if (formation == null) {
+            formationRowCount = 0;
+            return;
+        }
+        // Only the rows and words that can be seen are copied, however large the formation is
+        formationRowCount = Math.min(height, formation.getHeight());
+        formationWords = Math.min((width + 63) >>> 6, formation.getWordsPerRow());
+        if (formationRows.length < formationRowCount * formationWords) {
+            formationRows = new long[formationRowCount * formationWords];
+        }
+        for (int y = 0, i = 0; y < formationRowCount; y++) {
+            for (int word = 0; word < formationWords; word++, i++) {
+                formationRows[i] = formation.word(y, word);
+            }
+        }
+    }
+
+    private void drawFormation(FrameBuffer frame, int rowsBack) {
+        for (int y = 0, i = 0; y < formationRowCount; y++) {
+            for (int word = 0; word < formationWords; word++, i++) {
+                long bits = formationRows[i];
+                while (bits != 0) {
+                    int x = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    frame.fill(x, y - rowsBack, 1, 1, Invader.GLYPH);
+                    bits &= bits - 1;
+                }
+            }
+        }
+    }
+
+    private void captureProjectiles(ProjectileSystem projectiles) {
+        projectileCount = projectiles.size();
+        if (projectileCells.length < projectileCount * CELL) {
+            projectileCells = Arrays.copyOf(projectileCells,
+                    Math.max(projectileCount * CELL, projectileCells.length * 2));
+        }
+        for (int slot = 0, i = 0; slot < projectileCount; slot++, i += CELL) {
+            projectileCells[i] = projectiles.x(slot);
+            projectileCells[i + 1] = projectiles.y(slot);
+            projectileCells[i + 2] = projectiles.vx(slot);
+            projectileCells[i + 3] = projectiles.vy(slot);
+            projectileCells[i + 4] = projectiles.kind(slot).getGlyph();
+        }
+    }
+
+    private static int[] captureBoxes(EntityStore<?> store, int[] boxes) {
+        int size = store.size();
+        if (boxes.length < size * BOX) {
+            boxes = Arrays.copyOf(boxes, Math.max(size * BOX, boxes.length * 2));
+        }
+        for (int slot = 0, i = 0; slot < size; slot++, i += BOX) {
+            boxes[i] = store.x(slot);
+            boxes[i + 1] = store.y(slot);
+            boxes[i + 2] = store.width(slot);
+            boxes[i + 3] = store.height(slot);
+            boxes[i + 4] = store.vx(slot);
+            boxes[i + 5] = store.vy(slot);
+        }
+        return boxes;
+    }
+
+    private static void drawBoxes(FrameBuffer frame, int[] boxes, int count, char glyph, float lag) {
+        for (int i = 0; i < count * BOX; i += BOX) {
+            // Step back along the velocity by the part of the move not yet shown
+            frame.fill(boxes[i] - Math.round(boxes[i + 4] * lag), boxes[i + 1] - Math.round(boxes[i + 5] * lag),
+                    boxes[i + 2], boxes[i + 3], glyph);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+Responsibilities:
+
+- Draw a running game live in a terminal, from a background thread so the game thread only pays for copying a
+  snapshot of the entities at most once per frame.
+- Hand snapshots from the game thread to the render thread without blocking either, through a triple buffer: the
+  game thread always has a snapshot to capture into, and a newer snapshot replaces one not yet drawn.
+- Draw frames at the renderer's own rate rather than once per tick. In a paced game, frames between ticks show
+  moving objects interpolated between the last two ticks, so the frame rate can be higher than the tick rate.
+- Keep the last frame shown on screen and the frame being drawn in two frame buffers, and write only the cells
+  that changed between them, as ANSI cursor moves, instead of repainting the whole screen.
+
+Data:
+
+- The output terminal, the size of the visible area and the minimum time between frames.
+- Two frame buffers: the frame on screen and the frame being drawn.
+- Three snapshots: one being captured by the game thread, one being drawn by the render thread, and one in the
+  exchange between them, marked when it holds a capture the render thread has not taken yet.
+- The output of the current frame, built up in a reusable buffer and written in one go.
+- The number of frames drawn.
+ */
+
+package main.java.render;
+
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import main.java.controller.GameController;
+
+public class TerminalRenderer {
+    private static final String ESCAPE = "\u001b[";
+    private static final long IDLE_PARK_NANOS = 1_000_000;
+
+    private final PrintStream out;
+    private final long frameIntervalNanos;
+    private FrameBuffer shown;
+    private FrameBuffer drawing;
+    private final AtomicReference<FrameSnapshot> exchange;
+    private FrameSnapshot capturing;
+    private FrameSnapshot current;
+    private long nextCaptureNanos;
+    private final StringBuilder output = new StringBuilder(16 * 1024);
+    private final Thread renderThread;
+    private volatile boolean running = true;
+    private long framesDrawn;
+
+    /**
+     * Creates a renderer and starts its render thread.
+     *
+     * @param out             The terminal to draw to; it must understand ANSI escape codes.
+     * @param width           The number of arena columns to show, from the left.
+     * @param height          The number of arena rows to show, from the top.
+     * @param framesPerSecond The maximum frame rate.
+     */
+    public TerminalRenderer(PrintStream out, int width, int height, int framesPerSecond) {
+        this.out = out;
+        this.frameIntervalNanos = 1_000_000_000L / Math.max(1, framesPerSecond);
+        this.shown = new FrameBuffer(width, height);
+        this.drawing = new FrameBuffer(width, height);
+        this.exchange = new AtomicReference<>(new FrameSnapshot(width, height));
+        this.capturing = new FrameSnapshot(width, height);
+        this.current = new FrameSnapshot(width, height);
+        // Clear the screen and hide the cursor; the empty frame buffer now matches the screen
+        out.print(ESCAPE + "2J" + ESCAPE + "?25l");
+        out.flush();
+        renderThread = new Thread(this::runRenderer, "game-renderer");
+        renderThread.setDaemon(true);
+        renderThread.start();
+    }
+
+    /**
+     * Offers the current state of a game for drawing. Called on the game thread
+     * after every tick. A paced game is captured every tick, so frames can be
+     * interpolated between ticks; a headless one at most once per frame.
+     */
+    public void submit(GameController game) {
+        if (game.getScheduler() == null) {
+            long now = System.nanoTime();
+            if (now < nextCaptureNanos) {
+                return;
+            }
+            nextCaptureNanos = now + frameIntervalNanos;
+        }
+        publish(game);
+    }
+
+    /**
+     * Draws the final state of a game, waits for it to reach the screen, and
+     * stops the render thread.
+     */
+    public void close(GameController game) {
+        capturing.capture(game);
+        // The game is over, so its last frame is shown where the last tick left everything
+        capturing.stopMoving();
+        handOver();
+        running = false;
+        LockSupport.unpark(renderThread);
+        try {
+            renderThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Leave the cursor below the arena and make it visible again
+        out.print(ESCAPE + (shown.getHeight() + 2) + ";1H" + ESCAPE + "?25h");
+        out.flush();
+    }
+
+    public long getFramesDrawn() {
+        return framesDrawn;
+    }
+
+    private void publish(GameController game) {
+        capturing.capture(game);
+        handOver();
+    }
+
+    private void handOver() {
+        capturing.setFresh(true);
+        // A snapshot the render thread has not taken yet comes back to be overwritten
+        capturing = exchange.getAndSet(capturing);
+        LockSupport.unpark(renderThread);
+    }
+
+    private void runRenderer() {
+        long nextFrameNanos = System.nanoTime();
+        // Whether the screen shows the current snapshot as it will stay, with nothing left to interpolate
+        boolean upToDate = true;
+        while (true) {
+            boolean stopping = !running;
+            if (exchange.get().isFresh()) {
+                current.setFresh(false);
+                current = exchange.getAndSet(current);
+                upToDate = false;
+            } else if (stopping && upToDate) {
+                // The final frame is published before stopping, so once stopping nothing more can arrive
+                return;
+            }
+            long now = System.nanoTime();
+            if (!upToDate && (now >= nextFrameNanos || stopping)) {
+                upToDate = !current.isMoving(now);
+                drawFrame(current, now);
+                // Keep to the frame rate's own schedule, without bursting after a stall
+                nextFrameNanos = Math.max(nextFrameNanos + frameIntervalNanos, now);
+                continue;
+            }
+            // A new snapshot unparks the thread, so an idle renderer only wakes now and then to check for stopping
+            LockSupport.parkNanos(upToDate ? IDLE_PARK_NANOS : nextFrameNanos - now);
+        }
+    }
+
+    private void drawFrame(FrameSnapshot snapshot, long nowNanos) {
+        drawing.clear();
+        snapshot.drawTo(drawing, nowNanos);
+
+        output.setLength(0);
+        appendChangedCells();
+        // Status line below the arena
+        output.append(ESCAPE).append(drawing.getHeight() + 1).append(";1H")
+                .append("Tick ").append(snapshot.getTick())
+                .append("  Level ").append(snapshot.getLevel())
+                .append("  Score ").append(snapshot.getScore())
+                .append(ESCAPE).append('K');
+        out.append(output);
+        out.flush();
+
+        FrameBuffer previous = shown;
+        shown = drawing;
+        drawing = previous;
+        framesDrawn++;
+    }
+
+    private void appendChangedCells() {
+        char[] next = drawing.cells();
+        char[] current = shown.cells();
+        int width = drawing.getWidth();
+        for (int row = 0; row < drawing.getHeight(); row++) {
+            // The cursor advances after each character, so runs of changed cells need only one move
+            boolean cursorInPlace = false;
+            for (int column = 0, i = row * width; column < width; column++, i++) {
+                if (next[i] == current[i]) {
+                    cursorInPlace = false;
+                    continue;
+                }
+                if (!cursorInPlace) {
+                    output.append(ESCAPE).append(row + 1).append(';').append(column + 1).append('H');
+                    cursorInPlace = true;
+                }
+                output.append(next[i]);
+            }
+        }
+    }
+}
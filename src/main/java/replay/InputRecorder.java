@@ -0,0 +1,59 @@
+/*
+Responsibilities:
+
+- Record the player's actions tick by tick while a game runs, packed two ticks per byte.
+- Turn the recorded actions and the game's outcome into a Recording.
+
+Data:
+
+- The packed actions buffer, which doubles in size as needed, and the number of ticks recorded.
+ */
+
+package main.java.replay;
+
+import java.util.Arrays;
+
+import main.java.controller.GameResult;
+import main.java.controller.GameSettings;
+
+public class InputRecorder {
+    private byte[] actions = new byte[1024];
+    private long ticks;
+
+    /**
+     * Records the actions of the next tick.
+     *
+     * @param tickActions A combination of the Player.ACTION_* flags.
+     */
+    public void record(int tickActions) {
+        int index = (int) (ticks >>> 1);
+        if (index == actions.length) {
+            actions = Arrays.copyOf(actions, actions.length * 2);
+        }
+        if ((ticks & 1) == 0) {
+            actions[index] = (byte) (tickActions & 0x0F);
+        } else {
+            actions[index] |= (byte) ((tickActions & 0x0F) << 4);
+        }
+        ticks++;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Creates a recording of the finished game.
+     *
+     * @param settings The settings the game was run with.
+     * @param result   The outcome of the game.
+     * @param checksum The checksum of the final game state.
+     */
+    public Recording toRecording(GameSettings settings, GameResult result, long checksum) {
+        return new Recording(settings.getSeed(), settings.getArena().getWidth(), settings.getArena().getHeight(),
+                settings.getInvadersPerLevel(), settings.getInvaderSpeed(), settings.getBulletSpeed(),
+                settings.isFormation(), settings.getInvaderFireRate(), ticks,
+                Arrays.copyOf(actions, Recording.packedLength(ticks)),
+                result.getScore(), result.getLevelReached(), result.isCompleted(), checksum);
+    }
+}
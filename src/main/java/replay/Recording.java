@@ -0,0 +1,185 @@
+/*
+Responsibilities:
+
+- Hold a recorded game: what is needed to set the game up again, the player's actions for every tick, and the
+  final outcome to verify a replay against.
+- Read and write recordings in a compact binary format: a fixed header, the actions packed two ticks per byte,
+  and a fixed footer.
+
+Data:
+
+- Seed, arena size, invaders per level, invader and bullet speeds, formation mode and invader fire rate of the
+  recorded game.
+- Number of ticks and the packed per-tick actions (4 bits each).
+- Final score, level reached, whether every level was completed, and a checksum of the final game state.
+ */
+
+package main.java.replay;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class Recording {
+    private static final int MAGIC = 0x53495250; // "SIRP"
+    private static final short VERSION = 4;
+    private static final int HEADER_BYTES = 4 + 2 + 8 + 4 + 4 + 4 + 4 + 4 + 1 + 8 + 8;
+    private static final int FOOTER_BYTES = 4 + 4 + 1 + 8;
+
+    private final long seed;
+    private final int arenaWidth;
+    private final int arenaHeight;
+    private final int invadersPerLevel;
+    private final int invaderSpeed;
+    private final int bulletSpeed;
+    private final boolean formation;
+    private final double invaderFireRate;
+    private final long ticks;
+    private final byte[] actions;
+    private final int finalScore;
+    private final int levelReached;
+    private final boolean completed;
+    private final long checksum;
+
+    public Recording(long seed, int arenaWidth, int arenaHeight, int invadersPerLevel, int invaderSpeed,
+            int bulletSpeed, boolean formation, double invaderFireRate, long ticks, byte[] actions, int finalScore,
+            int levelReached, boolean completed, long checksum) {
+        this.seed = seed;
+        this.arenaWidth = arenaWidth;
+        this.arenaHeight = arenaHeight;
+        this.invadersPerLevel = invadersPerLevel;
+        this.invaderSpeed = invaderSpeed;
+        this.bulletSpeed = bulletSpeed;
+        this.formation = formation;
+        this.invaderFireRate = invaderFireRate;
+        this.ticks = ticks;
+        this.actions = actions;
+        this.finalScore = finalScore;
+        this.levelReached = levelReached;
+        this.completed = completed;
+        this.checksum = checksum;
+    }
+
+    /**
+     * Gets the number of bytes needed to pack the actions of a number of ticks.
+     */
+    static int packedLength(long ticks) {
+        return (int) ((ticks + 1) / 2);
+    }
+
+    /**
+     * Gets the actions recorded for a tick.
+     *
+     * @param tick The tick, counting from 0.
+     * @return A combination of the Player.ACTION_* flags.
+     */
+    public int actionsAt(long tick) {
+        int packed = actions[(int) (tick >>> 1)];
+        return (tick & 1) == 0 ? packed & 0x0F : (packed >>> 4) & 0x0F;
+    }
+
+    /**
+     * Writes the recording to a file, replacing any existing file.
+     */
+    public void write(Path file) throws IOException {
+        int actionBytes = packedLength(ticks);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + actionBytes + FOOTER_BYTES);
+        buffer.putInt(MAGIC).putShort(VERSION);
+        buffer.putLong(seed).putInt(arenaWidth).putInt(arenaHeight).putInt(invadersPerLevel);
+        buffer.putInt(invaderSpeed).putInt(bulletSpeed).put((byte) (formation ? 1 : 0));
+        buffer.putDouble(invaderFireRate).putLong(ticks);
+        buffer.put(actions, 0, actionBytes);
+        buffer.putInt(finalScore).putInt(levelReached).put((byte) (completed ? 1 : 0)).putLong(checksum);
+        Files.write(file, buffer.array());
+    }
+
+    /**
+     * Reads a recording from a file.
+     *
+     * @throws IOException If the file cannot be read or is not a recording.
+     */
+    public static Recording read(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (buffer.remaining() < HEADER_BYTES + FOOTER_BYTES || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a game recording: " + file);
+        }
+        short version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported recording version " + version + ": " + file);
+        }
+        long seed = buffer.getLong();
+        int arenaWidth = buffer.getInt();
+        int arenaHeight = buffer.getInt();
+        int invadersPerLevel = buffer.getInt();
+        int invaderSpeed = buffer.getInt();
+        int bulletSpeed = buffer.getInt();
+        boolean formation = buffer.get() != 0;
+        double invaderFireRate = buffer.getDouble();
+        long ticks = buffer.getLong();
+        int actionBytes = packedLength(ticks);
+        if (ticks < 0 || buffer.remaining() != actionBytes + FOOTER_BYTES) {
+            throw new IOException("Truncated game recording: " + file);
+        }
+        byte[] actions = new byte[actionBytes];
+        buffer.get(actions);
+        int finalScore = buffer.getInt();
+        int levelReached = buffer.getInt();
+        boolean completed = buffer.get() != 0;
+        long checksum = buffer.getLong();
+        return new Recording(seed, arenaWidth, arenaHeight, invadersPerLevel, invaderSpeed, bulletSpeed, formation,
+                invaderFireRate, ticks, actions, finalScore, levelReached, completed, checksum);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getArenaWidth() {
+        return arenaWidth;
+    }
+
+    public int getArenaHeight() {
+        return arenaHeight;
+    }
+
+    public int getInvadersPerLevel() {
+        return invadersPerLevel;
+    }
+
+    public int getInvaderSpeed() {
+        return invaderSpeed;
+    }
+
+    public int getBulletSpeed() {
+        return bulletSpeed;
+    }
+
+    public boolean isFormation() {
+        return formation;
+    }
+
+    public double getInvaderFireRate() {
+        return invaderFireRate;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public int getFinalScore() {
+        return finalScore;
+    }
+
+    public int getLevelReached() {
+        return levelReached;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public long getChecksum() {
+        return checksum;
+    }
+}
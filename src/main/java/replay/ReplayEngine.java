@@ -0,0 +1,76 @@
+/*
+Responsibilities:
+
+- Re-run a recorded game headlessly at full speed from its seed and recorded actions.
+- Verify that the replay ends with the same score, level, tick count and final state checksum as the recording.
+- Report whether the replay matched and how fast it ran.
+
+Data:
+
+- None (each replay builds its own game from the recording).
+ */
+
+package main.java.replay;
+
+import java.nio.file.Path;
+
+import main.java.controller.GameController;
+import main.java.controller.GameResult;
+import main.java.controller.GameSettings;
+
+public class ReplayEngine {
+
+    /**
+     * Replays a recording and compares the outcome with the recorded one.
+     *
+     * @param recording The recording to replay.
+     * @return True if the replay reproduced the recorded game exactly.
+     */
+    public boolean replay(Recording recording) {
+        return replay(recording, null);
+    }
+
+    /**
+     * Replays a recording of a game played from a wave script. The script is not
+     * part of the recording, so it must be the one the game was recorded with.
+     *
+     * @param recording  The recording to replay.
+     * @param waveScript The wave script the game was played from, or null if none.
+     * @return True if the replay reproduced the recorded game exactly.
+     */
+    public boolean replay(Recording recording, Path waveScript) {
+        GameSettings settings = new GameSettings();
+        settings.setHeadless(true);
+        settings.setSeed(recording.getSeed());
+        settings.setArenaSize(recording.getArenaWidth(), recording.getArenaHeight());
+        settings.setInvadersPerLevel(recording.getInvadersPerLevel());
+        settings.setInvaderSpeed(recording.getInvaderSpeed());
+        settings.setBulletSpeed(recording.getBulletSpeed());
+        settings.setFormation(recording.isFormation());
+        settings.setInvaderFireRate(recording.getInvaderFireRate());
+        settings.setWaveScript(waveScript);
+
+        GameController game = new GameController(settings);
+        game.setInputSource(new ReplayInput(recording));
+        game.startGame();
+        GameResult result = game.getResult();
+        long checksum = game.stateChecksum();
+
+        boolean matches = result.getScore() == recording.getFinalScore()
+                && result.getLevelReached() == recording.getLevelReached()
+                && result.isCompleted() == recording.isCompleted()
+                && result.getTicks() == recording.getTicks()
+                && checksum == recording.getChecksum();
+
+        double seconds = result.getElapsedNanos() / 1_000_000_000.0;
+        System.out.println("\nReplay finished");
+        System.out.println("---------------");
+        System.out.println("Ticks: " + result.getTicks() + " (recorded " + recording.getTicks() + ")");
+        System.out.println("Score: " + result.getScore() + " (recorded " + recording.getFinalScore() + ")");
+        System.out.println("Level reached: " + result.getLevelReached() + " (recorded " + recording.getLevelReached() + ")");
+        System.out.printf("Checksum: %016x (recorded %016x)%n", checksum, recording.getChecksum());
+        System.out.printf("Replay speed: %.0f ticks/second%n", seconds > 0 ? result.getTicks() / seconds : 0);
+        System.out.println(matches ? "Replay matches the recording" : "Replay DIVERGED from the recording");
+        return matches;
+    }
+}
@@ -0,0 +1,33 @@
+/*
+Responsibilities:
+
+- Feed the actions of a recording back into a game, one tick at a time.
+
+Data:
+
+- The recording being replayed and the next tick to read.
+ */
+
+package main.java.replay;
+
+import main.java.controller.InputSource;
+import main.java.model.Player;
+
+public class ReplayInput implements InputSource {
+    private final Recording recording;
+    private long tick;
+
+    public ReplayInput(Recording recording) {
+        this.recording = recording;
+    }
+
+    @Override
+    public int nextActions(Player player) {
+        if (tick >= recording.getTicks()) {
+            // The replay has run past the end of the recording, so it has already diverged
+            tick++;
+            return Player.NO_ACTION;
+        }
+        return recording.actionsAt(tick++);
+    }
+}
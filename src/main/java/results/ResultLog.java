@@ -0,0 +1,210 @@
+/*
+Responsibilities:
+
+- Store the result of every finished game in an append-only binary log, one fixed-size record per run, so the
+  log can grow to tens of millions of runs and any run can be read back by its index.
+- Append whole batches of encoded records with one write and one sync, for group commit.
+- Recover from a crash mid-append: a torn record at the end of the log (short, or failing its checksum) is cut
+  off when the log is opened or scanned, and never written over a good one.
+
+Data:
+
+- The log file and its open channel.
+- The number of complete runs in the log.
+
+File format (little-endian): a 16-byte header of magic, version, record size (short) and a reserved long, then one
+40-byte record per run: seed (long), ticks (long), wall time in ns (long), score (int), level reached (int), flags
+(int, bit 0 set if every level was completed) and a CRC-32C of the first 36 bytes of the record (int).
+ */
+
+package main.java.results;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+import main.java.controller.GameResult;
+
+public class ResultLog implements Closeable {
+    static final int MAGIC = 0x53495252; // "SIRR"
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int RECORD_BYTES = 40;
+
+    private static final int CHECKED_BYTES = 36;
+    private static final int FLAG_COMPLETED = 1;
+
+    private final Path file;
+    private final FileChannel channel;
+    private volatile long size;
+
+    private ResultLog(Path file, FileChannel channel, long size) {
+        this.file = file;
+        this.channel = channel;
+        this.size = size;
+    }
+
+    /**
+     * Opens a result log, creating it if it does not exist, and cuts off a
+     * partly written record at its end.
+     *
+     * @throws IOException If the file cannot be opened or is not a result log.
+     */
+    public static ResultLog open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            if (channel.size() == 0) {
+                header.putInt(MAGIC).putShort(VERSION).putShort((short) RECORD_BYTES).putLong(0).flip();
+                writeFully(channel, header, 0);
+                channel.force(true);
+            } else {
+                readFully(channel, header, 0);
+                header.flip();
+                if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+                    throw new IOException("Not a result log: " + file);
+                }
+                short version = header.getShort();
+                if (version != VERSION || header.getShort() != RECORD_BYTES) {
+                    throw new IOException("Unsupported result log version " + version + ": " + file);
+                }
+            }
+            long size = (channel.size() - HEADER_BYTES) / RECORD_BYTES;
+            ResultLog log = new ResultLog(file, channel, size);
+            log.truncate(size);
+            return log;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Encodes a run into the next record of a batch buffer.
+     *
+     * @param buffer A heap buffer in little-endian order, with room for the record.
+     * @param crc    The checksum to compute the record's CRC with, owned by the calling thread.
+     */
+    static void encode(ByteBuffer buffer, long seed, long ticks, long elapsedNanos, int score, int level,
+            boolean completed, CRC32C crc) {
+        int start = buffer.position();
+        buffer.putLong(seed).putLong(ticks).putLong(elapsedNanos).putInt(score).putInt(level)
+                .putInt(completed ? FLAG_COMPLETED : 0);
+        crc.reset();
+        crc.update(buffer.array(), buffer.arrayOffset() + start, CHECKED_BYTES);
+        buffer.putInt((int) crc.getValue());
+    }
+
+    /**
+     * Checks a record's CRC.
+     *
+     * @param buffer A heap buffer in little-endian order holding the record.
+     * @param offset The offset of the record in the buffer.
+     */
+    static boolean isIntact(ByteBuffer buffer, int offset, CRC32C crc) {
+        crc.reset();
+        crc.update(buffer.array(), buffer.arrayOffset() + offset, CHECKED_BYTES);
+        return buffer.getInt(offset + CHECKED_BYTES) == (int) crc.getValue();
+    }
+
+    static int score(ByteBuffer buffer, int offset) {
+        return buffer.getInt(offset + 24);
+    }
+
+    static long ticks(ByteBuffer buffer, int offset) {
+        return buffer.getLong(offset + 8);
+    }
+
+    /**
+     * Decodes a record into a game result.
+     */
+    static GameResult decode(ByteBuffer buffer, int offset) {
+        return new GameResult(buffer.getLong(offset), buffer.getInt(offset + 24), buffer.getInt(offset + 28),
+                (buffer.getInt(offset + 32) & FLAG_COMPLETED) != 0, buffer.getLong(offset + 8),
+                buffer.getLong(offset + 16));
+    }
+
+    /**
+     * Appends a batch of encoded records to the end of the log and syncs it to
+     * disk, so the whole batch costs one write and one sync.
+     *
+     * @param batch The records, from position to limit.
+     * @param sync  Whether to sync the log to disk before returning.
+     */
+    public void append(ByteBuffer batch, boolean sync) throws IOException {
+        int records = batch.remaining() / RECORD_BYTES;
+        writeFully(channel, batch, HEADER_BYTES + size * RECORD_BYTES);
+        if (sync) {
+            channel.force(false);
+        }
+        size += records;
+    }
+
+    /**
+     * Reads consecutive records into a buffer. Safe to call while another
+     * thread appends, for records already appended.
+     *
+     * @param first  The index of the first run to read.
+     * @param buffer A heap buffer in little-endian order; the records are read from position 0 up to its capacity.
+     * @return The number of records read.
+     */
+    public int read(long first, ByteBuffer buffer) throws IOException {
+        int count = (int) Math.min(buffer.capacity() / RECORD_BYTES, size - first);
+        buffer.clear().limit(count * RECORD_BYTES);
+        readFully(channel, buffer, HEADER_BYTES + first * RECORD_BYTES);
+        if (buffer.hasRemaining()) {
+            throw new IOException("Result log is truncated: " + file);
+        }
+        buffer.flip();
+        return count;
+    }
+
+    /**
+     * Cuts the log off after a number of runs, e.g. at a record that failed its checksum.
+     */
+    public void truncate(long runs) throws IOException {
+        if (channel.size() > HEADER_BYTES + runs * RECORD_BYTES) {
+            channel.truncate(HEADER_BYTES + runs * RECORD_BYTES);
+            channel.force(true);
+        }
+        size = runs;
+    }
+
+    /**
+     * Gets the number of runs in the log.
+     */
+    public long size() {
+        return size;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                return;
+            }
+            position += read;
+        }
+    }
+}
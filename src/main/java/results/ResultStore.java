@@ -0,0 +1,361 @@
+/*
+Responsibilities:
+
+- Record the result of every finished game in a persistent run-result log, from any number of game threads at
+  once: recording a result only claims a slot in a lock-free queue, and a committer thread appends whatever has
+  queued up as one batch with one write and one sync (group commit).
+- Answer leaderboard and percentile queries over every run ever recorded: the best runs come from an in-memory
+  top-K heap, percentiles from a score histogram, and deeper leaderboards from the sparse index, which skips the
+  blocks of the log that cannot hold a qualifying run.
+- Rebuild the in-memory indexes from the log when opened, cutting off a run torn by a crash.
+
+Data:
+
+- The log, the top-K heap and the score index, guarded by the store's lock while a batch is indexed or a query runs.
+- The queue of results not yet committed: per-slot fields and published sequences, and the claimed and committed
+  sequences.
+- The committer thread, the batch buffer it encodes into, and the first error it hit, if any.
+- The number of runs recorded and commits made since the store was opened, and the runs dropped on recovery.
+ */
+
+package main.java.results;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32C;
+
+import main.java.controller.GameResult;
+
+public class ResultStore implements Closeable {
+    /** The number of best runs kept in memory. */
+    public static final int DEFAULT_TOP_K = 100;
+
+    private static final int QUEUE_CAPACITY = 1 << 14;
+    private static final int QUEUE_MASK = QUEUE_CAPACITY - 1;
+    private static final int MAX_BATCH = 1 << 12;
+    private static final long IDLE_PARK_NANOS = 200_000;
+
+    private final ResultLog log;
+    private final TopScores top;
+    private final ScoreIndex index = new ScoreIndex();
+
+    private final long[] seeds = new long[QUEUE_CAPACITY];
+    private final long[] ticks = new long[QUEUE_CAPACITY];
+    private final long[] elapsedNanos = new long[QUEUE_CAPACITY];
+    private final int[] scores = new int[QUEUE_CAPACITY];
+    private final int[] levels = new int[QUEUE_CAPACITY];
+    private final boolean[] completed = new boolean[QUEUE_CAPACITY];
+    private final AtomicLongArray published = new AtomicLongArray(QUEUE_CAPACITY);
+    private final AtomicLong claimed = new AtomicLong();
+    private volatile long committed;
+
+    private final ByteBuffer batch = ByteBuffer.allocate(MAX_BATCH * ResultLog.RECORD_BYTES)
+            .order(ByteOrder.LITTLE_ENDIAN);
+    private final CRC32C crc = new CRC32C();
+    private Thread committerThread;
+    private volatile boolean running;
+    private volatile IOException failure;
+    private volatile long commits;
+    private long droppedRuns;
+
+    private ResultStore(ResultLog log, int topK) {
+        this.log = log;
+        this.top = new TopScores(topK);
+        for (int i = 0; i < QUEUE_CAPACITY; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    /**
+     * Opens a result store on a log, creating the log if it does not exist,
+     * and starts its committer thread.
+     *
+     * @param file The log file.
+     * @param topK The number of best runs to keep in memory.
+     * @throws IOException If the log cannot be opened or read.
+     */
+    public static ResultStore open(Path file, int topK) throws IOException {
+        ResultLog log = ResultLog.open(file);
+        ResultStore store = new ResultStore(log, topK);
+        try {
+            store.rebuild();
+        } catch (IOException | RuntimeException e) {
+            log.close();
+            throw e;
+        }
+        store.running = true;
+        store.committerThread = new Thread(store::runCommitter, "result-committer");
+        store.committerThread.setDaemon(true);
+        store.committerThread.start();
+        return store;
+    }
+
+    /**
+     * Records the result of a finished game. Safe to call from any thread; only
+     * waits if the committer has fallen a full queue behind.
+     *
+     * @throws UncheckedIOException If the committer failed to write an earlier batch.
+     */
+    public void record(GameResult result) {
+        long sequence = claimed.getAndIncrement();
+        while (sequence - committed >= QUEUE_CAPACITY) {
+            checkFailure();
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+        int slot = (int) sequence & QUEUE_MASK;
+        seeds[slot] = result.getSeed();
+        ticks[slot] = result.getTicks();
+        elapsedNanos[slot] = result.getElapsedNanos();
+        scores[slot] = result.getScore();
+        levels[slot] = result.getLevelReached();
+        completed[slot] = result.isCompleted();
+        published.lazySet(slot, sequence);
+    }
+
+    /**
+     * Waits until every result recorded so far is committed to disk.
+     *
+     * @throws IOException If the committer failed to write a batch.
+     */
+    public void flush() throws IOException {
+        long target = claimed.get();
+        while (committed < target) {
+            if (failure != null) {
+                throw failure;
+            }
+            LockSupport.unpark(committerThread);
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Commits every recorded result, stops the committer and closes the log.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            running = false;
+            LockSupport.unpark(committerThread);
+            try {
+                committerThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            log.close();
+        }
+    }
+
+    /**
+     * Gets the number of runs in the store, counting only committed ones.
+     */
+    public synchronized long size() {
+        return index.size();
+    }
+
+    /**
+     * Gets the best runs, best first: by score, then fewer ticks, then the
+     * earlier run. The first K come from memory; deeper leaderboards read only
+     * the blocks of the log whose best score qualifies.
+     *
+     * @param count The number of runs wanted.
+     */
+    public synchronized List<GameResult> top(int count) throws IOException {
+        int wanted = (int) Math.min(count, index.size());
+        if (wanted <= top.size()) {
+            return readRuns(top.best(wanted));
+        }
+
+        // Every run of the leaderboard scored at least the score of its last place
+        int threshold = index.scoreOfRank(wanted);
+        TopScores deep = new TopScores(wanted);
+        ByteBuffer block = ByteBuffer.allocate(ScoreIndex.BLOCK_RUNS * ResultLog.RECORD_BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        for (int b = 0; b < index.blocks(); b++) {
+            if (index.blockBest(b) < threshold) {
+                continue;
+            }
+            long first = (long) b * ScoreIndex.BLOCK_RUNS;
+            int runs = (int) Math.min(log.read(first, block), index.size() - first);
+            for (int i = 0; i < runs; i++) {
+                int offset = i * ResultLog.RECORD_BYTES;
+                int score = ResultLog.score(block, offset);
+                if (score >= threshold) {
+                    deep.offer(score, ResultLog.ticks(block, offset), first + i);
+                }
+            }
+        }
+        return readRuns(deep.best(wanted));
+    }
+
+    /**
+     * Gets the lowest score reached by at least the given fraction of runs.
+     *
+     * @param fraction The fraction of runs, from 0 to 1, e.g. 0.99 for the 99th percentile.
+     */
+    public synchronized int scorePercentile(double fraction) {
+        return index.scorePercentile(fraction);
+    }
+
+    /**
+     * Counts the runs that scored at least a score, e.g. to rank a new score.
+     */
+    public synchronized long countAtLeast(int score) {
+        return index.countAtLeast(score);
+    }
+
+    /**
+     * Gets the number of runs recorded since the store was opened.
+     */
+    public long getRecorded() {
+        return claimed.get();
+    }
+
+    /**
+     * Gets the number of batches committed since the store was opened.
+     */
+    public long getCommits() {
+        return commits;
+    }
+
+    /**
+     * Gets the number of runs cut off the end of the log on opening, because a crash tore them.
+     */
+    public long getDroppedRuns() {
+        return droppedRuns;
+    }
+
+    public Path getFile() {
+        return log.getFile();
+    }
+
+    /**
+     * Prints the best runs and the score percentiles over every run in the store.
+     *
+     * @param count The number of best runs to print.
+     */
+    public void printLeaderboard(int count) throws IOException {
+        List<GameResult> best = top(count);
+        long runs = size();
+        System.out.println("\nLeaderboard");
+        System.out.println("-----------");
+        System.out.println("Runs: " + runs + " in " + getFile());
+        if (runs == 0) {
+            return;
+        }
+        System.out.printf("%5s %7s %6s %8s  %s%n", "rank", "score", "level", "ticks", "seed");
+        for (int i = 0; i < best.size(); i++) {
+            GameResult result = best.get(i);
+            System.out.printf("%5d %7d %6d %8d  %d%n", i + 1, result.getScore(), result.getLevelReached(),
+                    result.getTicks(), result.getSeed());
+        }
+        System.out.printf("Score: p50 %d, p90 %d, p99 %d, max %d%n", scorePercentile(0.5), scorePercentile(0.9),
+                scorePercentile(0.99), scorePercentile(1.0));
+    }
+
+    /**
+     * Prints how many results were recorded and how many commits they took.
+     */
+    public void printReport() {
+        long recorded = getRecorded();
+        System.out.println("\nResults");
+        System.out.println("-------");
+        System.out.printf("Recorded %d runs to %s in %d commits (%.1f runs per commit), %d runs in total%n",
+                recorded, getFile(), commits, commits > 0 ? (double) recorded / commits : 0, size());
+    }
+
+    private List<GameResult> readRuns(long[] runs) throws IOException {
+        List<GameResult> results = new ArrayList<>(runs.length);
+        ByteBuffer record = ByteBuffer.allocate(ResultLog.RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (long run : runs) {
+            log.read(run, record);
+            results.add(ResultLog.decode(record, 0));
+        }
+        return results;
+    }
+
+    private void checkFailure() {
+        IOException current = failure;
+        if (current != null) {
+            throw new UncheckedIOException("Could not record the result", current);
+        }
+    }
+
+    private void rebuild() throws IOException {
+        ByteBuffer block = ByteBuffer.allocate(ScoreIndex.BLOCK_RUNS * ResultLog.RECORD_BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        long size = log.size();
+        for (long first = 0; first < size; first += ScoreIndex.BLOCK_RUNS) {
+            int runs = log.read(first, block);
+            for (int i = 0; i < runs; i++) {
+                int offset = i * ResultLog.RECORD_BYTES;
+                if (!ResultLog.isIntact(block, offset, crc)) {
+                    // Appends only ever tear the end of the log, so a damaged run and everything after it goes
+                    droppedRuns = size - (first + i);
+                    log.truncate(first + i);
+                    return;
+                }
+                indexRun(ResultLog.score(block, offset), ResultLog.ticks(block, offset), first + i);
+            }
+        }
+    }
+
+    private void indexRun(int score, long runTicks, long run) {
+        index.add(Math.max(0, score));
+        top.offer(score, runTicks, run);
+    }
+
+    private void runCommitter() {
+        long next = committed;
+        while (true) {
+            boolean stopping = !running;
+            batch.clear();
+            int count = 0;
+            while (count < MAX_BATCH && published.get((int) (next + count) & QUEUE_MASK) == next + count) {
+                int slot = (int) (next + count) & QUEUE_MASK;
+                ResultLog.encode(batch, seeds[slot], ticks[slot], elapsedNanos[slot], scores[slot], levels[slot],
+                        completed[slot], crc);
+                count++;
+            }
+            if (count == 0) {
+                if (stopping) {
+                    return;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+
+            long firstRun = log.size();
+            try {
+                batch.flip();
+                log.append(batch, true);
+            } catch (IOException e) {
+                failure = e;
+                return;
+            }
+            synchronized (this) {
+                for (int i = 0; i < count; i++) {
+                    int slot = (int) (next + i) & QUEUE_MASK;
+                    indexRun(scores[slot], ticks[slot], firstRun + i);
+                }
+            }
+            commits++;
+            next += count;
+            // Only now may writers reuse the slots
+            committed = next;
+        }
+    }
+}
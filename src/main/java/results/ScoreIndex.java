@@ -0,0 +1,111 @@
+/*
+Responsibilities:
+
+- Answer percentile and "how many runs scored at least" queries over every run in the log from a histogram of
+  scores, in time proportional to the number of distinct scores rather than the number of runs.
+- Keep a sparse index of the log: the best score in every block of 4096 consecutive runs, so a search for the runs
+  above a score only reads the blocks that can hold one.
+
+Data:
+
+- The number of runs indexed, and the number of runs with each score.
+- The best score of each block of runs.
+ */
+
+package main.java.results;
+
+import java.util.Arrays;
+
+public class ScoreIndex {
+    /** The number of consecutive runs summarised by one sparse index entry. */
+    public static final int BLOCK_RUNS = 1 << 12;
+
+    private long runs;
+    private long[] scoreCounts = new long[64];
+    private int[] blockBest = new int[64];
+
+    /**
+     * Indexes the next run of the log.
+     *
+     * @param score The run's score, at least 0.
+     */
+    public void add(int score) {
+        if (score >= scoreCounts.length) {
+            scoreCounts = Arrays.copyOf(scoreCounts, Math.max(score + 1, scoreCounts.length * 2));
+        }
+        scoreCounts[score]++;
+        int block = (int) (runs / BLOCK_RUNS);
+        if (block >= blockBest.length) {
+            blockBest = Arrays.copyOf(blockBest, blockBest.length * 2);
+        }
+        if (runs % BLOCK_RUNS == 0 || score > blockBest[block]) {
+            blockBest[block] = score;
+        }
+        runs++;
+    }
+
+    /**
+     * Gets the lowest score reached by at least the given fraction of runs.
+     *
+     * @param fraction The fraction of runs, from 0 to 1, e.g. 0.99 for the 99th percentile.
+     */
+    public int scorePercentile(double fraction) {
+        long target = Math.max(1, (long) Math.ceil(fraction * runs));
+        long seen = 0;
+        for (int score = 0; score < scoreCounts.length; score++) {
+            seen += scoreCounts[score];
+            if (seen >= target) {
+                return score;
+            }
+        }
+        return scoreCounts.length - 1;
+    }
+
+    /**
+     * Counts the runs that scored at least a score.
+     */
+    public long countAtLeast(int score) {
+        long count = 0;
+        for (int s = Math.max(0, score); s < scoreCounts.length; s++) {
+            count += scoreCounts[s];
+        }
+        return count;
+    }
+
+    /**
+     * Gets the highest score that at least a number of runs reached, i.e. the
+     * score of the n-th best run.
+     *
+     * @return The score, or 0 if there are fewer runs.
+     */
+    public int scoreOfRank(long rank) {
+        long seen = 0;
+        for (int score = scoreCounts.length - 1; score > 0; score--) {
+            seen += scoreCounts[score];
+            if (seen >= rank) {
+                return score;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Gets the best score in a block of runs.
+     *
+     * @param block The block, holding runs block * BLOCK_RUNS to (block + 1) * BLOCK_RUNS - 1.
+     */
+    public int blockBest(int block) {
+        return blockBest[block];
+    }
+
+    /**
+     * Gets the number of blocks holding at least one run.
+     */
+    public int blocks() {
+        return (int) ((runs + BLOCK_RUNS - 1) / BLOCK_RUNS);
+    }
+
+    public long size() {
+        return runs;
+    }
+}
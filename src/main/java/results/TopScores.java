@@ -0,0 +1,137 @@
+/*
+Responsibilities:
+
+- Keep the best K runs seen so far in a bounded min-heap, so the leaderboard is answered without reading the log
+  and adding a run costs O(log K) at most.
+- Rank runs by score, then by fewer ticks, then by the earlier run, so every run has a distinct rank.
+
+Data:
+
+- Per heap entry: the run's score, ticks and index in the log. The worst kept run is at the root.
+ */
+
+package main.java.results;
+
+public class TopScores {
+    private final int capacity;
+    private final int[] scores;
+    private final long[] ticks;
+    private final long[] runs;
+    private int size;
+
+    /**
+     * @param capacity The number of best runs to keep.
+     */
+    public TopScores(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.scores = new int[this.capacity];
+        this.ticks = new long[this.capacity];
+        this.runs = new long[this.capacity];
+    }
+
+    /**
+     * Ranks two runs.
+     *
+     * @return True if the first run ranks above the second.
+     */
+    static boolean ranksAbove(int score, long ticks, long run, int otherScore, long otherTicks, long otherRun) {
+        if (score != otherScore) {
+            return score > otherScore;
+        }
+        if (ticks != otherTicks) {
+            return ticks < otherTicks;
+        }
+        return run < otherRun;
+    }
+
+    /**
+     * Offers a run, keeping it if it ranks among the best K so far.
+     *
+     * @param score The run's score.
+     * @param ticks The run's ticks.
+     * @param run   The run's index in the log.
+     */
+    public void offer(int score, long ticks, long run) {
+        if (size < capacity) {
+            set(size, score, ticks, run);
+            siftUp(size++);
+        } else if (ranksAbove(score, ticks, run, scores[0], this.ticks[0], runs[0])) {
+            set(0, score, ticks, run);
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Gets the log indexes of the best runs kept, best first.
+     *
+     * @param count The number of runs wanted, at most {@link #size()}.
+     */
+    public long[] best(int count) {
+        // Insertion-sort the heap entries best first; the heap holds at most K, so this stays cheap
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            int j = i;
+            while (j > 0 && ranksAbove(scores[i], ticks[i], runs[i], scores[order[j - 1]], ticks[order[j - 1]],
+                    runs[order[j - 1]])) {
+                order[j] = order[j - 1];
+                j--;
+            }
+            order[j] = i;
+        }
+        long[] best = new long[Math.min(count, size)];
+        for (int i = 0; i < best.length; i++) {
+            best[i] = runs[order[i]];
+        }
+        return best;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private void set(int i, int score, long ticks, long run) {
+        scores[i] = score;
+        this.ticks[i] = ticks;
+        runs[i] = run;
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            // The root is the worst run, so a run moves up while it ranks below its parent
+            if (!ranksAbove(scores[parent], ticks[parent], runs[parent], scores[i], ticks[i], runs[i])) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int worst = i;
+            for (int child = 2 * i + 1; child <= 2 * i + 2 && child < size; child++) {
+                if (ranksAbove(scores[worst], ticks[worst], runs[worst], scores[child], ticks[child], runs[child])) {
+                    worst = child;
+                }
+            }
+            if (worst == i) {
+                return;
+            }
+            swap(i, worst);
+            i = worst;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int score = scores[a];
+        long tick = ticks[a];
+        long run = runs[a];
+        set(a, scores[b], ticks[b], runs[b]);
+        set(b, score, tick, run);
+    }
+}
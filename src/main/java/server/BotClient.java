@@ -0,0 +1,197 @@
+/*
+Responsibilities:
+
+- Play a server game headless as a bot: connect, rebuild the game state from the server's deltas, and send a
+  random command on about half of the ticks, like the built-in random player.
+- Check the delta protocol end to end: when the game ends, compare a checksum of the rebuilt state with the one
+  the server sent.
+
+Data:
+
+- The server's address and the bot's own random number generator.
+- The mirrors of the invaders, bullets and players rebuilt from the deltas, and the buffer frames are read into.
+- The player number the server assigned, the last tick, level and score received, the frames and bytes received,
+  and whether the final state matched the server's.
+ */
+
+package main.java.server;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+import main.java.model.Player;
+import main.java.utility.GameRandom;
+
+public class BotClient implements Runnable {
+    private final InetSocketAddress server;
+    private final GameRandom random;
+    private final EntityMirror invaders = new EntityMirror();
+    private final EntityMirror bullets = new EntityMirror();
+    private final EntityMirror players = new EntityMirror();
+    private final ByteBuffer header = ByteBuffer.allocate(Protocol.FRAME_HEADER_BYTES);
+    private ByteBuffer body = ByteBuffer.allocate(64 * 1024);
+    private final ByteBuffer command = ByteBuffer.allocate(1);
+    private volatile int playerSlot = -1;
+    private volatile long tick;
+    private volatile int level;
+    private volatile int score;
+    private volatile long framesReceived;
+    private volatile long bytesReceived;
+    private volatile boolean finished;
+    private volatile boolean inSync;
+    private volatile String error;
+
+    /**
+     * @param server The address of the game server.
+     * @param seed   The seed of the bot's random number generator.
+     */
+    public BotClient(InetSocketAddress server, long seed) {
+        this.server = server;
+        this.random = new GameRandom(seed);
+    }
+
+    /**
+     * Parses a "host:port" address.
+     */
+    public static InetSocketAddress parseAddress(String address) {
+        int colon = address.lastIndexOf(':');
+        return new InetSocketAddress(address.substring(0, colon), Integer.parseInt(address.substring(colon + 1)));
+    }
+
+    /**
+     * Plays until the server ends the game or the connection is lost.
+     */
+    @Override
+    public void run() {
+        // A bot only has one socket, so it uses plain blocking reads and writes
+        try (SocketChannel channel = SocketChannel.open(server)) {
+            channel.socket().setTcpNoDelay(true);
+            while (!finished) {
+                readFrame(channel);
+                handleFrame(channel);
+            }
+        } catch (IOException e) {
+            error = e.getMessage() != null ? e.getMessage() : e.toString();
+        }
+    }
+
+    private void readFrame(SocketChannel channel) throws IOException {
+        header.clear();
+        readFully(channel, header);
+        int length = header.getInt(0) - 1;
+        if (length < 0 || length > Protocol.MAX_FRAME_BYTES) {
+            throw new IOException("Bad frame length: " + length);
+        }
+        if (body.capacity() < length) {
+            body = ByteBuffer.allocate(Math.max(length, body.capacity() * 2));
+        }
+        body.clear().limit(length);
+        readFully(channel, body);
+        body.flip();
+        framesReceived++;
+        bytesReceived += Protocol.FRAME_HEADER_BYTES + length;
+    }
+
+    private void handleFrame(SocketChannel channel) throws IOException {
+        switch (header.get(Integer.BYTES)) {
+            case Protocol.FRAME_WELCOME:
+                playerSlot = body.getInt();
+                break;
+            case Protocol.FRAME_STATE:
+                tick = Protocol.getVarLong(body);
+                level = Protocol.getVarInt(body);
+                score = Protocol.getVarInt(body);
+                invaders.applyDelta(body);
+                bullets.applyDelta(body);
+                players.applyDelta(body);
+                sendCommand(channel);
+                break;
+            case Protocol.FRAME_GAME_OVER:
+                score = body.getInt();
+                level = body.getInt();
+                body.get();
+                inSync = body.getLong() == GameServer.checksumOf(invaders, bullets, players);
+                finished = true;
+                break;
+            default:
+                throw new IOException("Unknown frame type: " + header.get(Integer.BYTES));
+        }
+    }
+
+    private void sendCommand(SocketChannel channel) throws IOException {
+        // A destroyed player's commands are ignored, so there is no point sending them
+        if (playerSlot < 0 || playerSlot >= players.size() || players.health(playerSlot) <= 0
+                || !random.nextBoolean()) {
+            return;
+        }
+        int move = random.nextBoolean() ? Player.ACTION_LEFT : Player.ACTION_RIGHT;
+        command.clear();
+        command.put((byte) (move | Player.ACTION_FIRE)).flip();
+        while (command.hasRemaining()) {
+            channel.write(command);
+        }
+    }
+
+    private static void readFully(SocketChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Server closed the connection");
+            }
+        }
+    }
+
+    public int getPlayerSlot() {
+        return playerSlot;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public long getFramesReceived() {
+        return framesReceived;
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    /**
+     * Checks if the game ended and the rebuilt state matched the server's.
+     */
+    public boolean isInSync() {
+        return finished && inSync;
+    }
+
+    /**
+     * Gets why the bot stopped early, or null if it played to the end.
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Prints what the bot saw of the game.
+     */
+    public void printReport() {
+        System.out.println("\nBot client");
+        System.out.println("----------");
+        if (error != null) {
+            System.out.println("Stopped early: " + error);
+        }
+        System.out.println("Player " + playerSlot + ", last tick " + tick + ", level " + level + ", score " + score);
+        System.out.println("Received " + framesReceived + " frames, " + bytesReceived + " bytes");
+        System.out.println(isInSync() ? "State in sync with the server" : "State NOT in sync with the server");
+    }
+}
@@ -0,0 +1,97 @@
+/*
+Responsibilities:
+
+- Hold one connected client of the game server: its socket, the player it controls, and the frames queued for it
+  that the socket has not accepted yet.
+- Write without blocking: whatever the socket does not take now stays queued and is written when the selector
+  reports the socket writable again.
+
+Data:
+
+- The client's socket channel, its selection key and its player number.
+- The outgoing bytes not yet written (in a buffer that grows up to a limit), and the number of bytes written.
+ */
+
+package main.java.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+public class ClientConnection {
+    /** The most bytes queued for a client before it is dropped for falling behind. */
+    public static final int MAX_QUEUED_BYTES = 8 << 20;
+
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final int playerSlot;
+    private ByteBuffer outgoing = ByteBuffer.allocate(16 * 1024);
+    private long bytesSent;
+
+    public ClientConnection(SocketChannel channel, SelectionKey key, int playerSlot) {
+        this.channel = channel;
+        this.key = key;
+        this.playerSlot = playerSlot;
+    }
+
+    /**
+     * Queues a frame and writes as much of the queue as the socket accepts now.
+     *
+     * @param frame The frame, between its position and limit; it is not changed.
+     * @return False if the client has fallen too far behind to queue the frame.
+     */
+    public boolean send(ByteBuffer frame) throws IOException {
+        int length = frame.remaining();
+        if (outgoing.position() + length > MAX_QUEUED_BYTES) {
+            return false;
+        }
+        if (outgoing.remaining() < length) {
+            int capacity = Math.max(outgoing.capacity() * 2, outgoing.position() + length);
+            ByteBuffer grown = ByteBuffer.allocate(Math.min(capacity, MAX_QUEUED_BYTES));
+            outgoing.flip();
+            grown.put(outgoing);
+            outgoing = grown;
+        }
+        outgoing.put(frame.duplicate());
+        flush();
+        return true;
+    }
+
+    /**
+     * Writes as much of the queue as the socket accepts without blocking, and
+     * asks the selector to report when the socket is writable if some is left.
+     */
+    public void flush() throws IOException {
+        outgoing.flip();
+        bytesSent += channel.write(outgoing);
+        boolean pending = outgoing.hasRemaining();
+        outgoing.compact();
+        key.interestOps(pending ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+    }
+
+    public boolean hasQueuedBytes() {
+        return outgoing.position() > 0;
+    }
+
+    public void close() {
+        key.cancel();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // The client is being dropped either way
+        }
+    }
+
+    public SocketChannel getChannel() {
+        return channel;
+    }
+
+    public int getPlayerSlot() {
+        return playerSlot;
+    }
+
+    public long getBytesSent() {
+        return bytesSent;
+    }
+}
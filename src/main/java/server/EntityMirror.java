@@ -0,0 +1,178 @@
+/*
+Responsibilities:
+
+- Mirror the columns of one EntityStore as a client last saw them, so the server sends only what changed each tick
+  and the client rebuilds the same columns from those changes.
+- Predict every entity moving by its velocity before comparing, so entities moving steadily cost nothing; only
+  spawned, despawned and turned or stopped entities are sent.
+- Encode a delta on the server and apply it on the client with the same code, so both mirrors stay identical.
+
+Data:
+
+- The mirrored columns (x, y, vx, vy, width, height, health), indexed by slot like the store, and the number of
+  live slots. Slots past the live ones are kept zeroed, so a spawn is sent as a change from zero.
+
+Delta format: the new number of live slots (var int), then each changed slot as the gap from the previous
+changed slot (var int, at least 1), a byte with one bit per changed column, and the change of each of those
+columns from the prediction (signed var ints); a gap of 0 ends the delta.
+ */
+
+package main.java.server;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import main.java.model.EntityStore;
+
+public class EntityMirror {
+    private static final int X = 0;
+    private static final int Y = 1;
+    private static final int VX = 2;
+    private static final int VY = 3;
+    private static final int WIDTH = 4;
+    private static final int HEIGHT = 5;
+    private static final int HEALTH = 6;
+
+    /** The largest number of bytes one changed slot takes in a delta. */
+    public static final int MAX_SLOT_BYTES = 5 + 1 + EntityStore.COLUMNS * 5;
+
+    private final int[][] columns = new int[EntityStore.COLUMNS][16];
+    private int size;
+
+    /**
+     * Writes the changes from this mirror to the store's current state, and
+     * updates the mirror to match. Called on the server once per tick.
+     *
+     * @param out The buffer to write to, with room for {@link #maxDeltaBytes(EntityStore)} bytes.
+     */
+    public void encodeDelta(EntityStore<?> store, ByteBuffer out) {
+        predict();
+        int newSize = store.size();
+        resize(newSize);
+        Protocol.putVarInt(out, newSize);
+        int previous = -1;
+        for (int slot = 0; slot < newSize; slot++) {
+            int mask = 0;
+            for (int column = 0; column < EntityStore.COLUMNS; column++) {
+                if (columns[column][slot] != value(store, column, slot)) {
+                    mask |= 1 << column;
+                }
+            }
+            if (mask == 0) {
+                continue;
+            }
+            Protocol.putVarInt(out, slot - previous);
+            out.put((byte) mask);
+            for (int column = 0; column < EntityStore.COLUMNS; column++) {
+                if ((mask & (1 << column)) != 0) {
+                    int actual = value(store, column, slot);
+                    Protocol.putSignedVarInt(out, actual - columns[column][slot]);
+                    columns[column][slot] = actual;
+                }
+            }
+            previous = slot;
+        }
+        Protocol.putVarInt(out, 0);
+    }
+
+    /**
+     * Applies a delta written by {@link #encodeDelta(EntityStore, ByteBuffer)}.
+     * Called on the client once per tick.
+     */
+    public void applyDelta(ByteBuffer in) {
+        predict();
+        resize(Protocol.getVarInt(in));
+        int slot = -1;
+        int gap;
+        while ((gap = Protocol.getVarInt(in)) != 0) {
+            slot += gap;
+            int mask = in.get();
+            for (int column = 0; column < EntityStore.COLUMNS; column++) {
+                if ((mask & (1 << column)) != 0) {
+                    columns[column][slot] += Protocol.getSignedVarInt(in);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the most bytes a delta of a store can take.
+     */
+    public int maxDeltaBytes(EntityStore<?> store) {
+        return 10 + store.size() * MAX_SLOT_BYTES;
+    }
+
+    /**
+     * Computes a checksum of the mirrored entities, to compare the server's and a client's mirrors.
+     */
+    public long checksum() {
+        long hash = 0xCBF29CE484222325L;
+        hash = (hash ^ size) * 0x100000001B3L;
+        for (int[] column : columns) {
+            for (int slot = 0; slot < size; slot++) {
+                hash = (hash ^ column[slot]) * 0x100000001B3L;
+            }
+        }
+        return hash;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int x(int slot) {
+        return columns[X][slot];
+    }
+
+    public int y(int slot) {
+        return columns[Y][slot];
+    }
+
+    public int health(int slot) {
+        return columns[HEALTH][slot];
+    }
+
+    private void predict() {
+        int[] x = columns[X];
+        int[] y = columns[Y];
+        int[] vx = columns[VX];
+        int[] vy = columns[VY];
+        for (int slot = 0; slot < size; slot++) {
+            x[slot] += vx[slot];
+            y[slot] += vy[slot];
+        }
+    }
+
+    private void resize(int newSize) {
+        if (newSize > columns[X].length) {
+            int capacity = Math.max(newSize, columns[X].length * 2);
+            for (int column = 0; column < EntityStore.COLUMNS; column++) {
+                columns[column] = Arrays.copyOf(columns[column], capacity);
+            }
+        }
+        // Despawned slots go back to zero, the baseline a later spawn is sent against
+        for (int column = 0; column < EntityStore.COLUMNS && newSize < size; column++) {
+            Arrays.fill(columns[column], newSize, size, 0);
+        }
+        size = newSize;
+    }
+
+    private static int value(EntityStore<?> store, int column, int slot) {
+        switch (column) {
+            case X:
+                return store.x(slot);
+            case Y:
+                return store.y(slot);
+            case VX:
+                return store.vx(slot);
+            case VY:
+                return store.vy(slot);
+            case WIDTH:
+                return store.width(slot);
+            case HEIGHT:
+                return store.height(slot);
+            default:
+                return store.health(slot);
+        }
+    }
+}
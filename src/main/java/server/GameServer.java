@@ -0,0 +1,391 @@
+/*
+Responsibilities:
+
+- Host one authoritative game for several players: clients connect over TCP, each controls one player, and only
+  the server simulates.
+- Handle every client on the game thread with one non-blocking NIO selector: between ticks, accept connections,
+  read commands and finish pending writes, without a thread per client and without ever blocking on a socket.
+- After every tick, encode the changes since the last tick once (moved, spawned and despawned entities, as
+  deltas against what clients already have) and queue the same frame for every client.
+- Run at a fixed tick rate, and measure the time each tick takes and the bytes sent.
+- Neither record nor checkpoint a game of several players, as recordings and snapshots hold one player.
+
+Data:
+
+- The settings, the selector and the listening socket.
+- The connected clients, by player number, and the commands each player has sent since the last tick.
+- The mirrors of the invaders, bullets and players that every client holds, and the buffer frames are built in.
+- The tick interval and the deadline of the next tick.
+- A histogram of tick times, and the bytes of state sent as deltas and as full state would have been.
+ */
+
+package main.java.server;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+
+import main.java.controller.GameController;
+import main.java.controller.GameSettings;
+import main.java.controller.InputSource;
+import main.java.controller.TickListener;
+import main.java.metrics.Histogram;
+import main.java.model.EntityStore;
+import main.java.model.Player;
+import main.java.utility.GameLogger;
+import main.java.utility.LogLevel;
+
+public class GameServer implements TickListener, InputSource {
+    private static final long FLUSH_TIMEOUT_NANOS = 5_000_000_000L;
+
+    private final GameSettings settings;
+    private final Selector selector;
+    private final ServerSocketChannel listener;
+    private final int port;
+    private final ClientConnection[] clients;
+    private final int[] pendingActions;
+    private int connected;
+    private final EntityMirror invaderMirror = new EntityMirror();
+    private final EntityMirror bulletMirror = new EntityMirror();
+    private final EntityMirror playerMirror = new EntityMirror();
+    private ByteBuffer frame = ByteBuffer.allocate(64 * 1024);
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(1024);
+    private final long tickIntervalNanos;
+    private long nextTickNanos;
+    private long tickStartNanos;
+    private final Histogram tickTimes = new Histogram();
+    private long deltaBytes;
+    private long fullStateBytes;
+
+    /**
+     * Opens the listening socket on the port in the settings, on all interfaces.
+     *
+     * @param settings The settings of the game to host; the player count is the number of clients to wait for.
+     */
+    public GameServer(GameSettings settings) throws IOException {
+        this.settings = settings;
+        this.clients = new ClientConnection[Math.max(1, settings.getPlayers())];
+        this.pendingActions = new int[clients.length];
+        this.tickIntervalNanos = settings.getTickRate() > 0 ? 1_000_000_000L / settings.getTickRate() : 0;
+        selector = Selector.open();
+        listener = ServerSocketChannel.open();
+        listener.bind(new InetSocketAddress(settings.getPort()));
+        listener.configureBlocking(false);
+        listener.register(selector, SelectionKey.OP_ACCEPT);
+        port = ((InetSocketAddress) listener.getLocalAddress()).getPort();
+    }
+
+    /**
+     * Gets the port the server listens on, e.g. when it was opened on any free port.
+     */
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * Waits for every player to connect, plays the game to the end and says goodbye to the clients.
+     *
+     * @return How the server performed.
+     */
+    public ServerStats run() throws IOException {
+        try {
+            while (connected < clients.length) {
+                selector.select();
+                handleEvents();
+            }
+            // The tick rate paces the game, so it must not also pause after player actions
+            GameSettings gameSettings = settings.copy();
+            gameSettings.setHeadless(true);
+            if (gameSettings.getPlayers() > 1) {
+                // Recordings and snapshots hold one player, so they could not reproduce this game
+                gameSettings.setRecordFile(null);
+                gameSettings.setCheckpointInterval(0);
+            }
+            GameController game = new GameController(gameSettings);
+            game.setInputSource(this);
+            game.setTickListener(this);
+            game.newGame();
+
+            long start = System.nanoTime();
+            tickStartNanos = start;
+            nextTickNanos = start + tickIntervalNanos;
+            game.simulateGame();
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            sendGameOver(game);
+            return new ServerStats(clients.length, game.getTickCount(), seconds, tickTimes, bytesPerClient(),
+                    deltaBytes, fullStateBytes);
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * Hosts a game on loopback for bundled bot clients, one per player, and
+     * checks that every bot rebuilt the same state as the server.
+     *
+     * @param settings The settings of the game; the port should be 0 so any free port is used.
+     * @return How the server performed, including how many bots ended in sync.
+     */
+    public static ServerStats runWithBots(GameSettings settings) throws IOException {
+        GameServer server = new GameServer(settings);
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort());
+        BotClient[] bots = new BotClient[server.clients.length];
+        Thread[] threads = new Thread[bots.length];
+        for (int i = 0; i < bots.length; i++) {
+            // Each bot gets its own seed, derived from the game's, so runs are repeatable
+            bots[i] = new BotClient(address, settings.getSeed() * 31 + i);
+            threads[i] = new Thread(bots[i], "bot-client-" + i);
+            threads[i].setDaemon(true);
+            threads[i].start();
+        }
+        ServerStats stats = server.run();
+        int inSync = 0;
+        for (int i = 0; i < bots.length; i++) {
+            try {
+                threads[i].join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (bots[i].isInSync()) {
+                inSync++;
+            }
+        }
+        stats.setClientsInSync(inSync);
+        return stats;
+    }
+
+    /**
+     * Gives each player the commands its client sent since the last tick.
+     */
+    @Override
+    public int nextActions(Player player) {
+        int slot = player.getSlot();
+        int actions = pendingActions[slot];
+        pendingActions[slot] = Player.NO_ACTION;
+        return actions;
+    }
+
+    /**
+     * Sends the changes of the tick to every client, then serves clients until the next tick is due.
+     */
+    @Override
+    public void afterTick(GameController game) {
+        try {
+            broadcast(encodeState(game));
+            tickTimes.record(System.nanoTime() - tickStartNanos);
+            serveUntil(nextTickNanos);
+            nextTickNanos += tickIntervalNanos;
+            tickStartNanos = System.nanoTime();
+        } catch (IOException e) {
+            // The selector itself failed; clients can no longer be served
+            throw new IllegalStateException("Game server failed: " + e.getMessage(), e);
+        }
+    }
+
+    private ByteBuffer encodeState(GameController game) {
+        EntityStore<?> invaders = game.getFactory().getInvaders();
+        EntityStore<?> bullets = game.getFactory().getBullets();
+        EntityStore<?> players = game.getPlayers();
+        int needed = 32 + invaderMirror.maxDeltaBytes(invaders) + bulletMirror.maxDeltaBytes(bullets)
+                + playerMirror.maxDeltaBytes(players);
+        if (frame.capacity() < needed) {
+            frame = ByteBuffer.allocate(Math.max(needed, frame.capacity() * 2));
+        }
+        frame.clear();
+        int start = Protocol.beginFrame(frame, Protocol.FRAME_STATE);
+        Protocol.putVarLong(frame, game.getTickCount());
+        Protocol.putVarInt(frame, game.getCurrentLevel());
+        Protocol.putVarInt(frame, game.getPlayer().getScore());
+        invaderMirror.encodeDelta(invaders, frame);
+        bulletMirror.encodeDelta(bullets, frame);
+        playerMirror.encodeDelta(players, frame);
+        Protocol.endFrame(frame, start);
+
+        deltaBytes += frame.position();
+        // A full state frame would carry every column of every entity, plus the same header
+        fullStateBytes += Protocol.FRAME_HEADER_BYTES + 16
+                + (long) (invaders.size() + bullets.size() + players.size()) * EntityStore.COLUMNS * Integer.BYTES;
+        return frame.flip();
+    }
+
+    private void sendGameOver(GameController game) throws IOException {
+        frame.clear();
+        int start = Protocol.beginFrame(frame, Protocol.FRAME_GAME_OVER);
+        frame.putInt(game.getPlayer().getScore()).putInt(game.getCurrentLevel())
+                .put((byte) (game.getResult().isCompleted() ? 1 : 0)).putLong(stateChecksum());
+        Protocol.endFrame(frame, start);
+        broadcast(frame.flip());
+
+        long deadline = System.nanoTime() + FLUSH_TIMEOUT_NANOS;
+        while (hasQueuedBytes() && System.nanoTime() < deadline) {
+            serveUntil(System.nanoTime() + 1_000_000);
+        }
+    }
+
+    /**
+     * Combines the checksums of the mirrors, which every client also holds.
+     */
+    long stateChecksum() {
+        return checksumOf(invaderMirror, bulletMirror, playerMirror);
+    }
+
+    static long checksumOf(EntityMirror invaders, EntityMirror bullets, EntityMirror players) {
+        return (invaders.checksum() * 31 + bullets.checksum()) * 31 + players.checksum();
+    }
+
+    private void broadcast(ByteBuffer message) throws IOException {
+        for (int slot = 0; slot < clients.length; slot++) {
+            ClientConnection client = clients[slot];
+            if (client == null) {
+                continue;
+            }
+            boolean sent;
+            try {
+                sent = client.send(message);
+            } catch (IOException e) {
+                sent = false;
+            }
+            if (!sent) {
+                GameLogger.getInstance().log(LogLevel.WARN,
+                        "Dropping player " + slot + ": connection lost or too slow");
+                disconnect(client);
+            }
+        }
+    }
+
+    /**
+     * Handles socket events until a deadline, then returns even if more are pending.
+     */
+    private void serveUntil(long deadlineNanos) throws IOException {
+        while (true) {
+            long waitNanos = deadlineNanos - System.nanoTime();
+            if (waitNanos <= 0) {
+                selector.selectNow();
+                handleEvents();
+                return;
+            }
+            // select() takes whole milliseconds; 0 would mean wait forever
+            selector.select(Math.max(1, waitNanos / 1_000_000));
+            handleEvents();
+        }
+    }
+
+    private void handleEvents() throws IOException {
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+            SelectionKey key = keys.next();
+            keys.remove();
+            if (!key.isValid()) {
+                continue;
+            }
+            if (key.isAcceptable()) {
+                accept();
+                continue;
+            }
+            ClientConnection client = (ClientConnection) key.attachment();
+            try {
+                if (key.isReadable()) {
+                    read(client);
+                }
+                if (key.isValid() && key.isWritable()) {
+                    client.flush();
+                }
+            } catch (IOException e) {
+                disconnect(client);
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = listener.accept();
+        if (channel == null) {
+            return;
+        }
+        if (connected == clients.length) {
+            // The game is full; players cannot join once it has started
+            channel.close();
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        int slot = connected++;
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        ClientConnection client = new ClientConnection(channel, key, slot);
+        key.attach(client);
+        clients[slot] = client;
+
+        frame.clear();
+        int start = Protocol.beginFrame(frame, Protocol.FRAME_WELCOME);
+        frame.putInt(slot).putInt(settings.getArena().getWidth()).putInt(settings.getArena().getHeight())
+                .putInt(settings.getTickRate());
+        Protocol.endFrame(frame, start);
+        client.send(frame.flip());
+        GameLogger.getInstance().log(LogLevel.INFO, "Player " + slot + " joined from " + channel.getRemoteAddress());
+    }
+
+    private void read(ClientConnection client) throws IOException {
+        while (true) {
+            readBuffer.clear();
+            int read = client.getChannel().read(readBuffer);
+            if (read < 0) {
+                disconnect(client);
+                return;
+            }
+            if (read == 0) {
+                return;
+            }
+            // Every byte is a command; commands that arrive between two ticks are combined
+            for (int i = 0; i < read; i++) {
+                pendingActions[client.getPlayerSlot()] |= readBuffer.get(i) & 0x0F;
+            }
+        }
+    }
+
+    private void disconnect(ClientConnection client) {
+        client.close();
+        clients[client.getPlayerSlot()] = null;
+        pendingActions[client.getPlayerSlot()] = Player.NO_ACTION;
+    }
+
+    private boolean hasQueuedBytes() {
+        for (ClientConnection client : clients) {
+            if (client != null && client.hasQueuedBytes()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long bytesPerClient() {
+        long total = 0;
+        int count = 0;
+        for (ClientConnection client : clients) {
+            if (client != null) {
+                total += client.getBytesSent();
+                count++;
+            }
+        }
+        return count > 0 ? total / count : 0;
+    }
+
+    private void close() {
+        for (ClientConnection client : clients) {
+            if (client != null) {
+                client.close();
+            }
+        }
+        try {
+            listener.close();
+            selector.close();
+        } catch (IOException e) {
+            GameLogger.getInstance().log(LogLevel.WARN, "Could not close the server socket: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+Responsibilities:
+
+- Define the wire format between the game server and its clients: length-prefixed frames of a type byte and a
+  payload, sent over TCP.
+- Encode and decode the variable-length integers deltas are made of, so small changes cost one byte.
+
+Data:
+
+- None (frame types and sizes are constants; integers are passed as ByteBuffers are read and written).
+
+Frames sent by the server:
+
+- WELCOME: the client's player number, the arena width and height, and the server's tick rate (4 ints).
+- STATE: the tick (var long), level and shared score (var ints), then the deltas of the invaders, bullets and
+  players, as written by EntityMirror.encodeDelta.
+- GAME_OVER: the score and level reached (ints), whether every level was completed (byte) and a checksum of the
+  state the server sent (long), so a client can check it decoded every delta correctly.
+
+Clients send one byte per command: a combination of the Player.ACTION_* flags, applied on the next tick.
+ */
+
+package main.java.server;
+
+import java.nio.ByteBuffer;
+
+public final class Protocol {
+    public static final byte FRAME_WELCOME = 1;
+    public static final byte FRAME_STATE = 2;
+    public static final byte FRAME_GAME_OVER = 3;
+
+    /** The bytes before a frame's payload: its length (an int, counting the type byte and payload) and type. */
+    public static final int FRAME_HEADER_BYTES = Integer.BYTES + 1;
+
+    /** The largest frame a client accepts. */
+    public static final int MAX_FRAME_BYTES = 64 << 20;
+
+    private Protocol() {
+    }
+
+    /**
+     * Starts a frame: reserves its length and writes its type. Finish it with
+     * {@link #endFrame(ByteBuffer, int)} once the payload is written.
+     *
+     * @return The position of the frame, to pass to endFrame.
+     */
+    public static int beginFrame(ByteBuffer out, byte type) {
+        int start = out.position();
+        out.putInt(0).put(type);
+        return start;
+    }
+
+    /**
+     * Fills in the length of a frame started by {@link #beginFrame(ByteBuffer, byte)}.
+     */
+    public static void endFrame(ByteBuffer out, int start) {
+        out.putInt(start, out.position() - start - Integer.BYTES);
+    }
+
+    /**
+     * Writes a non-negative int in 1 to 5 bytes, 7 bits per byte.
+     */
+    public static void putVarInt(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    public static int getVarInt(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0;; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Writes a non-negative long in 1 to 10 bytes, 7 bits per byte.
+     */
+    public static void putVarLong(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    public static long getVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0;; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Writes a signed int zigzag-encoded, so values near zero of either sign take one byte.
+     */
+    public static void putSignedVarInt(ByteBuffer out, int value) {
+        putVarInt(out, (value << 1) ^ (value >> 31));
+    }
+
+    public static int getSignedVarInt(ByteBuffer in) {
+        int zigzag = getVarInt(in);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+Responsibilities:
+
+- Summarise how a game server performed: how long its ticks took, and how many bytes it sent to each client, as
+  sent (deltas) and as full state would have cost.
+- Print the summary on its own, or as one row of a load test table.
+
+Data:
+
+- The number of players, ticks run and seconds played.
+- A histogram of server tick times in nanoseconds (simulation, encoding and sending).
+- The bytes sent to each client, the bytes of the state frames, and the bytes full state frames would have taken.
+- The number of clients that confirmed they decoded every delta correctly.
+ */
+
+package main.java.server;
+
+import main.java.metrics.Histogram;
+
+public class ServerStats {
+    private final int players;
+    private final long ticks;
+    private final double seconds;
+    private final Histogram tickTimes;
+    private final long bytesPerClient;
+    private final long deltaBytes;
+    private final long fullStateBytes;
+    private int clientsInSync = -1;
+
+    public ServerStats(int players, long ticks, double seconds, Histogram tickTimes, long bytesPerClient,
+            long deltaBytes, long fullStateBytes) {
+        this.players = players;
+        this.ticks = ticks;
+        this.seconds = seconds;
+        this.tickTimes = tickTimes;
+        this.bytesPerClient = bytesPerClient;
+        this.deltaBytes = deltaBytes;
+        this.fullStateBytes = fullStateBytes;
+    }
+
+    /**
+     * Records how many bundled bot clients ended in sync with the server.
+     */
+    public void setClientsInSync(int clientsInSync) {
+        this.clientsInSync = clientsInSync;
+    }
+
+    public double getBytesPerClientPerSecond() {
+        return seconds > 0 ? bytesPerClient / seconds : 0;
+    }
+
+    /**
+     * Prints the header of a load test table, one {@link #printRow()} per player count.
+     */
+    public static void printHeader() {
+        System.out.printf("%7s %7s %10s %10s %10s %14s %10s %8s%n", "players", "ticks", "tick p50", "tick p99",
+                "tick max", "bytes/client/s", "delta/full", "in sync");
+    }
+
+    public void printRow() {
+        System.out.printf("%7d %7d %8.1fus %8.1fus %8.1fus %14.0f %9.1f%% %8s%n", players, ticks,
+                tickTimes.percentile(0.50) / 1e3, tickTimes.percentile(0.99) / 1e3, tickTimes.getMax() / 1e3,
+                getBytesPerClientPerSecond(), deltaRatio() * 100, syncText());
+    }
+
+    public void print() {
+        System.out.println("\nServer");
+        System.out.println("------");
+        System.out.printf("Players: %d, ticks: %d, %.2f s%n", players, ticks, seconds);
+        System.out.printf("Tick time: %.1f us p50, %.1f us p99, %.1f us max%n", tickTimes.percentile(0.50) / 1e3,
+                tickTimes.percentile(0.99) / 1e3, tickTimes.getMax() / 1e3);
+        System.out.printf("Sent per client: %d bytes, %.0f bytes/s%n", bytesPerClient, getBytesPerClientPerSecond());
+        System.out.printf("State sent as deltas: %d bytes, %.1f%% of the %d bytes of full state%n", deltaBytes,
+                deltaRatio() * 100, fullStateBytes);
+        if (clientsInSync >= 0) {
+            System.out.println("Clients in sync: " + syncText());
+        }
+    }
+
+    private double deltaRatio() {
+        return fullStateBytes > 0 ? (double) deltaBytes / fullStateBytes : 0;
+    }
+
+    private String syncText() {
+        return clientsInSync < 0 ? "-" : clientsInSync + "/" + players;
+    }
+}
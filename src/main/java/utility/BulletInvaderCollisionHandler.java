@@ -1,35 +1,26 @@
 /*
 Responsibilities:
 
-- Handle collisions specifically between bullets and invaders within the game.
+- Handle collisions specifically between bullets and invaders within the game: the bullet is spent and the
+  invader takes one point of damage.
 
 Data:
 
 - Inherits the core collision handling structure from the CollisionHandler class, providing extensibility for handling various types of collisions.
+- Utilizes the object1 and object2 parameters as the bullet and invader involved in the collision (the dispatcher guarantees their types).
  */
 
 package main.java.utility;
 
 import main.java.model.GameObject;
-import main.java.model.Invader;
-import main.java.model.Bullet;
 
 public class BulletInvaderCollisionHandler extends CollisionHandler {
 
     @Override
-    public void handleCollision(GameObject object1, GameObject object2) {
-        // Check if object1 is a Bullet and object2 is an Invader
-        if (object1 instanceof Bullet && object2 instanceof Invader) {
-            // Handle collision logic between Bullet and Invader
-            Bullet bullet = (Bullet) object1;
-            Invader invader = (Invader) object2;
-
-            System.out.println("Bullet collided with Invader at (" + invader.getX() + ", " + invader.getY() + ")");
-        }
-
-        // Pass to the next handler if not handled by this handler
-        if (nextHandler != null) {
-            nextHandler.handleCollision(object1, object2);
-        }
+    public void handleCollision(GameObject bullet, GameObject invader) {
+        GameLogger.getInstance().log(LogLevel.DEBUG, LogEvent.BULLET_INVADER_COLLISION, invader.getX(), invader.getY());
+
+        bullet.takeDamage(bullet.getHealth());
+        invader.takeDamage(1);
     }
 }
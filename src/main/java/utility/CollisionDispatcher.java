@@ -0,0 +1,74 @@
+/*
+Responsibilities:
+
+- Route each collision to the handler registered for the pair of types involved, with a single table lookup
+  (so adding entity types does not lengthen every collision check).
+- Handle symmetric pairs: a handler registered for (A, B) also handles (B, A), with the objects passed back in
+  the registered order.
+
+Data:
+
+- A flat table of handlers indexed by the ordinals of the two entity types.
+- Whether each table entry needs its objects swapped before calling the handler.
+ */
+
+package main.java.utility;
+
+import main.java.model.EntityType;
+import main.java.model.GameObject;
+
+public class CollisionDispatcher {
+    private static final int TYPES = EntityType.values().length;
+
+    private final CollisionHandler[] handlers = new CollisionHandler[TYPES * TYPES];
+    private final boolean[] swapped = new boolean[TYPES * TYPES];
+
+    /**
+     * Registers the handler for collisions between two types of objects, in
+     * either order. Replaces any handler already registered for the pair.
+     *
+     * @param type1   The type of the handler's first object.
+     * @param type2   The type of the handler's second object.
+     * @param handler The handler to call.
+     */
+    public void register(EntityType type1, EntityType type2, CollisionHandler handler) {
+        int forward = index(type1, type2);
+        int reverse = index(type2, type1);
+        handlers[forward] = handler;
+        swapped[forward] = false;
+        if (reverse != forward) {
+            handlers[reverse] = handler;
+            swapped[reverse] = true;
+        }
+    }
+
+    /**
+     * Resolves a collision between two objects.
+     *
+     * @return True if a handler was registered for the pair and has been called.
+     */
+    public boolean dispatch(GameObject object1, GameObject object2) {
+        int index = index(object1.getType(), object2.getType());
+        CollisionHandler handler = handlers[index];
+        if (handler == null) {
+            return false;
+        }
+        if (swapped[index]) {
+            handler.handleCollision(object2, object1);
+        } else {
+            handler.handleCollision(object1, object2);
+        }
+        return true;
+    }
+
+    /**
+     * Checks if a handler is registered for a pair of types.
+     */
+    public boolean handles(EntityType type1, EntityType type2) {
+        return handlers[index(type1, type2)] != null;
+    }
+
+    private static int index(EntityType type1, EntityType type2) {
+        return type1.ordinal() * TYPES + type2.ordinal();
+    }
+}
@@ -1,12 +1,13 @@
 /*
 Responsibilities:
 
-- Handle collisions between different game objects.
-- Implement the Chain of Responsibility pattern, where a request is passed through a chain of handlers, each deciding whether to process the request or pass it to the next handler. This design pattern decouples the sender of a request from its receiver.
+- Resolve a collision between two game objects of a specific pair of types.
+- Be registered with a CollisionDispatcher under the pair of types it resolves, so it is only called for
+  collisions it handles and never has to check the types of the objects itself.
 
 Data:
 
-- Reference to the next collision handler in the chain, allowing for sequential processing of collision handling.
+- None (handlers resolve collisions by acting on the objects they are given).
  */
 
 package main.java.utility;
@@ -14,20 +15,11 @@ package main.java.utility;
 import main.java.model.GameObject;
 
 public abstract class CollisionHandler {
-    protected CollisionHandler nextHandler;
 
     /**
-     * Sets the next handler in the chain.
-     * 
-     * @param nextHandler The next collision handler to be invoked in the chain.
-     */
-    public void setNextHandler(CollisionHandler nextHandler) {
-        this.nextHandler = nextHandler;
-    }
-
-    /**
-     * Handles collisions between two game objects.
-     * 
+     * Handles collisions between two game objects. The objects are passed in the
+     * order of the types the handler was registered for.
+     *
      * @param object1 The first game object involved in the collision.
      * @param object2 The second game object involved in the collision.
      */
@@ -0,0 +1,226 @@
+/*
+Responsibilities:
+
+- Log game events without blocking the game thread on console or file I/O.
+- Hand events to a background writer thread through a bounded ring buffer; the writer renders and flushes them
+  in batches to stdout or a file.
+- Stay garbage-free on the game thread: events are stored as an event type plus integer arguments, and a call
+  below the current log level returns before touching the buffer.
+- Implement the Singleton pattern to ensure a single logger (and writer thread) per process.
+
+Data:
+
+- The current log level.
+- The ring buffer: per-slot event, level, arguments and optional message, plus the sequence published in each slot.
+- The producer claim and consumer sequences, and the number of events dropped because the buffer was full.
+- The output the writer thread renders to.
+ */
+
+package main.java.utility;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+public class GameLogger {
+    private static final int CAPACITY = 1 << 16;
+    private static final int MASK = CAPACITY - 1;
+    private static final int BATCH_SIZE = 1024;
+    private static final long IDLE_PARK_NANOS = 200_000;
+
+    private static GameLogger instance;
+
+    private volatile LogLevel level = LogLevel.INFO;
+    private final LogEvent[] events = new LogEvent[CAPACITY];
+    private final int[] firstArguments = new int[CAPACITY];
+    private final int[] secondArguments = new int[CAPACITY];
+    private final String[] messages = new String[CAPACITY];
+    private final AtomicLongArray published = new AtomicLongArray(CAPACITY);
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong consumed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final StringBuilder batch = new StringBuilder(64 * 1024);
+    private final Object outputLock = new Object();
+    private Writer output;
+    private final Thread writerThread;
+
+    // Private constructor to prevent instantiation
+    private GameLogger() {
+        for (int i = 0; i < CAPACITY; i++) {
+            published.set(i, -1);
+        }
+        output = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        writerThread = new Thread(this::runWriter, "game-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Gets the instance of the GameLogger class.
+     *
+     * @return The GameLogger instance.
+     */
+    public static synchronized GameLogger getInstance() {
+        if (instance == null) {
+            instance = new GameLogger();
+        }
+        return instance;
+    }
+
+    public LogLevel getLevel() {
+        return level;
+    }
+
+    public void setLevel(LogLevel level) {
+        this.level = level;
+    }
+
+    /**
+     * Checks if events at a level are currently being logged. Callers that would
+     * have to build a string to log should check this first.
+     */
+    public boolean isEnabled(LogLevel eventLevel) {
+        return eventLevel.ordinal() >= level.ordinal() && level != LogLevel.OFF;
+    }
+
+    /**
+     * Sends logged events to a file instead of stdout. Events already queued may
+     * be written to either output.
+     *
+     * @param file The file to write to; it is created or truncated.
+     * @throws IOException If the file cannot be opened.
+     */
+    public void logToFile(Path file) throws IOException {
+        Writer fileOutput = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        synchronized (outputLock) {
+            flushOutput();
+            output = fileOutput;
+        }
+    }
+
+    /**
+     * Gets the number of events that were discarded because the writer could not keep up.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public void log(LogLevel eventLevel, LogEvent event) {
+        if (isEnabled(eventLevel)) {
+            publish(event, 0, 0, null);
+        }
+    }
+
+    public void log(LogLevel eventLevel, LogEvent event, int a) {
+        if (isEnabled(eventLevel)) {
+            publish(event, a, 0, null);
+        }
+    }
+
+    public void log(LogLevel eventLevel, LogEvent event, int a, int b) {
+        if (isEnabled(eventLevel)) {
+            publish(event, a, b, null);
+        }
+    }
+
+    /**
+     * Logs a free-form message. Intended for rare events only, since the caller
+     * has already built the string.
+     */
+    public void log(LogLevel eventLevel, String message) {
+        if (isEnabled(eventLevel)) {
+            publish(LogEvent.MESSAGE, 0, 0, message);
+        }
+    }
+
+    /**
+     * Blocks until every event logged so far has been written and the output flushed.
+     * Call before printing directly to stdout, so output is not interleaved.
+     */
+    public void flush() {
+        long target = claimed.get();
+        while (consumed.get() < target) {
+            LockSupport.unpark(writerThread);
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+        synchronized (outputLock) {
+            flushOutput();
+        }
+    }
+
+    private void publish(LogEvent event, int a, int b, String message) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed.get() >= CAPACITY) {
+                // Never block the game thread: drop the event if the writer is a full buffer behind
+                dropped.incrementAndGet();
+                return;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        int index = (int) sequence & MASK;
+        events[index] = event;
+        firstArguments[index] = a;
+        secondArguments[index] = b;
+        messages[index] = message;
+        published.lazySet(index, sequence);
+    }
+
+    private void runWriter() {
+        while (true) {
+            if (drainBatch() == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private int drainBatch() {
+        long next = consumed.get();
+        int count = 0;
+        batch.setLength(0);
+        while (count < BATCH_SIZE) {
+            int index = (int) next & MASK;
+            if (published.get(index) != next) {
+                break;
+            }
+            LogEvent event = events[index];
+            if (event == LogEvent.MESSAGE) {
+                batch.append(messages[index]);
+                messages[index] = null;
+            } else {
+                event.appendTo(batch, firstArguments[index], secondArguments[index]);
+            }
+            batch.append('\n');
+            next++;
+            count++;
+        }
+        if (count > 0) {
+            synchronized (outputLock) {
+                try {
+                    output.append(batch);
+                    output.flush();
+                } catch (IOException e) {
+                    System.err.println("Failed to write game log: " + e.getMessage());
+                }
+            }
+            consumed.lazySet(next);
+        }
+        return count;
+    }
+
+    private void flushOutput() {
+        try {
+            output.flush();
+        } catch (IOException e) {
+            System.err.println("Failed to flush game log: " + e.getMessage());
+        }
+    }
+}
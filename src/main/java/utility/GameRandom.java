@@ -0,0 +1,55 @@
+/*
+Responsibilities:
+
+- Generate the pseudo-random numbers a game uses (SplitMix64), so a game is fully reproducible from its seed.
+- Expose the generator state, so it can be saved and restored together with the rest of a game.
+
+Data:
+
+- A single 64-bit state word. Not thread safe: each game (or input source) owns its own generator.
+ */
+
+package main.java.utility;
+
+public class GameRandom {
+    private long state;
+
+    public GameRandom(long seed) {
+        this.state = seed;
+    }
+
+    /**
+     * Gets the next random 64-bit value.
+     */
+    public long nextLong() {
+        long z = (state += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Gets a random value from 0 (inclusive) to bound (exclusive).
+     *
+     * @param bound The upper bound, which must be positive.
+     */
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("Bound must be positive: " + bound);
+        }
+        // Scale the top 32 bits into the range instead of using a slow modulo
+        return (int) (((nextLong() >>> 32) * bound) >>> 32);
+    }
+
+    public boolean nextBoolean() {
+        return nextLong() < 0;
+    }
+
+    public long getState() {
+        return state;
+    }
+
+    public void setState(long state) {
+        this.state = state;
+    }
+}
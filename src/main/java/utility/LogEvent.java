@@ -0,0 +1,56 @@
+/*
+Responsibilities:
+
+- Name every kind of message the game logs, together with the text it is rendered as.
+- Render a message from its integer arguments, so the game thread never has to build strings.
+
+Data:
+
+- The message template of each event, where each "{}" is replaced by the next integer argument.
+ */
+
+package main.java.utility;
+
+public enum LogEvent {
+    GAME_STARTED("Game Started\n------------"),
+    LEVEL_STARTED("\nStarting Level {}\n--------------\n"),
+    INVADER_SPAWNED("Invader spawned at ({}, {})"),
+    PLAYER_INVADER_COLLISION("Player collided with Invader at ({}, {})"),
+    BULLET_INVADER_COLLISION("Bullet collided with Invader at ({}, {})"),
+    SHOT_SOUND("Pew! Player shoots and moves from ({},{})"),
+    EXPLOSION_SOUND("**********************************\n"
+            + "[BOOM!] {} Invader(s) destroyed thus far!\n"
+            + "**********************************"),
+    CRASH_SOUND("[CRASH!] Player collided with an invader at ({},{})"),
+    SHOT_DOWN_SOUND("[BLAST!] Player was shot down at ({},{})"),
+    INVADER_FIRED("Invader fired from ({}, {})"),
+    GAME_WON("Player completed all levels! Invaders killed: {}"),
+    LEVEL_COMPLETED("Level {} complete"),
+    GAME_LOST("Game Over. Player lost but destroyed {} Invaders."),
+    MESSAGE("");
+
+    private final String template;
+
+    LogEvent(String template) {
+        this.template = template;
+    }
+
+    /**
+     * Appends the rendered message to a buffer.
+     *
+     * @param out The buffer to append to.
+     * @param a   The value for the first placeholder.
+     * @param b   The value for the second placeholder.
+     */
+    public void appendTo(StringBuilder out, int a, int b) {
+        int argument = 0;
+        int start = 0;
+        int placeholder;
+        while ((placeholder = template.indexOf("{}", start)) >= 0) {
+            out.append(template, start, placeholder);
+            out.append(argument++ == 0 ? a : b);
+            start = placeholder + 2;
+        }
+        out.append(template, start, template.length());
+    }
+}
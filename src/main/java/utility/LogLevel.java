@@ -0,0 +1,18 @@
+/*
+Responsibilities:
+
+- Rank game log messages by importance, so less important ones can be switched off.
+
+Data:
+
+- None (the levels are ordered from most to least verbose; OFF disables logging).
+ */
+
+package main.java.utility;
+
+public enum LogLevel {
+    DEBUG,
+    INFO,
+    WARN,
+    OFF
+}
@@ -1,22 +1,26 @@
 /*
 Responsibilities:
 
-- Manage game sounds, including playing sound files.
+- Manage game sounds: queue each one on the audio mixer when sound is enabled.
 - Implement the Singleton pattern to ensure a single instance of the SoundManager class.
 
 Data:
 
-- None (the SoundManager class is a stateless utility class and does not maintain specific data).
+- The audio mixer that plays the sounds, or none when sound is off.
  */
 
 package main.java.utility;
 
+import main.java.audio.AudioMixer;
+import main.java.audio.SoundEffect;
+
 public class SoundManager {
     private static SoundManager instance;
 
+    private volatile AudioMixer mixer;
+
     // Private constructor to prevent instantiation
     private SoundManager() {
-        // TODO: Initialize sound system or resources, if needed
     }
 
     /**
@@ -24,7 +28,7 @@ public class SoundManager {
      * 
      * @return The SoundManager instance.
      */
-    public static SoundManager getInstance() {
+    public static synchronized SoundManager getInstance() {
         if (instance == null) {
             instance = new SoundManager();
         }
@@ -32,12 +36,34 @@ public class SoundManager {
     }
 
     /**
-     * Plays a sound file.
-     * 
-     * @param soundFile The file path or description of the sound to be played.
+     * Sets the mixer sounds are played on.
+     *
+     * @param mixer The started mixer, or null to turn sound off.
+     */
+    public void setMixer(AudioMixer mixer) {
+        this.mixer = mixer;
+    }
+
+    /**
+     * Plays a sound effect. Never blocks: the effect is only queued.
      */
-    public void playSound(String soundFile) {
-        // Placeholder for play sound logic
-        System.out.println(soundFile);
+    public void play(SoundEffect effect) {
+        AudioMixer current = mixer;
+        if (current != null) {
+            current.play(effect.getId());
+        }
+    }
+
+    /**
+     * Plays a sound effect for something that happened in a game tick. Never
+     * blocks: the effect is only queued.
+     *
+     * @param tick The tick, which places the effect when the mixer times effects by tick.
+     */
+    public void play(SoundEffect effect, long tick) {
+        AudioMixer current = mixer;
+        if (current != null) {
+            current.play(effect.getId(), tick);
+        }
     }
 }
@@ -0,0 +1,195 @@
+/*
+Responsibilities:
+
+- Index game objects by position in a uniform grid of cells, so collision queries only look at nearby objects
+  instead of scanning every object in the game (broad-phase collision detection).
+- Rebuild the index each tick without allocating once its buffers have grown to fit.
+- Answer queries from several threads at once, each reading its results into its own Query.
+
+Data:
+
+- Cell size and the number of grid columns and rows covering the arena.
+- Per-cell start offsets into a packed array of store slots (built with a counting sort).
+- The Query used by the single-threaded query methods: per-object stamps, used to report an object spanning
+  several cells only once per query, and the reusable result buffer of the last query.
+ */
+
+package main.java.utility;
+
+import java.util.Arrays;
+
+import main.java.model.Arena;
+import main.java.model.EntityStore;
+import main.java.model.GameObject;
+
+public class SpatialGrid<T extends GameObject> {
+    private final int cellSize;
+    private final int columns;
+    private final int rows;
+    private final int[] cellStart;
+    private final int[] cellFill;
+    private int[] entries = new int[16];
+    private final Query query = new Query();
+    private EntityStore<T> store;
+
+    /**
+     * The results of queries made by one thread. Threads querying the same grid
+     * at once each need their own.
+     */
+    public static class Query {
+        private int[] stamps = new int[16];
+        private int[] results = new int[16];
+        private int stamp;
+
+        /**
+         * Gets the store slot of a candidate object from the last query.
+         *
+         * @param i The result position, from 0 to the count returned by the query.
+         */
+        public int resultSlot(int i) {
+            return results[i];
+        }
+    }
+
+    public SpatialGrid(Arena arena, int cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive: " + cellSize);
+        }
+        this.cellSize = cellSize;
+        this.columns = (arena.getWidth() + cellSize - 1) / cellSize;
+        this.rows = (arena.getHeight() + cellSize - 1) / cellSize;
+        this.cellStart = new int[columns * rows + 1];
+        this.cellFill = new int[columns * rows];
+    }
+
+    /**
+     * Re-indexes the objects in a store by their current bounds. Slots returned by
+     * {@link #query} stay valid until the store is next modified or the grid is rebuilt.
+     *
+     * @param store The store holding the objects to index.
+     */
+    public void rebuild(EntityStore<T> store) {
+        this.store = store;
+        int count = store.size();
+        Arrays.fill(cellStart, 0);
+
+        // First pass: count how many objects cover each cell
+        int total = 0;
+        for (int i = 0; i < count; i++) {
+            int minColumn = column(store.x(i));
+            int maxColumn = column(store.x(i) + store.width(i) - 1);
+            int minRow = row(store.y(i));
+            int maxRow = row(store.y(i) + store.height(i) - 1);
+            for (int r = minRow; r <= maxRow; r++) {
+                for (int c = minColumn; c <= maxColumn; c++) {
+                    cellStart[r * columns + c + 1]++;
+                    total++;
+                }
+            }
+        }
+
+        // Prefix sum turns the counts into start offsets
+        for (int cell = 0; cell < columns * rows; cell++) {
+            cellStart[cell + 1] += cellStart[cell];
+        }
+
+        if (entries.length < total) {
+            entries = new int[Math.max(total, entries.length * 2)];
+        }
+        // Second pass: place each object's index into the cells it covers
+        System.arraycopy(cellStart, 0, cellFill, 0, cellFill.length);
+        for (int i = 0; i < count; i++) {
+            int minColumn = column(store.x(i));
+            int maxColumn = column(store.x(i) + store.width(i) - 1);
+            int minRow = row(store.y(i));
+            int maxRow = row(store.y(i) + store.height(i) - 1);
+            for (int r = minRow; r <= maxRow; r++) {
+                for (int c = minColumn; c <= maxColumn; c++) {
+                    entries[cellFill[r * columns + c]++] = i;
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the indexed objects whose cells overlap the given bounds. The
+     * matches are read back with {@link #result(int)}.
+     *
+     * @return The number of candidate objects found.
+     */
+    public int query(int x, int y, int width, int height) {
+        return query(x, y, width, height, query);
+    }
+
+    /**
+     * Finds the indexed objects whose cells overlap the given bounds, into a
+     * Query of the calling thread. Safe to call from several threads at once
+     * while the grid is not being rebuilt.
+     *
+     * @return The number of candidate objects found, read back with {@link Query#resultSlot(int)}.
+     */
+    public int query(int x, int y, int width, int height, Query into) {
+        if (store == null) {
+            return 0;
+        }
+        if (into.stamps.length < store.size()) {
+            into.stamps = Arrays.copyOf(into.stamps, Math.max(store.size(), into.stamps.length * 2));
+        }
+        // The stamp only ever increases, so stamps left by earlier queries, even before a rebuild, never match
+        if (++into.stamp == 0) {
+            Arrays.fill(into.stamps, 0);
+            into.stamp = 1;
+        }
+        int stamp = into.stamp;
+        int[] stamps = into.stamps;
+        int[] results = into.results;
+        int found = 0;
+        int minColumn = column(x);
+        int maxColumn = column(x + width - 1);
+        int minRow = row(y);
+        int maxRow = row(y + height - 1);
+        for (int r = minRow; r <= maxRow; r++) {
+            for (int c = minColumn; c <= maxColumn; c++) {
+                int cell = r * columns + c;
+                for (int e = cellStart[cell]; e < cellStart[cell + 1]; e++) {
+                    int index = entries[e];
+                    if (stamps[index] != stamp) {
+                        stamps[index] = stamp;
+                        if (found == results.length) {
+                            results = Arrays.copyOf(results, found * 2);
+                            into.results = results;
+                        }
+                        results[found++] = index;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Gets a candidate object from the last query.
+     *
+     * @param i The result position, from 0 to the count returned by the query.
+     */
+    public T result(int i) {
+        return store.get(query.results[i]);
+    }
+
+    /**
+     * Gets the store slot of a candidate object from the last query.
+     *
+     * @param i The result position, from 0 to the count returned by the query.
+     */
+    public int resultSlot(int i) {
+        return query.results[i];
+    }
+
+    private int column(int x) {
+        return Math.min(Math.max(x / cellSize, 0), columns - 1);
+    }
+
+    private int row(int y) {
+        return Math.min(Math.max(y / cellSize, 0), rows - 1);
+    }
+}